@@ -1,13 +1,21 @@
 package com.rentas.properties.api.controller;
 
 import com.rentas.properties.api.dto.response.DashboardResponse;
+import com.rentas.properties.api.dto.response.RevenueTrendResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @Tag(name = "Dashboard", description = "Endpoint para obtener toda la información del dashboard")
 public interface DashboardController {
@@ -26,4 +34,58 @@ public interface DashboardController {
             @ApiResponse(responseCode = "403", description = "No tienes permisos")
     })
     ResponseEntity<DashboardResponse> getDashboardData();
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Tendencia de ingresos multi-año",
+            description = "Ingresos pagados por año y por mes en un rango de años. Por defecto, los últimos 3 años"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Tendencia obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = RevenueTrendResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Rango de años inválido"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    ResponseEntity<RevenueTrendResponse> getRevenueTrend(
+            @Parameter(description = "Año inicial (ej: 2022)")
+            @RequestParam(required = false) Integer fromYear,
+            @Parameter(description = "Año final (ej: 2024)")
+            @RequestParam(required = false) Integer toYear
+    );
+
+    @Operation(
+            summary = "Ranking de propiedades",
+            description = "Top de propiedades por ingresos cobrados (REVENUE) o por pagos atrasados (OVERDUE), " +
+                    "con ventana opcional sobre la fecha de vencimiento"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranking obtenido exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Métrica o fechas inválidas"),
+            @ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    ResponseEntity<List<DashboardResponse.TopProperty>> getTopProperties(
+            @Parameter(description = "REVENUE u OVERDUE")
+            @RequestParam(defaultValue = "REVENUE") String metric,
+            @Parameter(description = "Fecha inicial (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha final (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Número de propiedades (máx. 50)")
+            @RequestParam(required = false) Integer limit
+    );
+
+    @Operation(
+            summary = "Dashboard en vivo (SSE)",
+            description = "Stream text/event-stream con los cambios del dashboard de la organización. " +
+                    "Eventos: 'connected', 'delta' (estadísticas que cambiaron y alertas nuevas) y 'resync' " +
+                    "(el cliente debe volver a pedir /dashboard). Se envía un heartbeat periódico"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream abierto"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "429", description = "Máximo de conexiones por organización alcanzado")
+    })
+    SseEmitter streamDashboard();
+}
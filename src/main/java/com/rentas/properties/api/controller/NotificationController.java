@@ -1,10 +1,13 @@
 package com.rentas.properties.api.controller;
 
 import com.rentas.properties.api.dto.request.NotificationSettingsRequest;
+import com.rentas.properties.api.dto.request.NotificationTemplateRequest;
 import com.rentas.properties.api.dto.request.SendTestNotificationRequest;
 import com.rentas.properties.api.dto.response.NotificationSettingsResponse;
 import com.rentas.properties.api.dto.response.NotificationStatsResponse;
+import com.rentas.properties.api.dto.response.NotificationTemplateResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,9 +15,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.Map;
 
 @Tag(name = "Notifications", description = "Endpoints para gestión de notificaciones automáticas (SMS/WhatsApp)")
@@ -77,21 +83,71 @@ public interface NotificationController {
     })
     ResponseEntity<NotificationStatsResponse> getNotificationStats();
 
+    @Operation(
+            summary = "Obtener plantillas de mensajes",
+            description = "Obtiene el texto vigente de cada tipo de mensaje (personalizado o por defecto) y sus variables"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Plantillas obtenidas exitosamente")
+    })
+    ResponseEntity<List<NotificationTemplateResponse>> getNotificationTemplates(
+            @Parameter(description = "Idioma (por defecto el de la organización)") @RequestParam(required = false) String locale
+    );
+
+    @Operation(
+            summary = "Personalizar plantilla de mensaje",
+            description = "Define el texto de un tipo de mensaje con variables {{nombre}}. " +
+                    "Requiere plan con WHITE_LABEL y rol ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Plantilla actualizada exitosamente",
+                    content = @Content(schema = @Schema(implementation = NotificationTemplateResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Tipo de plantilla o variables inválidas"),
+            @ApiResponse(responseCode = "403", description = "No tienes permisos o tu plan no lo incluye")
+    })
+    ResponseEntity<NotificationTemplateResponse> updateNotificationTemplate(
+            @Parameter(description = "Tipo de mensaje", required = true) @PathVariable String templateKey,
+            @Valid @RequestBody NotificationTemplateRequest request
+    );
+
+    @Operation(
+            summary = "Restablecer plantilla de mensaje",
+            description = "Elimina la plantilla personalizada y vuelve al texto por defecto"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Plantilla restablecida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Tipo de plantilla inválido"),
+            @ApiResponse(responseCode = "403", description = "No tienes permisos")
+    })
+    ResponseEntity<Void> resetNotificationTemplate(
+            @Parameter(description = "Tipo de mensaje", required = true) @PathVariable String templateKey,
+            @Parameter(description = "Idioma (por defecto el de la organización)") @RequestParam(required = false) String locale
+    );
+
     @Operation(
             summary = "Webhook para Twilio",
             description = "Recibe actualizaciones de estado de mensajes desde Twilio WhatsApp"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Webhook procesado exitosamente")
+            @ApiResponse(responseCode = "200", description = "Webhook recibido; el estado se aplica en el siguiente lote"),
+            @ApiResponse(responseCode = "403", description = "Firma X-Twilio-Signature inválida")
     })
-    ResponseEntity<Void> twilioWebhook(@RequestParam Map<String, String> params);
+    ResponseEntity<Void> twilioWebhook(
+            @RequestHeader(value = "X-Twilio-Signature", required = false) String signature,
+            @RequestParam Map<String, String> params
+    );
 
     @Operation(
             summary = "Webhook para AWS SNS",
             description = "Recibe actualizaciones de estado de mensajes desde AWS SNS"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Webhook procesado exitosamente")
+            @ApiResponse(responseCode = "200", description = "Webhook recibido; el estado se aplica en el siguiente lote"),
+            @ApiResponse(responseCode = "400", description = "Cuerpo inválido"),
+            @ApiResponse(responseCode = "403", description = "Firma de SNS inválida")
     })
-    ResponseEntity<Void> awsWebhook(@RequestBody Map<String, Object> payload);
+    ResponseEntity<Void> awsWebhook(@RequestBody String body);
 }
\ No newline at end of file
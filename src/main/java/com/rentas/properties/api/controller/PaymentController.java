@@ -4,7 +4,9 @@ import com.rentas.properties.api.dto.request.AddLateFeeRequest;
 import com.rentas.properties.api.dto.request.CreatePaymentRequest;
 import com.rentas.properties.api.dto.request.MarkAsPaidRequest;
 import com.rentas.properties.api.dto.request.UpdatePaymentRequest;
+import com.rentas.properties.api.dto.response.LateFeeRunResponse;
 import com.rentas.properties.api.dto.response.PaymentDetailResponse;
+import com.rentas.properties.api.dto.response.PaymentPageResponse;
 import com.rentas.properties.api.dto.response.PaymentResponse;
 import com.rentas.properties.api.dto.response.PaymentSummaryResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -129,15 +131,17 @@ public interface PaymentController {
 
     @Operation(
             summary = "Calcular recargos automáticos",
-            description = "Calcula y aplica recargos por mora a todos los pagos atrasados de la organización"
+            description = "Aplica recargos por mora, según las reglas de la organización, a los pagos atrasados " +
+                    "que aún no tienen recargo. Devuelve el número de pagos actualizados y el total de recargos"
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Recargos calculados y aplicados exitosamente"
+                    description = "Recargos calculados y aplicados exitosamente",
+                    content = @Content(schema = @Schema(implementation = LateFeeRunResponse.class))
             )
     })
-    ResponseEntity<String> calculateAutomaticLateFees();
+    ResponseEntity<LateFeeRunResponse> calculateAutomaticLateFees();
 
     @Operation(
             summary = "Obtener pagos por contrato",
@@ -207,21 +211,30 @@ public interface PaymentController {
 
     @Operation(
             summary = "Obtener pagos por periodo",
-            description = "Lista pagos de un mes/año específico"
+            description = "Lista paginada de los pagos de la organización en un mes/año específico, " +
+                    "ordenados por fecha de vencimiento. Usa nextCursor para pedir la siguiente página"
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Lista obtenida exitosamente",
-                    content = @Content(schema = @Schema(implementation = PaymentResponse.class))
+                    description = "Página obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = PaymentPageResponse.class))
             ),
-            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+            @ApiResponse(responseCode = "400", description = "Periodo, filtro, cursor o tamaño inválido")
     })
-    ResponseEntity<List<PaymentResponse>> getPaymentsByPeriod(
+    ResponseEntity<PaymentPageResponse> getPaymentsByPeriod(
             @Parameter(description = "Año (ej: 2024)")
             @RequestParam int year,
             @Parameter(description = "Mes (1-12)")
-            @RequestParam int month
+            @RequestParam int month,
+            @Parameter(description = "Estado (PENDIENTE, PAGADO, ATRASADO, PARCIAL)")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Tipo de pago (RENTA, AGUA, DEPOSITO, ADELANTO)")
+            @RequestParam(required = false) String paymentType,
+            @Parameter(description = "nextCursor de la página anterior; vacío para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-200, por defecto 50)")
+            @RequestParam(defaultValue = "50") int size
     );
 
     @Operation(
@@ -2,13 +2,22 @@ package com.rentas.properties.api.controller.impl;
 
 import com.rentas.properties.api.controller.DashboardController;
 import com.rentas.properties.api.dto.response.DashboardResponse;
+import com.rentas.properties.api.dto.response.RevenueTrendResponse;
 import com.rentas.properties.business.services.DashboardService;
+import com.rentas.properties.business.services.DashboardStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
@@ -17,6 +26,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardControllerImpl implements DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStreamService dashboardStreamService;
 
     @Override
     @GetMapping
@@ -26,4 +36,33 @@ public class DashboardControllerImpl implements DashboardController {
         log.info("Datos del dashboard obtenidos exitosamente");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @Override
+    @GetMapping("/revenue-trend")
+    public ResponseEntity<RevenueTrendResponse> getRevenueTrend(
+            @RequestParam(required = false) Integer fromYear,
+            @RequestParam(required = false) Integer toYear) {
+        log.info("Obteniendo tendencia de ingresos {} - {}", fromYear, toYear);
+        RevenueTrendResponse response = dashboardService.getRevenueTrend(fromYear, toYear);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    @GetMapping("/top-properties")
+    public ResponseEntity<List<DashboardResponse.TopProperty>> getTopProperties(
+            @RequestParam(defaultValue = "REVENUE") String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Obteniendo ranking de propiedades por {}", metric);
+        List<DashboardResponse.TopProperty> response = dashboardService.getTopProperties(metric, from, to, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        log.info("Abriendo stream del dashboard");
+        return dashboardStreamService.subscribe();
+    }
+}
@@ -2,22 +2,27 @@ package com.rentas.properties.api.controller.impl;
 
 import com.rentas.properties.api.controller.NotificationController;
 import com.rentas.properties.api.dto.request.NotificationSettingsRequest;
+import com.rentas.properties.api.dto.request.NotificationTemplateRequest;
 import com.rentas.properties.api.dto.request.SendTestNotificationRequest;
 import com.rentas.properties.api.dto.response.NotificationSettingsResponse;
 import com.rentas.properties.api.dto.response.NotificationStatsResponse;
+import com.rentas.properties.api.dto.response.NotificationTemplateResponse;
+import com.rentas.properties.business.services.NotificationTemplateService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentas.properties.business.provider.WebhookSignatureVerifier;
 import com.rentas.properties.business.services.impl.NotificationServiceImpl;
-import com.rentas.properties.dao.entity.Notification;
-import com.rentas.properties.dao.repository.NotificationRepository;
+import com.rentas.properties.business.services.impl.NotificationStatusBuffer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -26,7 +31,10 @@ import java.util.UUID;
 public class NotificationControllerImpl implements NotificationController {
 
     private final NotificationServiceImpl notificationService;
-    private final NotificationRepository notificationRepository;
+    private final NotificationTemplateService notificationTemplateService;
+    private final NotificationStatusBuffer notificationStatusBuffer;
+    private final WebhookSignatureVerifier webhookSignatureVerifier;
+    private final ObjectMapper objectMapper;
 
     @Override
     @GetMapping("/settings")
@@ -66,20 +74,49 @@ public class NotificationControllerImpl implements NotificationController {
     }
 
     @Override
-    @PostMapping("/webhooks/twilio")
-    public ResponseEntity<Void> twilioWebhook(@RequestParam Map<String, String> params) {
-        log.info("Webhook de Twilio recibido: {}", params);
+    @GetMapping("/templates")
+    public ResponseEntity<List<NotificationTemplateResponse>> getNotificationTemplates(
+            @RequestParam(required = false) String locale) {
+        log.info("Solicitando plantillas de notificaciones");
+        return ResponseEntity.ok(notificationTemplateService.getTemplates(locale));
+    }
 
-        try {
-            String messageSid = params.get("MessageSid");
-            String messageStatus = params.get("MessageStatus");
+    @Override
+    @PutMapping("/templates/{templateKey}")
+    public ResponseEntity<NotificationTemplateResponse> updateNotificationTemplate(
+            @PathVariable String templateKey,
+            @Valid @RequestBody NotificationTemplateRequest request) {
+        log.info("Actualizando plantilla de notificación {}", templateKey);
+        return ResponseEntity.ok(notificationTemplateService.updateTemplate(templateKey, request));
+    }
 
-            if (messageSid != null && messageStatus != null) {
-                updateNotificationStatus(messageSid, messageStatus);
-            }
+    @Override
+    @DeleteMapping("/templates/{templateKey}")
+    public ResponseEntity<Void> resetNotificationTemplate(
+            @PathVariable String templateKey,
+            @RequestParam(required = false) String locale) {
+        log.info("Restableciendo plantilla de notificación {}", templateKey);
+        notificationTemplateService.resetTemplate(templateKey, locale);
+        return ResponseEntity.noContent().build();
+    }
 
-        } catch (Exception e) {
-            log.error("Error procesando webhook de Twilio: {}", e.getMessage(), e);
+    @Override
+    @PostMapping("/webhooks/twilio")
+    public ResponseEntity<Void> twilioWebhook(
+            @RequestHeader(value = "X-Twilio-Signature", required = false) String signature,
+            @RequestParam Map<String, String> params) {
+        log.debug("Webhook de Twilio recibido: {}", params);
+
+        if (!webhookSignatureVerifier.isValidTwilio(signature, params)) {
+            log.warn("Webhook de Twilio con firma inválida rechazado");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String messageSid = params.get("MessageSid");
+        String messageStatus = params.get("MessageStatus");
+
+        if (messageSid != null && messageStatus != null) {
+            notificationStatusBuffer.record(messageSid, messageStatus);
         }
 
         return ResponseEntity.ok().build();
@@ -87,55 +124,32 @@ public class NotificationControllerImpl implements NotificationController {
 
     @Override
     @PostMapping("/webhooks/aws")
-    public ResponseEntity<Void> awsWebhook(@RequestBody Map<String, Object> payload) {
-        log.info("Webhook de AWS SNS recibido: {}", payload);
+    public ResponseEntity<Void> awsWebhook(@RequestBody String body) {
+        log.debug("Webhook de AWS SNS recibido: {}", body);
 
+        // SNS envía JSON con Content-Type text/plain
+        Map<String, Object> payload;
         try {
-            // AWS SNS envía notificaciones en formato JSON
-            // El formato puede variar según el tipo de notificación
-            String messageId = (String) payload.get("MessageId");
-            String status = (String) payload.get("Status");
-
-            if (messageId != null && status != null) {
-                updateNotificationStatus(messageId, status);
-            }
-
+            payload = objectMapper.readValue(body, new TypeReference<>() {
+            });
         } catch (Exception e) {
-            log.error("Error procesando webhook de AWS: {}", e.getMessage(), e);
+            log.warn("Webhook de AWS SNS con cuerpo inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
 
-        return ResponseEntity.ok().build();
-    }
+        if (!webhookSignatureVerifier.isValidSns(payload)) {
+            log.warn("Webhook de AWS SNS con firma inválida rechazado");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
 
-    private void updateNotificationStatus(String providerMessageId, String status) {
-        log.debug("Actualizando estado de notificación: {} -> {}", providerMessageId, status);
-
-        // Buscar notificación por provider_message_id
-        notificationRepository.findAll().stream()
-                .filter(n -> providerMessageId.equals(n.getProviderMessageId()))
-                .findFirst()
-                .ifPresent(notification -> {
-                    String mappedStatus = mapProviderStatus(status);
-                    notification.setStatus(mappedStatus);
-
-                    if ("DELIVERED".equals(mappedStatus)) {
-                        notification.setDeliveredAt(LocalDateTime.now());
-                    } else if ("FAILED".equals(mappedStatus)) {
-                        notification.setErrorMessage("Fallo reportado por proveedor: " + status);
-                    }
-
-                    notificationRepository.save(notification);
-                    log.info("Estado de notificación {} actualizado a {}", notification.getId(), mappedStatus);
-                });
-    }
+        // El formato puede variar según el tipo de notificación
+        Object messageId = payload.get("MessageId");
+        Object status = payload.get("Status");
 
-    private String mapProviderStatus(String providerStatus) {
-        // Mapeo de estados de Twilio y AWS a nuestros estados internos
-        return switch (providerStatus.toUpperCase()) {
-            case "SENT", "QUEUED" -> "SENT";
-            case "DELIVERED", "DELIVERY_CONFIRMED" -> "DELIVERED";
-            case "FAILED", "UNDELIVERED" -> "FAILED";
-            default -> "SENT";
-        };
+        if (messageId != null && status != null) {
+            notificationStatusBuffer.record(messageId.toString(), status.toString());
+        }
+
+        return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,9 @@ import com.rentas.properties.api.dto.request.AddLateFeeRequest;
 import com.rentas.properties.api.dto.request.CreatePaymentRequest;
 import com.rentas.properties.api.dto.request.MarkAsPaidRequest;
 import com.rentas.properties.api.dto.request.UpdatePaymentRequest;
+import com.rentas.properties.api.dto.response.LateFeeRunResponse;
 import com.rentas.properties.api.dto.response.PaymentDetailResponse;
+import com.rentas.properties.api.dto.response.PaymentPageResponse;
 import com.rentas.properties.api.dto.response.PaymentResponse;
 import com.rentas.properties.api.dto.response.PaymentSummaryResponse;
 import com.rentas.properties.business.services.PaymentService;
@@ -92,11 +94,11 @@ public class PaymentControllerImpl implements PaymentController {
 
     @Override
     @PostMapping("/calculate-late-fees")
-    public ResponseEntity<String> calculateAutomaticLateFees() {
+    public ResponseEntity<LateFeeRunResponse> calculateAutomaticLateFees() {
         log.info("Calculando recargos automáticos por mora");
-        int count = paymentService.calculateAutomaticLateFees();
-        log.info("Recargos aplicados a {} pagos", count);
-        return ResponseEntity.ok(String.format("Se aplicaron recargos a %d pagos atrasados", count));
+        LateFeeRunResponse response = paymentService.calculateAutomaticLateFees();
+        log.info("Recargos aplicados a {} pagos: ${}", response.getPaymentsUpdated(), response.getTotalLateFees());
+        return ResponseEntity.ok(response);
     }
 
     @Override
@@ -146,14 +148,18 @@ public class PaymentControllerImpl implements PaymentController {
 
     @Override
     @GetMapping("/by-period")
-    public ResponseEntity<List<PaymentResponse>> getPaymentsByPeriod(
+    public ResponseEntity<PaymentPageResponse> getPaymentsByPeriod(
             @RequestParam int year,
-            @RequestParam int month
+            @RequestParam int month,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
     ) {
         log.info("Obteniendo pagos del periodo {}/{}", month, year);
-        List<PaymentResponse> payments = paymentService.getPaymentsByPeriod(year, month);
-        log.info("Se encontraron {} pagos para el periodo", payments.size());
-        return ResponseEntity.ok(payments);
+        PaymentPageResponse page = paymentService.getPaymentsByPeriod(year, month, status, paymentType, cursor, size);
+        log.info("Se encontraron {} pagos para el periodo", page.getSize());
+        return ResponseEntity.ok(page);
     }
 
     @Override
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,4 +22,14 @@ public class NotificationSettingsRequest {
     private String channel;
 
     private Boolean adminNotifications;
+
+    // Ventana de envío de recordatorios (HH:mm); ambas o ninguna
+    private LocalTime notificationWindowStart;
+
+    private LocalTime notificationWindowEnd;
+
+    // Idioma de las plantillas personalizadas (plan WHITE_LABEL, ver notification.templates.supported-locales);
+    // null = no se modifica
+    @Pattern(regexp = "^[a-z]{2}(-[A-Z]{2})?$", message = "El idioma debe tener formato es o es-MX")
+    private String notificationLocale;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.rentas.properties.api.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationTemplateRequest {
+
+    @NotBlank(message = "El texto de la plantilla es obligatorio")
+    @Size(max = 1000, message = "La plantilla no puede exceder 1000 caracteres")
+    private String body;
+
+    @Pattern(regexp = "^[a-z]{2}(-[A-Z]{2})?$", message = "El idioma debe tener formato es o es-MX")
+    private String locale;
+}
@@ -1,5 +1,9 @@
 package com.rentas.properties.api.dto.request;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
@@ -8,6 +12,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -57,4 +63,22 @@ public class UpdateOrganizationRequest {
             message = "El plan de suscripción debe ser: free, basic, pro o enterprise"
     )
     private String subscriptionPlan;
-}
\ No newline at end of file
+
+    // Reglas de recargo por mora; desactivadas por defecto, true las activa en el job diario
+    private Boolean lateFeeEnabled;
+
+    @Min(value = 0, message = "Los días de gracia no pueden ser negativos")
+    @Max(value = 90, message = "Los días de gracia no deben exceder 90")
+    private Integer lateFeeGraceDays;
+
+    @DecimalMin(value = "0.0", message = "La cuota diaria de recargo no puede ser negativa")
+    private BigDecimal lateFeeDailyAmount;
+
+    @DecimalMin(value = "0.0", message = "La tasa mensual de recargo no puede ser negativa")
+    @DecimalMax(value = "1.0", message = "La tasa mensual de recargo no debe exceder 1 (100%)")
+    private BigDecimal lateFeeMonthlyRate;
+
+    @DecimalMin(value = "0.0", message = "El recargo máximo no puede ser negativo")
+    @DecimalMax(value = "1.0", message = "El recargo máximo no debe exceder 1 (100% del monto)")
+    private BigDecimal lateFeeMaxRate;
+}
@@ -0,0 +1,39 @@
+package com.rentas.properties.api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rentas.properties.business.events.DashboardSection;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cambio incremental del dashboard enviado por el stream SSE. Solo incluye las estadísticas que cambiaron y las alertas nuevas")
+public class DashboardStreamEvent {
+
+    // Secciones afectadas por el cambio
+    private Set<DashboardSection> sections;
+
+    private LocalDateTime timestamp;
+
+    // Estadísticas que cambiaron desde el último evento
+    private DashboardResponse.GeneralStats generalStats;
+    private DashboardResponse.PropertiesStats propertiesStats;
+    private DashboardResponse.ContractsStats contractsStats;
+    private DashboardResponse.PaymentsStats paymentsStats;
+    private DashboardResponse.MaintenanceStats maintenanceStats;
+
+    // Alertas que no estaban en el último evento
+    private List<DashboardResponse.PropertyAlert> newPropertyAlerts;
+    private List<DashboardResponse.ContractAlert> newContractAlerts;
+    private List<DashboardResponse.PaymentAlert> newPaymentAlerts;
+}
@@ -0,0 +1,20 @@
+package com.rentas.properties.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LateFeeRunResponse {
+
+    private LocalDate runDate;
+    private Integer paymentsUpdated;
+    private BigDecimal totalLateFees;
+}
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -35,4 +37,14 @@ public class NotificationSettingsResponse {
 
     @Schema(description = "Plan de suscripción", example = "INTERMEDIO")
     private String subscriptionPlan;
+
+    @Schema(description = "Inicio de la ventana de envío de recordatorios", example = "09:00")
+    private LocalTime notificationWindowStart;
+
+    @Schema(description = "Fin de la ventana de envío de recordatorios", example = "18:00")
+    private LocalTime notificationWindowEnd;
+
+    @Schema(description = "Idioma de las plantillas personalizadas (plan WHITE_LABEL); las plantillas por defecto " +
+            "no se traducen. Si no se define se usa el idioma por defecto", example = "es")
+    private String notificationLocale;
 }
\ No newline at end of file
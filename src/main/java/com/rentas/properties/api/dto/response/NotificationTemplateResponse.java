@@ -0,0 +1,32 @@
+package com.rentas.properties.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Plantilla de mensaje de notificación")
+public class NotificationTemplateResponse {
+
+    @Schema(description = "Tipo de mensaje", example = "PAYMENT_DUE_TODAY")
+    private String templateKey;
+
+    @Schema(description = "Idioma", example = "es")
+    private String locale;
+
+    @Schema(description = "Texto de la plantilla con variables {{nombre}}")
+    private String body;
+
+    @Schema(description = "Si es una plantilla personalizada de la organización", example = "false")
+    private Boolean custom;
+
+    @Schema(description = "Variables disponibles", example = "[\"amount\", \"dueDate\", \"tenantName\"]")
+    private List<String> variables;
+}
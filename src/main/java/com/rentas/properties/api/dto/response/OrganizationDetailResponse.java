@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -39,6 +40,11 @@ public class OrganizationDetailResponse {
     private LocalDateTime updatedAt;
     private Long daysUntilTrialEnds;
     private Long daysUntilSubscriptionEnds;
+    private Boolean lateFeeEnabled;
+    private Integer lateFeeGraceDays;
+    private BigDecimal lateFeeDailyAmount;
+    private BigDecimal lateFeeMonthlyRate;
+    private BigDecimal lateFeeMaxRate;
 
     @Data
     @Builder
@@ -0,0 +1,20 @@
+package com.rentas.properties.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPageResponse {
+
+    private List<PaymentResponse> items;
+    private Integer size;
+    private Boolean hasMore;
+    private String nextCursor; // Pasar como cursor para obtener la siguiente página; null si no hay más
+}
@@ -0,0 +1,34 @@
+package com.rentas.properties.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueTrendResponse {
+
+    private Integer fromYear;
+    private Integer toYear;
+    private BigDecimal totalRevenue;
+    private Integer totalPayments;
+    private List<YearRevenue> years;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class YearRevenue {
+        private Integer year;
+        private BigDecimal revenue;
+        private Integer paymentsCount;
+        private List<BigDecimal> monthlyRevenue; // 12 posiciones, enero a diciembre
+        private List<Integer> monthlyPaymentsCount;
+    }
+}
@@ -0,0 +1,12 @@
+package com.rentas.properties.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class DashboardStreamLimitException extends RuntimeException {
+
+    public DashboardStreamLimitException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.rentas.properties.api.exception;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
@@ -382,6 +383,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
     }
 
+    @ExceptionHandler(DashboardStreamLimitException.class)
+    public ResponseEntity<ErrorResponse> handleDashboardStreamLimitException(
+            DashboardStreamLimitException ex,
+            HttpServletRequest request) {
+        log.warn("Límite de conexiones al stream del dashboard: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
     @ExceptionHandler(InvalidPhoneNumberException.class)
     public ResponseEntity<ErrorResponse> handleInvalidPhoneNumberException(
             InvalidPhoneNumberException ex,
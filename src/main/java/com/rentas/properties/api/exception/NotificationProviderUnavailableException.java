@@ -0,0 +1,16 @@
+package com.rentas.properties.api.exception;
+
+/**
+ * El envío no llegó a intentarse: circuito abierto o límite de tasa del proveedor.
+ * El dispatcher lo reprograma sin contarlo como intento.
+ */
+public class NotificationProviderUnavailableException extends NotificationProviderException {
+
+    public NotificationProviderUnavailableException(String message) {
+        super(message);
+    }
+
+    public NotificationProviderUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
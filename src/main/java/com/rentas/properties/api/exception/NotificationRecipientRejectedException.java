@@ -0,0 +1,12 @@
+package com.rentas.properties.api.exception;
+
+/**
+ * El proveedor respondió pero rechazó el destinatario o el mensaje (número inválido,
+ * destinatario dado de baja). No indica una falla del proveedor y reintentar no ayuda.
+ */
+public class NotificationRecipientRejectedException extends NotificationProviderException {
+
+    public NotificationRecipientRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
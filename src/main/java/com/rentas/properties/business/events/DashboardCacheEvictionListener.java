@@ -0,0 +1,28 @@
+package com.rentas.properties.business.events;
+
+import com.rentas.properties.business.services.impl.DashboardCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalida el dashboard cacheado de la organización una vez confirmado el cambio,
+ * para que la siguiente lectura no vea datos previos al commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCacheEvictionListener {
+
+    private final DashboardCache dashboardCache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrganizationDataChanged(OrganizationDataChangedEvent event) {
+        if (event.getOrganizationId() != null) {
+            dashboardCache.evict(event.getOrganizationId());
+            log.debug("Dashboard en cache invalidado para organización: {}", event.getOrganizationId());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.rentas.properties.business.events;
+
+/**
+ * Secciones del dashboard que se recalculan de forma independiente
+ */
+public enum DashboardSection {
+    PROPERTIES,
+    TENANTS,
+    CONTRACTS,
+    PAYMENTS,
+    MAINTENANCE
+}
@@ -0,0 +1,25 @@
+package com.rentas.properties.business.events;
+
+import com.rentas.properties.business.services.impl.DashboardSnapshotRefresher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Encola el recálculo del snapshot del dashboard una vez confirmado el cambio.
+ * El recálculo corre fuera de la transacción que modificó los datos (ver DashboardSnapshotRefresher).
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardSnapshotEventListener {
+
+    private final DashboardSnapshotRefresher dashboardSnapshotRefresher;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrganizationDataChanged(OrganizationDataChangedEvent event) {
+        if (event.getOrganizationId() != null) {
+            dashboardSnapshotRefresher.schedule(event.getOrganizationId(), event.getSections());
+        }
+    }
+}
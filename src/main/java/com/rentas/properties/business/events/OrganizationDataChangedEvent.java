@@ -0,0 +1,43 @@
+package com.rentas.properties.business.events;
+
+import lombok.Getter;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Evento publicado por los servicios cuando cambian datos que alimentan el dashboard
+ * de una organización. Indica qué secciones quedaron afectadas y, para pagos,
+ * qué periodos (año/mes) cambiaron. Sin periodos se recalcula toda la organización.
+ */
+@Getter
+public class OrganizationDataChangedEvent {
+
+    private final UUID organizationId;
+    private final Set<DashboardSection> sections;
+    private final Set<YearMonth> paymentPeriods;
+
+    public OrganizationDataChangedEvent(UUID organizationId, Set<DashboardSection> sections,
+                                        Collection<YearMonth> paymentPeriods) {
+        this.organizationId = organizationId;
+        this.sections = sections.isEmpty()
+                ? EnumSet.noneOf(DashboardSection.class)
+                : EnumSet.copyOf(sections);
+        this.paymentPeriods = new TreeSet<>(paymentPeriods);
+    }
+
+    public static OrganizationDataChangedEvent of(UUID organizationId, DashboardSection first,
+                                                  DashboardSection... rest) {
+        return new OrganizationDataChangedEvent(organizationId, EnumSet.of(first, rest), Set.of());
+    }
+
+    public static OrganizationDataChangedEvent paymentsChanged(UUID organizationId,
+                                                               Collection<YearMonth> paymentPeriods) {
+        return new OrganizationDataChangedEvent(organizationId, EnumSet.of(DashboardSection.PAYMENTS),
+                paymentPeriods);
+    }
+}
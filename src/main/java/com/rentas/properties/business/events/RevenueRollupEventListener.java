@@ -0,0 +1,31 @@
+package com.rentas.properties.business.events;
+
+import com.rentas.properties.business.services.RevenueRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mantiene revenue_rollup en la misma transacción que modificó los pagos, de modo que
+ * el snapshot del dashboard (recalculado después del commit) ya lee los ingresos actualizados.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevenueRollupEventListener {
+
+    private final RevenueRollupService revenueRollupService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrganizationDataChanged(OrganizationDataChangedEvent event) {
+        if (event.getOrganizationId() == null || !event.getSections().contains(DashboardSection.PAYMENTS)) {
+            return;
+        }
+
+        if (event.getPaymentPeriods().isEmpty()) {
+            revenueRollupService.refreshOrganization(event.getOrganizationId());
+        } else {
+            revenueRollupService.refreshPeriods(event.getOrganizationId(), event.getPaymentPeriods());
+        }
+    }
+}
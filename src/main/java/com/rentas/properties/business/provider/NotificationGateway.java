@@ -0,0 +1,104 @@
+package com.rentas.properties.business.provider;
+
+import com.rentas.properties.api.exception.NotificationProviderException;
+import com.rentas.properties.api.exception.NotificationProviderUnavailableException;
+import com.rentas.properties.api.exception.NotificationRecipientRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Punto único de envío: enruta cada notificación al proveedor del canal (SMS o WhatsApp).
+ * Cada proveedor va envuelto en ResilientNotificationProvider; para SMS se intenta primero
+ * el proveedor preferido y, si no está disponible o falla, el otro.
+ */
+@Component
+@Slf4j
+public class NotificationGateway {
+
+    private final ResilientNotificationProvider whatsAppProvider;
+    private final List<ResilientNotificationProvider> smsProviders; // En orden de preferencia
+
+    public NotificationGateway(@Qualifier("twilioWhatsAppProvider") NotificationProvider twilioWhatsAppProvider,
+                               @Qualifier("twilioSMSProvider") NotificationProvider twilioSMSProvider,
+                               @Qualifier("awsSNSProvider") NotificationProvider awsSNSProvider,
+                               @Value("${notification.sms.provider:AWS_SNS}") String smsProviderName, // AWS_SNS o TWILIO
+                               Environment environment,
+                               MeterRegistry meterRegistry) {
+        this.whatsAppProvider = new ResilientNotificationProvider(
+                "twilio-whatsapp", twilioWhatsAppProvider, environment, meterRegistry);
+
+        ResilientNotificationProvider twilioSms = new ResilientNotificationProvider(
+                "twilio-sms", twilioSMSProvider, environment, meterRegistry);
+        ResilientNotificationProvider awsSns = new ResilientNotificationProvider(
+                "aws-sns", awsSNSProvider, environment, meterRegistry);
+
+        this.smsProviders = "TWILIO".equalsIgnoreCase(smsProviderName)
+                ? List.of(twilioSms, awsSns)
+                : List.of(awsSns, twilioSms);
+    }
+
+    /**
+     * Envía el mensaje por el canal indicado
+     *
+     * @return ID del mensaje en el proveedor
+     * @throws NotificationProviderException si falla el envío
+     */
+    public String send(String channel, String phone, String message) {
+        if ("SMS".equals(channel)) {
+            return sendSMSWithFailover(phone, message);
+        } else if ("WHATSAPP".equals(channel)) {
+            if (!whatsAppProvider.isConfigured()) {
+                throw new NotificationProviderException("Twilio WhatsApp no está configurado");
+            }
+            return whatsAppProvider.sendWhatsApp(phone, message);
+        } else {
+            throw new IllegalArgumentException("Canal no soportado: " + channel);
+        }
+    }
+
+    /**
+     * Envía SMS por el proveedor preferido y cambia al siguiente si está con el circuito
+     * abierto, limitado por tasa o si el envío falla. Un destinatario rechazado no cambia de proveedor.
+     */
+    private String sendSMSWithFailover(String phone, String message) {
+        List<ResilientNotificationProvider> configured = smsProviders.stream()
+                .filter(ResilientNotificationProvider::isConfigured)
+                .toList();
+
+        if (configured.isEmpty()) {
+            throw new NotificationProviderException(
+                    "Ningún proveedor de SMS está configurado. Configura Twilio o AWS SNS");
+        }
+
+        RuntimeException lastError = null;
+
+        for (ResilientNotificationProvider provider : configured) {
+            if (!provider.isAvailable()) {
+                log.debug("Proveedor SMS {} con circuito abierto, se omite", provider.getKey());
+                continue;
+            }
+
+            try {
+                log.info("Enviando SMS usando proveedor: {}", provider.getProviderName());
+                return provider.sendSMS(phone, message);
+            } catch (NotificationRecipientRejectedException e) {
+                // El otro proveedor también lo rechazaría
+                throw e;
+            } catch (RuntimeException e) {
+                lastError = e;
+                log.warn("Proveedor SMS {} falló, intentando con el siguiente: {}", provider.getKey(), e.getMessage());
+            }
+        }
+
+        if (lastError != null) {
+            throw lastError;
+        }
+        throw new NotificationProviderUnavailableException("Ningún proveedor de SMS disponible (circuitos abiertos)");
+    }
+}
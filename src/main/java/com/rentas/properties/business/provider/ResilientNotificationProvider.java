@@ -0,0 +1,155 @@
+package com.rentas.properties.business.provider;
+
+import com.rentas.properties.api.exception.NotificationProviderUnavailableException;
+import com.rentas.properties.api.exception.NotificationRecipientRejectedException;
+import com.rentas.properties.business.support.CircuitBreaker;
+import com.rentas.properties.business.support.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de NotificationProvider con límite de tasa (token bucket) y circuit breaker.
+ *
+ * Configuración por proveedor (notification.provider.{clave}.*):
+ * rate-per-second, burst, max-wait-ms, failure-threshold, open-ms.
+ *
+ * Con el circuito abierto las llamadas fallan de inmediato en lugar de esperar el timeout
+ * de red del proveedor. Si el límite de tasa exige esperar más de max-wait-ms, la llamada
+ * también falla; en ambos casos con NotificationProviderUnavailableException, que el
+ * dispatcher reprograma sin contar como intento. Solo las fallas del proveedor o de red
+ * cuentan para el circuito; un destinatario rechazado (NotificationRecipientRejectedException) no.
+ *
+ * Métricas: notification.provider.calls{provider, result}, notification.provider.throttle.wait{provider},
+ * notification.provider.circuit.state{provider} (0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN)
+ */
+@Slf4j
+public class ResilientNotificationProvider implements NotificationProvider {
+
+    private static final String PREFIX = "notification.provider.";
+
+    private final String key;
+    private final NotificationProvider delegate;
+    private final TokenBucket tokenBucket;
+    private final CircuitBreaker circuitBreaker;
+    private final long maxWaitNanos;
+    private final Timer throttleWait;
+    private final MeterRegistry meterRegistry;
+
+    public ResilientNotificationProvider(String key, NotificationProvider delegate,
+                                         Environment environment, MeterRegistry meterRegistry) {
+        this.key = key;
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+
+        this.tokenBucket = new TokenBucket(
+                environment.getProperty(PREFIX + key + ".rate-per-second", Double.class, 10d),
+                environment.getProperty(PREFIX + key + ".burst", Integer.class, 10));
+        this.circuitBreaker = new CircuitBreaker(
+                environment.getProperty(PREFIX + key + ".failure-threshold", Integer.class, 5),
+                environment.getProperty(PREFIX + key + ".open-ms", Long.class, 30000L));
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(
+                environment.getProperty(PREFIX + key + ".max-wait-ms", Long.class, 2000L));
+
+        this.throttleWait = Timer.builder("notification.provider.throttle.wait")
+                .description("Espera impuesta por el límite de tasa del proveedor")
+                .tag("provider", key)
+                .register(meterRegistry);
+        Gauge.builder("notification.provider.circuit.state", circuitBreaker, breaker -> switch (breaker.getState()) {
+                    case CLOSED -> 0;
+                    case OPEN -> 1;
+                    case HALF_OPEN -> 2;
+                })
+                .description("Estado del circuit breaker del proveedor")
+                .tag("provider", key)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String sendSMS(String phoneNumber, String message) {
+        return call(() -> delegate.sendSMS(phoneNumber, message));
+    }
+
+    @Override
+    public String sendWhatsApp(String phoneNumber, String message) {
+        return call(() -> delegate.sendWhatsApp(phoneNumber, message));
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return delegate.isConfigured();
+    }
+
+    /**
+     * Configurado y con el circuito no abierto
+     */
+    public boolean isAvailable() {
+        return delegate.isConfigured() && circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    private String call(Supplier<String> send) {
+        if (!circuitBreaker.tryAcquire()) {
+            counter("rejected").increment();
+            throw new NotificationProviderUnavailableException(
+                    "Proveedor " + key + " no disponible temporalmente (circuito abierto)");
+        }
+
+        long waitNanos = tokenBucket.reserve(maxWaitNanos);
+        if (waitNanos < 0) {
+            circuitBreaker.release();
+            counter("throttled").increment();
+            throw new NotificationProviderUnavailableException("Límite de tasa alcanzado para proveedor " + key);
+        }
+        if (waitNanos > 0) {
+            throttleWait.record(waitNanos, TimeUnit.NANOSECONDS);
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                circuitBreaker.release();
+                throw new NotificationProviderUnavailableException("Envío interrumpido esperando límite de tasa de " + key, e);
+            }
+        }
+
+        try {
+            String messageId = send.get();
+            circuitBreaker.onSuccess();
+            counter("success").increment();
+            return messageId;
+        } catch (NotificationRecipientRejectedException e) {
+            // El proveedor respondió: un número inválido no dice nada de su disponibilidad
+            circuitBreaker.onSuccess();
+            counter("rejected_recipient").increment();
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            counter("failure").increment();
+            if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                log.warn("Circuito abierto para proveedor {}: {}", key, e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("notification.provider.calls")
+                .tag("provider", key)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,136 @@
+package com.rentas.properties.business.provider;
+
+import com.twilio.security.RequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Valida que los webhooks de estado de entrega vengan realmente del proveedor.
+ *
+ * Twilio: firma X-Twilio-Signature (HMAC-SHA1 con el auth token sobre la URL pública y los parámetros).
+ * AWS SNS: firma RSA del mensaje con el certificado de SigningCertURL, que solo se acepta por HTTPS
+ * desde un host sns.*.amazonaws.com y se guarda en memoria por URL.
+ *
+ * Con notification.webhooks.verify-signatures=false se aceptan todos (solo para desarrollo local).
+ */
+@Component
+@Slf4j
+public class WebhookSignatureVerifier {
+
+    private static final Pattern SNS_CERT_HOST = Pattern.compile("^sns\\.[a-z0-9-]+\\.amazonaws\\.com(\\.cn)?$");
+    private static final List<String> SNS_NOTIFICATION_FIELDS =
+            List.of("Message", "MessageId", "Subject", "Timestamp", "TopicArn", "Type");
+    private static final List<String> SNS_SUBSCRIPTION_FIELDS =
+            List.of("Message", "MessageId", "SubscribeURL", "Timestamp", "Token", "TopicArn", "Type");
+    private static final int CERT_TIMEOUT_MS = 5000;
+
+    private final boolean verifySignatures;
+    private final String twilioAuthToken;
+    private final String twilioWebhookUrl;
+    private final ConcurrentMap<String, X509Certificate> snsCertificates = new ConcurrentHashMap<>();
+
+    public WebhookSignatureVerifier(@Value("${notification.webhooks.verify-signatures:true}") boolean verifySignatures,
+                                    @Value("${twilio.auth.token:}") String twilioAuthToken,
+                                    @Value("${twilio.webhook.url:}") String twilioWebhookUrl) {
+        this.verifySignatures = verifySignatures;
+        this.twilioAuthToken = twilioAuthToken;
+        this.twilioWebhookUrl = twilioWebhookUrl;
+
+        if (!verifySignatures) {
+            log.warn("Validación de firmas de webhooks deshabilitada");
+        }
+    }
+
+    public boolean isValidTwilio(String signature, Map<String, String> params) {
+        if (!verifySignatures) {
+            return true;
+        }
+        if (signature == null || twilioAuthToken == null || twilioAuthToken.isEmpty()) {
+            return false;
+        }
+        return new RequestValidator(twilioAuthToken).validate(twilioWebhookUrl, params, signature);
+    }
+
+    public boolean isValidSns(Map<String, Object> payload) {
+        if (!verifySignatures) {
+            return true;
+        }
+
+        String version = asString(payload.get("SignatureVersion"));
+        String algorithm = "1".equals(version) ? "SHA1withRSA" : "2".equals(version) ? "SHA256withRSA" : null;
+        String signature = asString(payload.get("Signature"));
+        String certUrl = asString(payload.get("SigningCertURL"));
+        if (algorithm == null || signature == null || certUrl == null) {
+            return false;
+        }
+
+        try {
+            URI certUri = URI.create(certUrl);
+            if (!"https".equals(certUri.getScheme()) || certUri.getHost() == null
+                    || !SNS_CERT_HOST.matcher(certUri.getHost()).matches()) {
+                log.warn("SigningCertURL de SNS no confiable: {}", certUrl);
+                return false;
+            }
+
+            X509Certificate certificate = snsCertificates.computeIfAbsent(certUrl, url -> downloadCertificate(certUri));
+
+            Signature verifier = Signature.getInstance(algorithm);
+            verifier.initVerify(certificate.getPublicKey());
+            verifier.update(snsStringToSign(payload).getBytes(StandardCharsets.UTF_8));
+            return verifier.verify(Base64.getDecoder().decode(signature));
+
+        } catch (Exception e) {
+            log.warn("No se pudo validar la firma del webhook de SNS: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Texto firmado por SNS: pares "Campo\nValor\n" en orden alfabético; Subject solo si viene
+     */
+    private String snsStringToSign(Map<String, Object> payload) {
+        String type = asString(payload.get("Type"));
+        List<String> fields = "Notification".equals(type) ? SNS_NOTIFICATION_FIELDS : SNS_SUBSCRIPTION_FIELDS;
+
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            String value = asString(payload.get(field));
+            if (value != null) {
+                text.append(field).append('\n').append(value).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private X509Certificate downloadCertificate(URI certUri) {
+        try {
+            URLConnection connection = certUri.toURL().openConnection();
+            connection.setConnectTimeout(CERT_TIMEOUT_MS);
+            connection.setReadTimeout(CERT_TIMEOUT_MS);
+            try (InputStream in = connection.getInputStream()) {
+                return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo descargar el certificado de SNS: " + e.getMessage(), e);
+        }
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.rentas.properties.business.provider.impl;
 
 import com.rentas.properties.api.exception.NotificationProviderException;
+import com.rentas.properties.api.exception.NotificationRecipientRejectedException;
 import com.rentas.properties.business.provider.NotificationProvider;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sns.SnsClient;
@@ -97,6 +99,12 @@ public class AWSSNSProvider implements NotificationProvider {
             log.info("SMS enviado exitosamente. MessageId: {}", response.messageId());
             return response.messageId();
 
+        } catch (AwsServiceException e) {
+            log.error("Error al enviar SMS vía AWS SNS a {}: {}", phoneNumber, e.getMessage());
+            if (e.statusCode() == 400 && !e.isThrottlingException()) {
+                throw new NotificationRecipientRejectedException("AWS SNS rechazó el envío: " + e.getMessage(), e);
+            }
+            throw new NotificationProviderException("Error al enviar SMS: " + e.getMessage(), e);
         } catch (Exception e) {
             log.error("Error al enviar SMS vía AWS SNS a {}: {}", phoneNumber, e.getMessage());
             throw new NotificationProviderException("Error al enviar SMS: " + e.getMessage(), e);
@@ -1,8 +1,10 @@
 package com.rentas.properties.business.provider.impl;
 
 import com.rentas.properties.api.exception.NotificationProviderException;
+import com.rentas.properties.api.exception.NotificationRecipientRejectedException;
 import com.rentas.properties.business.provider.NotificationProvider;
 import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 import jakarta.annotation.PostConstruct;
@@ -64,6 +66,12 @@ public class TwilioSMSProvider implements NotificationProvider {
             log.info("SMS enviado exitosamente. SID: {}", twilioMessage.getSid());
             return twilioMessage.getSid();
 
+        } catch (ApiException e) {
+            log.error("Error al enviar SMS vía Twilio a {}: {}", phoneNumber, e.getMessage());
+            if (Integer.valueOf(400).equals(e.getStatusCode())) {
+                throw new NotificationRecipientRejectedException("Twilio rechazó el envío: " + e.getMessage(), e);
+            }
+            throw new NotificationProviderException("Error al enviar SMS: " + e.getMessage(), e);
         } catch (Exception e) {
             log.error("Error al enviar SMS vía Twilio a {}: {}", phoneNumber, e.getMessage());
             throw new NotificationProviderException("Error al enviar SMS: " + e.getMessage(), e);
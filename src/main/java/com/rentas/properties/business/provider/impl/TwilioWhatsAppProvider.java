@@ -1,8 +1,10 @@
 package com.rentas.properties.business.provider.impl;
 
 import com.rentas.properties.api.exception.NotificationProviderException;
+import com.rentas.properties.api.exception.NotificationRecipientRejectedException;
 import com.rentas.properties.business.provider.NotificationProvider;
 import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 import jakarta.annotation.PostConstruct;
@@ -69,6 +71,12 @@ public class TwilioWhatsAppProvider implements NotificationProvider {
             log.info("WhatsApp enviado exitosamente. SID: {}", twilioMessage.getSid());
             return twilioMessage.getSid();
 
+        } catch (ApiException e) {
+            log.error("Error al enviar WhatsApp vía Twilio a {}: {}", phoneNumber, e.getMessage());
+            if (Integer.valueOf(400).equals(e.getStatusCode())) {
+                throw new NotificationRecipientRejectedException("Twilio rechazó el envío: " + e.getMessage(), e);
+            }
+            throw new NotificationProviderException("Error al enviar WhatsApp: " + e.getMessage(), e);
         } catch (Exception e) {
             log.error("Error al enviar WhatsApp vía Twilio a {}: {}", phoneNumber, e.getMessage());
             throw new NotificationProviderException("Error al enviar WhatsApp: " + e.getMessage(), e);
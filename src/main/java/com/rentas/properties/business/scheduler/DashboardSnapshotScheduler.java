@@ -0,0 +1,46 @@
+package com.rentas.properties.business.scheduler;
+
+import com.rentas.properties.business.services.DashboardSnapshotService;
+import com.rentas.properties.dao.repository.OrganizationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotScheduler {
+
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final OrganizationRepository organizationRepository;
+
+    /**
+     * Reconciliación nocturna: reconstruye el snapshot de cada organización activa
+     * para corregir cualquier desviación y renovar los contadores relativos a la fecha.
+     * Cada organización se procesa en su propia transacción.
+     */
+    @Scheduled(cron = "${dashboard.snapshot.reconcile.cron:0 30 0 * * ?}")
+    public void reconcileSnapshots() {
+        log.info("========== INICIO: Reconciliación de snapshots del dashboard ==========");
+
+        List<UUID> organizationIds = organizationRepository.findActiveOrganizationIds();
+        int failed = 0;
+
+        for (UUID organizationId : organizationIds) {
+            try {
+                dashboardSnapshotService.rebuildSnapshot(organizationId);
+            } catch (Exception e) {
+                failed++;
+                log.error("Error reconciliando snapshot de organización {}: {}",
+                        organizationId, e.getMessage(), e);
+            }
+        }
+
+        log.info("========== FIN: {} snapshots reconciliados, {} con error ==========",
+                organizationIds.size() - failed, failed);
+    }
+}
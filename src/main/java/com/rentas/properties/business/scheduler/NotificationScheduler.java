@@ -1,41 +1,45 @@
 package com.rentas.properties.business.scheduler;
 
-import com.rentas.properties.business.services.impl.NotificationServiceImpl;
-import com.rentas.properties.dao.repository.NotificationRepository;
-import com.rentas.properties.dao.repository.OrganizationRepository;
+import com.rentas.properties.business.services.impl.NotificationDispatcher;
+import com.rentas.properties.business.services.impl.ReminderJobCoordinator;
+import com.rentas.properties.dao.repository.NotificationDailyStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationScheduler {
 
-    private final NotificationServiceImpl notificationService;
-    private final OrganizationRepository organizationRepository;
-    private final NotificationRepository notificationRepository;
+    private final ReminderJobCoordinator reminderJobCoordinator;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationDailyStatsRepository notificationDailyStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notification.stats.fold-batch-size:5000}")
+    private int statsFoldBatchSize;
 
     /**
-     * Job que se ejecuta diariamente a las 8:00 AM hora México
-     * Procesa todos los recordatorios de pago del día
+     * Job que se ejecuta diariamente a las 6:00 AM hora México, antes de las ventanas de envío
+     * Encola todos los recordatorios de pago del día repartidos en la ventana de cada organización;
+     * el envío lo hace dispatchPendingNotifications conforme vence cada horario.
+     * Corre en todos los nodos: crea los shards del día (una sola vez) y cada nodo procesa los que reclama.
      */
-    @Scheduled(cron = "${notification.job.cron:0 0 8 * * ?}") // 8:00 AM todos los días
-    @Transactional
+    @Scheduled(cron = "${notification.job.cron:0 0 6 * * ?}") // 6:00 AM todos los días
     public void processDailyPaymentReminders() {
         log.info("========== INICIO: Proceso de recordatorios diarios ==========");
 
         try {
-            // Primero resetear contadores mensuales si es día 1
-            resetMonthlyCountersIfNeeded();
-
-            // Procesar recordatorios
-            notificationService.processDailyReminders();
+            // Procesar recordatorios; cada organización reinicia su contador mensual al procesarse
+            LocalDate today = LocalDate.now();
+            reminderJobCoordinator.startRun(today);
+            reminderJobCoordinator.processAvailableShards(today);
 
             log.info("========== FIN: Proceso de recordatorios diarios completado ==========");
 
@@ -46,53 +50,62 @@ public class NotificationScheduler {
     }
 
     /**
-     * Job que se ejecuta cada hora para reintentar notificaciones pendientes
+     * Retoma shards del día que quedaron pendientes o cuyo nodo dejó vencer el lease
      */
-    @Scheduled(fixedDelay = 3600000) // Cada 1 hora
-    @Transactional
-    public void retryPendingNotifications() {
-        log.debug("Verificando notificaciones pendientes para reintento");
-
+    @Scheduled(fixedDelayString = "${notification.reminders.takeover-interval-ms:60000}")
+    public void resumePendingReminderShards() {
         try {
-            LocalDateTime threshold = LocalDateTime.now().minusHours(24);
-            int maxRetries = Integer.parseInt(System.getProperty("notification.retry.max", "3"));
-
-            var pendingNotifications = notificationRepository.findPendingNotificationsOlderThan(
-                    threshold, maxRetries
-            );
-
-            if (!pendingNotifications.isEmpty()) {
-                log.info("Se encontraron {} notificaciones pendientes para reintento",
-                        pendingNotifications.size());
-
-                for (var notification : pendingNotifications) {
-                    if (notification.getRetryCount() >= maxRetries) {
-                        notification.setStatus("FAILED");
-                        notification.setErrorMessage("Excedido número máximo de reintentos");
-                        notificationRepository.save(notification);
-                        log.warn("Notificación {} marcada como FAILED después de {} reintentos",
-                                notification.getId(), maxRetries);
-                    }
-                }
-            }
-
+            reminderJobCoordinator.processAvailableShards(LocalDate.now());
         } catch (Exception e) {
-            log.error("Error en proceso de reintento de notificaciones: {}", e.getMessage(), e);
+            log.error("Error retomando shards de recordatorios: {}", e.getMessage(), e);
         }
     }
 
-    private void resetMonthlyCountersIfNeeded() {
-        LocalDate today = LocalDate.now();
+    /**
+     * Envía las notificaciones encoladas en lotes
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatch.poll-interval-ms:10000}")
+    public void dispatchPendingNotifications() {
+        try {
+            notificationDispatcher.dispatchPending();
+        } catch (Exception e) {
+            log.error("Error en el dispatcher de notificaciones: {}", e.getMessage(), e);
+        }
+    }
 
-        if (today.getDayOfMonth() == 1) {
-            log.info("Primer día del mes - Reseteando contadores de notificaciones");
+    /**
+     * Recupera notificaciones que quedaron en SENDING por un nodo caído o reiniciado;
+     * los reintentos por fallo del proveedor se reprograman en el propio dispatcher
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatch.recover-interval-ms:300000}")
+    public void recoverStuckNotifications() {
+        try {
+            notificationDispatcher.recoverStuck();
+        } catch (Exception e) {
+            log.error("Error recuperando notificaciones interrumpidas: {}", e.getMessage(), e);
+        }
+    }
 
-            try {
-                organizationRepository.resetMonthlyNotificationCounters(today);
-                log.info("Contadores mensuales reseteados exitosamente");
-            } catch (Exception e) {
-                log.error("Error reseteando contadores mensuales: {}", e.getMessage(), e);
+    /**
+     * Acumula en notification_daily_stats los deltas que registra el trigger de notifications,
+     * un lote por transacción; las estadísticas van como máximo fold-interval-ms atrasadas
+     */
+    @Scheduled(fixedDelayString = "${notification.stats.fold-interval-ms:5000}")
+    public void foldNotificationStats() {
+        try {
+            int groups = 0;
+            Integer folded;
+            do {
+                folded = transactionTemplate.execute(status ->
+                        notificationDailyStatsRepository.foldDeltas(statsFoldBatchSize));
+                groups += folded != null ? folded : 0;
+            } while (folded != null && folded > 0);
+
+            if (groups > 0) {
+                log.debug("Estadísticas de notificaciones: {} grupos actualizados", groups);
             }
+        } catch (Exception e) {
+            log.error("Error acumulando estadísticas de notificaciones: {}", e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
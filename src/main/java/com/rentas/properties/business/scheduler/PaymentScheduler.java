@@ -0,0 +1,52 @@
+package com.rentas.properties.business.scheduler;
+
+import com.rentas.properties.business.services.impl.LateFeeEngine;
+import com.rentas.properties.business.services.impl.PaymentScheduleGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentScheduler {
+
+    private final LateFeeEngine lateFeeEngine;
+    private final PaymentScheduleGenerator paymentScheduleGenerator;
+
+    /**
+     * Mantiene generados los pagos de renta de los contratos activos hasta el horizonte configurado
+     */
+    @Scheduled(cron = "${payments.schedule.cron:0 45 0 * * ?}") // 00:45 todos los días
+    public void extendPaymentSchedules() {
+        log.info("========== INICIO: Generación de pagos programados ==========");
+
+        try {
+            int inserted = paymentScheduleGenerator.extendHorizons(LocalDate.now());
+            log.info("========== FIN: {} pagos generados ==========", inserted);
+        } catch (Exception e) {
+            log.error("========== ERROR: Generación de pagos programados falló: {} ==========",
+                    e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aplica los recargos por mora del día en todas las organizaciones.
+     * Corre antes del job de recordatorios para que los mensajes ya incluyan el recargo.
+     */
+    @Scheduled(cron = "${payments.late-fees.cron:0 30 5 * * ?}") // 5:30 AM todos los días
+    public void applyDailyLateFees() {
+        log.info("========== INICIO: Recargos por mora del día ==========");
+
+        try {
+            LateFeeEngine.Result result = lateFeeEngine.applyForAllOrganizations(LocalDate.now());
+            log.info("========== FIN: {} pagos con recargo, ${} ==========",
+                    result.paymentsUpdated(), result.totalLateFees());
+        } catch (Exception e) {
+            log.error("========== ERROR: Recargos por mora fallaron: {} ==========", e.getMessage(), e);
+        }
+    }
+}
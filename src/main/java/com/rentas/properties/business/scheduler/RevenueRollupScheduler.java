@@ -0,0 +1,47 @@
+package com.rentas.properties.business.scheduler;
+
+import com.rentas.properties.business.services.RevenueRollupService;
+import com.rentas.properties.dao.repository.OrganizationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevenueRollupScheduler {
+
+    private final RevenueRollupService revenueRollupService;
+    private final OrganizationRepository organizationRepository;
+
+    /**
+     * Reconciliación nocturna: recalcula el rollup de ingresos de cada organización activa
+     * desde payments para corregir cualquier desviación. Corre antes de la reconciliación
+     * de snapshots, que lee los ingresos del rollup.
+     * Cada organización se procesa en su propia transacción.
+     */
+    @Scheduled(cron = "${revenue.rollup.reconcile.cron:0 15 0 * * ?}")
+    public void reconcileRollups() {
+        log.info("========== INICIO: Reconciliación del rollup de ingresos ==========");
+
+        List<UUID> organizationIds = organizationRepository.findActiveOrganizationIds();
+        int failed = 0;
+
+        for (UUID organizationId : organizationIds) {
+            try {
+                revenueRollupService.refreshOrganization(organizationId);
+            } catch (Exception e) {
+                failed++;
+                log.error("Error reconciliando rollup de ingresos de organización {}: {}",
+                        organizationId, e.getMessage(), e);
+            }
+        }
+
+        log.info("========== FIN: {} rollups reconciliados, {} con error ==========",
+                organizationIds.size() - failed, failed);
+    }
+}
@@ -0,0 +1,48 @@
+package com.rentas.properties.business.scheduler;
+
+import com.rentas.properties.business.services.impl.StatusTransitionJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StatusTransitionScheduler {
+
+    private final StatusTransitionJob statusTransitionJob;
+
+    /**
+     * Job nocturno: PENDIENTE -> ATRASADO para pagos vencidos y ACTIVO -> VENCIDO para contratos
+     * terminados. Corre en todos los nodos; el checkpoint del día reparte los bloques y permite
+     * retomar una ejecución interrumpida.
+     */
+    @Scheduled(cron = "${status-transitions.cron:0 5 0 * * ?}") // 00:05 todos los días
+    public void applyNightlyTransitions() {
+        log.info("========== INICIO: Transiciones de estado nocturnas ==========");
+
+        LocalDate today = LocalDate.now();
+        try {
+            int payments = statusTransitionJob.markOverduePayments(today);
+            int contracts = statusTransitionJob.markExpiredContracts(today);
+            log.info("========== FIN: {} pagos ATRASADO, {} contratos VENCIDO ==========", payments, contracts);
+        } catch (Exception e) {
+            log.error("========== ERROR: Transiciones de estado fallaron: {} ==========", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Continúa desde el checkpoint una ejecución del día que quedó interrumpida
+     */
+    @Scheduled(fixedDelayString = "${status-transitions.resume-interval-ms:600000}")
+    public void resumeInterruptedTransitions() {
+        try {
+            statusTransitionJob.resumeInterrupted(LocalDate.now());
+        } catch (Exception e) {
+            log.error("Error retomando transiciones de estado: {}", e.getMessage(), e);
+        }
+    }
+}
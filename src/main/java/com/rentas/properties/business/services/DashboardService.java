@@ -1,7 +1,25 @@
 package com.rentas.properties.business.services;
 
 import com.rentas.properties.api.dto.response.DashboardResponse;
+import com.rentas.properties.api.dto.response.RevenueTrendResponse;
+import com.rentas.properties.business.events.DashboardSection;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 public interface DashboardService {
     DashboardResponse getDashboardData();
+
+    RevenueTrendResponse getRevenueTrend(Integer fromYear, Integer toYear);
+
+    List<DashboardResponse.TopProperty> getTopProperties(String metric, LocalDate from, LocalDate to, Integer limit);
+
+    /**
+     * Construye solo las estadísticas y alertas de las secciones indicadas (las estadísticas
+     * generales siempre se incluyen). No valida al usuario actual: lo usa el stream del dashboard
+     * después de confirmar un cambio.
+     */
+    DashboardResponse getSectionsForOrganization(UUID organizationId, Set<DashboardSection> sections);
 }
\ No newline at end of file
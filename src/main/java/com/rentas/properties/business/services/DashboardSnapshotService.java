@@ -0,0 +1,26 @@
+package com.rentas.properties.business.services;
+
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.dao.entity.DashboardSnapshot;
+
+import java.util.Set;
+import java.util.UUID;
+
+public interface DashboardSnapshotService {
+
+    /**
+     * Retorna el snapshot vigente de la organización; lo reconstruye si no existe
+     * o si fue calculado en un día anterior
+     */
+    DashboardSnapshot getCurrentSnapshot(UUID organizationId);
+
+    /**
+     * Recalcula únicamente las secciones indicadas en su propia transacción
+     */
+    void refreshSections(UUID organizationId, Set<DashboardSection> sections);
+
+    /**
+     * Reconstruye todas las secciones del snapshot de la organización
+     */
+    DashboardSnapshot rebuildSnapshot(UUID organizationId);
+}
@@ -0,0 +1,20 @@
+package com.rentas.properties.business.services;
+
+import com.rentas.properties.business.events.DashboardSection;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.UUID;
+
+public interface DashboardStreamService {
+
+    /**
+     * Abre un stream SSE con los cambios del dashboard de la organización del usuario actual
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Envía a los clientes conectados de la organización los cambios de las secciones indicadas
+     */
+    void publishChanges(UUID organizationId, Set<DashboardSection> sections);
+}
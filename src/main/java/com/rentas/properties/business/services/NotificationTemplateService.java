@@ -0,0 +1,30 @@
+package com.rentas.properties.business.services;
+
+import com.rentas.properties.api.dto.request.NotificationTemplateRequest;
+import com.rentas.properties.api.dto.response.NotificationTemplateResponse;
+import com.rentas.properties.business.support.NotificationTemplateType;
+import com.rentas.properties.dao.entity.Organization;
+
+import java.util.List;
+import java.util.Map;
+
+public interface NotificationTemplateService {
+
+    /**
+     * Renderiza el mensaje con la plantilla de la organización en su idioma (si tiene WHITE_LABEL
+     * y la definió) o la plantilla por defecto
+     */
+    String render(Organization organization, NotificationTemplateType type, Map<String, String> values);
+
+    List<NotificationTemplateResponse> getTemplates(String locale);
+
+    NotificationTemplateResponse updateTemplate(String templateKey, NotificationTemplateRequest request);
+
+    void resetTemplate(String templateKey, String locale);
+
+    /**
+     * El idioma de la organización solo elige plantillas personalizadas: requiere WHITE_LABEL
+     * y uno de notification.templates.supported-locales
+     */
+    void validateNotificationLocale(Organization organization, String locale);
+}
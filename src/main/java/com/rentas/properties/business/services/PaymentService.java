@@ -4,7 +4,9 @@ import com.rentas.properties.api.dto.request.AddLateFeeRequest;
 import com.rentas.properties.api.dto.request.CreatePaymentRequest;
 import com.rentas.properties.api.dto.request.MarkAsPaidRequest;
 import com.rentas.properties.api.dto.request.UpdatePaymentRequest;
+import com.rentas.properties.api.dto.response.LateFeeRunResponse;
 import com.rentas.properties.api.dto.response.PaymentDetailResponse;
+import com.rentas.properties.api.dto.response.PaymentPageResponse;
 import com.rentas.properties.api.dto.response.PaymentResponse;
 import com.rentas.properties.api.dto.response.PaymentSummaryResponse;
 
@@ -25,7 +27,7 @@ public interface PaymentService {
 
     PaymentDetailResponse addLateFee(UUID id, AddLateFeeRequest request);
 
-    int calculateAutomaticLateFees();
+    LateFeeRunResponse calculateAutomaticLateFees();
 
     List<PaymentResponse> getPaymentsByContract(UUID contractId);
 
@@ -37,7 +39,8 @@ public interface PaymentService {
 
     List<PaymentResponse> getPaymentsDueToday();
 
-    List<PaymentResponse> getPaymentsByPeriod(int year, int month);
+    PaymentPageResponse getPaymentsByPeriod(int year, int month, String status, String paymentType,
+                                            String cursor, int size);
 
     PaymentSummaryResponse getPaymentsSummary();
 }
@@ -0,0 +1,18 @@
+package com.rentas.properties.business.services;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface RevenueRollupService {
+
+    /**
+     * Recalcula el rollup de los periodos indicados dentro de la transacción actual
+     */
+    void refreshPeriods(UUID organizationId, Collection<YearMonth> periods);
+
+    /**
+     * Recalcula todos los periodos de la organización
+     */
+    void refreshOrganization(UUID organizationId);
+}
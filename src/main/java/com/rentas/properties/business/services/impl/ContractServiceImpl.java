@@ -8,12 +8,16 @@ import com.rentas.properties.api.dto.response.ContractDetailResponse;
 import com.rentas.properties.api.dto.response.ContractResponse;
 import com.rentas.properties.api.dto.response.ContractSummaryResponse;
 import com.rentas.properties.api.exception.*;
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
 import com.rentas.properties.business.services.ContractService;
+import com.rentas.properties.business.support.SingleFlight;
 import com.rentas.properties.dao.entity.*;
 import com.rentas.properties.dao.repository.*;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -21,7 +25,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,8 +40,10 @@ public class ContractServiceImpl implements ContractService {
     private final PropertyRepository propertyRepository;
     private final TenantRepository tenantRepository;
     private final ContractTenantRepository contractTenantRepository;
-    private final PaymentRepository paymentRepository;
+    private final PaymentScheduleGenerator paymentScheduleGenerator;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
 
     @Override
     @Transactional
@@ -111,7 +119,11 @@ public class ContractServiceImpl implements ContractService {
         log.info("Estado de propiedad {} cambiado a RENTADA", property.getId());
 
         // Generar pagos automáticos
-        generateAutomaticPayments(savedContract);
+        Set<YearMonth> paymentPeriods = generateAutomaticPayments(savedContract);
+
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(organization.getId(),
+                DashboardSection.CONTRACTS, DashboardSection.PROPERTIES));
+        publishPaymentsChanged(organization.getId(), paymentPeriods);
 
         return mapToDetailResponse(savedContract);
     }
@@ -208,6 +220,9 @@ public class ContractServiceImpl implements ContractService {
         Contract updatedContract = contractRepository.save(contract);
         log.info("Contrato actualizado exitosamente");
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                contract.getOrganization().getId(), DashboardSection.CONTRACTS));
+
         return mapToDetailResponse(updatedContract);
     }
 
@@ -243,6 +258,9 @@ public class ContractServiceImpl implements ContractService {
         property.setStatus("DISPONIBLE");
         propertyRepository.save(property);
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                contract.getOrganization().getId(), DashboardSection.CONTRACTS, DashboardSection.PROPERTIES));
+
         log.info("Contrato eliminado exitosamente (soft delete)");
     }
 
@@ -389,6 +407,9 @@ public class ContractServiceImpl implements ContractService {
         Contract updatedContract = contractRepository.save(contract);
         log.info("Estado del depósito actualizado exitosamente a: {}", request.getDepositStatus());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                contract.getOrganization().getId(), DashboardSection.CONTRACTS));
+
         return mapToDetailResponse(updatedContract);
     }
 
@@ -448,7 +469,11 @@ public class ContractServiceImpl implements ContractService {
         contractRepository.save(oldContract);
 
         // Generar pagos automáticos para el nuevo contrato
-        generateAutomaticPayments(savedNewContract);
+        Set<YearMonth> paymentPeriods = generateAutomaticPayments(savedNewContract);
+
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                oldContract.getOrganization().getId(), DashboardSection.CONTRACTS));
+        publishPaymentsChanged(oldContract.getOrganization().getId(), paymentPeriods);
 
         log.info("Contrato renovado exitosamente. Nuevo contrato ID: {}", savedNewContract.getId());
 
@@ -482,13 +507,15 @@ public class ContractServiceImpl implements ContractService {
         property.setStatus("DISPONIBLE");
         propertyRepository.save(property);
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                contract.getOrganization().getId(), DashboardSection.CONTRACTS, DashboardSection.PROPERTIES));
+
         log.info("Contrato cancelado exitosamente");
 
         return mapToDetailResponse(contract);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ContractSummaryResponse getContractsSummary() {
         log.info("Obteniendo resumen de contratos");
 
@@ -497,6 +524,12 @@ public class ContractServiceImpl implements ContractService {
 
         UUID organizationId = currentUser.getOrganization().getId();
 
+        // Llamadas concurrentes de la misma organización comparten un único cálculo
+        return singleFlight.executeReadOnly("contractsSummary", organizationId,
+                () -> buildContractsSummary(organizationId));
+    }
+
+    private ContractSummaryResponse buildContractsSummary(UUID organizationId) {
         long totalContracts = contractRepository.countActiveByOrganization_Id(organizationId);
         
         List<Contract> activeContracts = contractRepository.findActiveContractsByOrganization(organizationId);
@@ -600,67 +633,21 @@ public class ContractServiceImpl implements ContractService {
         log.info("Arrendatarios asociados exitosamente");
     }
 
-    private void generateAutomaticPayments(Contract contract) {
+    private Set<YearMonth> generateAutomaticPayments(Contract contract) {
         log.info("Generando pagos automáticos para contrato {}", contract.getId());
 
-        LocalDate startDate = contract.getStartDate();
-        
-        // Pago de adelanto (primer mes)
-        Payment advancePayment = Payment.builder()
-                .contract(contract)
-                .paymentType("ADELANTO")
-                .paymentDate(startDate)
-                .dueDate(startDate)
-                .periodMonth(startDate.getMonthValue())
-                .periodYear(startDate.getYear())
-                .amount(contract.getAdvancePayment())
-                .lateFee(BigDecimal.ZERO)
-                .totalAmount(contract.getAdvancePayment())
-                .status("PAGADO") // El adelanto se considera pagado al firmar
-                .build();
-        paymentRepository.save(advancePayment);
-
-        // Generar pagos mensuales (renta + agua) para los siguientes 6 meses
-        for (int i = 1; i < 6; i++) {
-            LocalDate paymentDueDate = startDate.plusMonths(i);
-            
-            BigDecimal rentAmount = contract.getMonthlyRent();
-            BigDecimal waterAmount = contract.getWaterFee();
-            BigDecimal totalAmount = rentAmount.add(waterAmount);
-
-            Payment rentPayment = Payment.builder()
-                    .contract(contract)
-                    .paymentType("RENTA")
-                    .paymentDate(paymentDueDate)
-                    .dueDate(paymentDueDate)
-                    .periodMonth(paymentDueDate.getMonthValue())
-                    .periodYear(paymentDueDate.getYear())
-                    .amount(totalAmount)
-                    .lateFee(BigDecimal.ZERO)
-                    .totalAmount(totalAmount)
-                    .status("PENDIENTE")
-                    .build();
-            paymentRepository.save(rentPayment);
-        }
+        // Los pagos se insertan por JDBC en un solo batch: el contrato debe existir ya en la base
+        contractRepository.flush();
+        return paymentScheduleGenerator.generateInitialSchedule(contract);
+    }
 
-        // Pago del depósito (si no está pagado)
-        if (!contract.getDepositPaid()) {
-            Payment depositPayment = Payment.builder()
-                    .contract(contract)
-                    .paymentType("DEPOSITO")
-                    .paymentDate(startDate)
-                    .dueDate(contract.getDepositPaymentDeadline())
-                    .periodMonth(startDate.getMonthValue())
-                    .periodYear(startDate.getYear())
-                    .amount(contract.getDepositAmount())
-                    .lateFee(BigDecimal.ZERO)
-                    .totalAmount(contract.getDepositAmount())
-                    .status("PENDIENTE")
-                    .build();
-            paymentRepository.save(depositPayment);
+    /**
+     * Solo los periodos generados; un evento de pagos sin periodos recalcula toda la organización
+     */
+    private void publishPaymentsChanged(UUID organizationId, Set<YearMonth> paymentPeriods) {
+        if (!paymentPeriods.isEmpty()) {
+            eventPublisher.publishEvent(OrganizationDataChangedEvent.paymentsChanged(organizationId, paymentPeriods));
         }
-
-        log.info("Pagos automáticos generados exitosamente");
     }
 
     private String generateNewContractNumber(String oldContractNumber) {
@@ -0,0 +1,63 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.api.dto.response.DashboardResponse;
+import com.rentas.properties.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard en cache por organización (CacheConfig.DASHBOARD_CACHE).
+ *
+ * Un cálculo que empezó antes de una invalidación pudo leer el snapshot anterior; si termina
+ * después, guardarlo dejaría datos viejos hasta que expire la entrada. Cada invalidación avanza
+ * la generación de la organización antes de borrar la entrada, y un cálculo cuya generación
+ * cambió mientras corría retira lo que guardó (se sigue devolviendo a quien lo pidió).
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCache {
+
+    private final ConcurrentMap<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final CacheManager cacheManager;
+
+    public DashboardResponse get(UUID organizationId, Supplier<DashboardResponse> loader) {
+        Cache cache = cacheManager.getCache(CacheConfig.DASHBOARD_CACHE);
+        if (cache == null) {
+            return loader.get();
+        }
+
+        DashboardResponse cached = cache.get(organizationId, DashboardResponse.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generation(organizationId).get();
+        DashboardResponse response = loader.get();
+        cache.put(organizationId, response);
+        // Revisar después de guardar: una invalidación posterior a esta lectura ya borra la entrada
+        if (generation(organizationId).get() != generation) {
+            cache.evict(organizationId);
+        }
+        return response;
+    }
+
+    public void evict(UUID organizationId) {
+        generation(organizationId).incrementAndGet();
+        Cache cache = cacheManager.getCache(CacheConfig.DASHBOARD_CACHE);
+        if (cache != null) {
+            cache.evict(organizationId);
+        }
+    }
+
+    private AtomicLong generation(UUID organizationId) {
+        return generations.computeIfAbsent(organizationId, id -> new AtomicLong());
+    }
+}
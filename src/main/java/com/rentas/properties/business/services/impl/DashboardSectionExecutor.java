@@ -0,0 +1,89 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.support.ThreadPools;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta secciones del dashboard en paralelo sobre un pool acotado.
+ * Cada sección corre en su propia transacción de solo lectura y, si falla o
+ * excede el tiempo límite, se sustituye por su valor de respaldo.
+ */
+@Component
+@Slf4j
+public class DashboardSectionExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate sequentialReadOnlyTransaction;
+    private final long timeoutMs;
+
+    public DashboardSectionExecutor(PlatformTransactionManager transactionManager,
+                                    @Value("${dashboard.parallel.threads:2}") int threads,
+                                    @Value("${dashboard.parallel.queue-capacity:50}") int queueCapacity,
+                                    @Value("${dashboard.parallel.timeout-ms:3000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Que la consulta también se cancele en la base de datos al expirar la sección
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs)));
+
+        // Sin tiempo límite: arma todas las secciones en una sola transacción, no una sección
+        this.sequentialReadOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.sequentialReadOnlyTransaction.setReadOnly(true);
+
+        // Cola llena: la sección se ejecuta en el hilo que atiende la petición
+        this.executor = ThreadPools.fixed("dashboard-section", threads, queueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Lanza una sección en su propia transacción de solo lectura
+     */
+    public <T> CompletableFuture<T> submitReadOnly(String section, Supplier<T> task, T fallback) {
+        return submit(section, () -> readOnlyTransaction.execute(status -> task.get()), fallback);
+    }
+
+    /**
+     * Lanza una sección que maneja su propia transacción
+     */
+    public <T> CompletableFuture<T> submit(String section, Supplier<T> task, T fallback) {
+        return CompletableFuture.supplyAsync(task, executor)
+                .completeOnTimeout(null, timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        log.warn("Sección {} del dashboard falló, se usa respaldo: {}",
+                                section, error.getMessage());
+                        return fallback;
+                    }
+                    if (result == null) {
+                        log.warn("Sección {} del dashboard excedió {} ms, se usa respaldo", section, timeoutMs);
+                        return fallback;
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Ejecuta en el hilo actual, dentro de una transacción de solo lectura sin el tiempo límite
+     * por sección (modo secuencial: el dashboard completo en una sola transacción)
+     */
+    public <T> T runReadOnly(Supplier<T> task) {
+        return sequentialReadOnlyTransaction.execute(status -> task.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ThreadPools.shutdown(executor);
+    }
+}
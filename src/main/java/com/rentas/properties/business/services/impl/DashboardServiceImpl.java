@@ -1,12 +1,18 @@
 package com.rentas.properties.business.services.impl;
 
 import com.rentas.properties.api.dto.response.DashboardResponse;
+import com.rentas.properties.api.dto.response.RevenueTrendResponse;
 import com.rentas.properties.api.exception.UnauthorizedAccessException;
+import com.rentas.properties.business.events.DashboardSection;
 import com.rentas.properties.business.services.DashboardService;
+import com.rentas.properties.business.services.DashboardSnapshotService;
+import com.rentas.properties.business.support.SingleFlight;
 import com.rentas.properties.dao.repository.*;
 import com.rentas.properties.dao.entity.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -15,24 +21,48 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DashboardServiceImpl implements DashboardService {
 
-    private final PropertyRepository propertyRepository;
-    private final TenantRepository tenantRepository;
     private final ContractRepository contractRepository;
     private final PaymentRepository paymentRepository;
     private final MaintenanceRecordRepository maintenanceRecordRepository;
     private final UserRepository userRepository;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final DashboardSectionExecutor sectionExecutor;
+    private final DashboardCache dashboardCache;
+    private final SingleFlight singleFlight;
+    private final RevenueRollupRepository revenueRollupRepository;
+
+    private static final int PROPERTY_ALERTS_LIMIT = 5;
+    private static final int CONTRACT_ALERTS_LIMIT = 10;
+    private static final int PAYMENT_ALERTS_LIMIT = 10;
+    private static final int DEFAULT_TREND_YEARS = 3;
+    private static final int MAX_TREND_YEARS = 20;
+    private static final int TOP_PROPERTIES_LIMIT = 5;
+    private static final int MAX_TOP_PROPERTIES_LIMIT = 50;
+    private static final LocalDate MIN_WINDOW_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_WINDOW_DATE = LocalDate.of(9999, 12, 31);
+
+    @Value("${dashboard.parallel.enabled:false}")
+    private boolean parallelEnabled;
+
+    /**
+     * Métricas disponibles para el ranking de propiedades
+     */
+    private enum TopPropertyMetric {
+        REVENUE, // Ingresos cobrados (pagos PAGADO), ordenado por monto
+        OVERDUE  // Pagos ATRASADO, ordenado por cantidad
+    }
 
     @Override
-    @Transactional(readOnly = true)
     public DashboardResponse getDashboardData() {
         User currentUser = getCurrentUser();
         validateUserHasOrganization(currentUser);
@@ -40,17 +70,191 @@ public class DashboardServiceImpl implements DashboardService {
         UUID organizationId = currentUser.getOrganization().getId();
         log.info("Obteniendo datos del dashboard para organización: {}", organizationId);
 
-        return DashboardResponse.builder()
-                .generalStats(buildGeneralStats(organizationId))
-                .propertiesStats(buildPropertiesStats(organizationId))
-                .contractsStats(buildContractsStats(organizationId))
-                .paymentsStats(buildPaymentsStats(organizationId))
-                .maintenanceStats(buildMaintenanceStats(organizationId))
+        // Llamadas concurrentes de la misma organización comparten un único cálculo
+        return singleFlight.execute("dashboard", organizationId,
+                () -> dashboardCache.get(organizationId, () -> buildDashboard(organizationId)));
+    }
+
+    private DashboardResponse buildDashboard(UUID organizationId) {
+        log.debug("Calculando dashboard para organización: {}", organizationId);
+
+        if (parallelEnabled) {
+            return buildDashboardInParallel(organizationId);
+        }
+
+        // Las estadísticas se leen de una sola fila precalculada (se reconstruye si está desactualizada)
+        DashboardSnapshot snapshot = dashboardSnapshotService.getCurrentSnapshot(organizationId);
+
+        return sectionExecutor.runReadOnly(() -> DashboardResponse.builder()
+                .generalStats(buildGeneralStats(snapshot))
+                .propertiesStats(buildPropertiesStats(snapshot))
+                .contractsStats(buildContractsStats(snapshot))
+                .paymentsStats(buildPaymentsStats(snapshot))
+                .maintenanceStats(buildMaintenanceStats(snapshot))
                 .recentActivity(buildRecentActivity(organizationId))
-                .chartsData(buildChartsData(organizationId))
+                .chartsData(buildChartsData(buildMonthlyRevenueChart(organizationId), snapshot))
+                .build());
+    }
+
+    /**
+     * Cada sección corre en su propia transacción de solo lectura sobre un pool acotado;
+     * la latencia queda cerca de la sección más lenta y una sección que falla o expira
+     * se devuelve vacía en lugar de romper la respuesta completa.
+     */
+    private DashboardResponse buildDashboardInParallel(UUID organizationId) {
+        CompletableFuture<DashboardSnapshot> snapshotFuture = sectionExecutor.submit("snapshot",
+                () -> dashboardSnapshotService.getCurrentSnapshot(organizationId),
+                DashboardSnapshot.builder().organizationId(organizationId).build());
+        CompletableFuture<List<DashboardResponse.PropertyAlert>> propertyAlerts = sectionExecutor.submitReadOnly(
+                "propertyAlerts", () -> buildPropertyAlerts(organizationId), Collections.emptyList());
+        CompletableFuture<List<DashboardResponse.ContractAlert>> contractAlerts = sectionExecutor.submitReadOnly(
+                "contractAlerts", () -> buildContractAlerts(organizationId), Collections.emptyList());
+        CompletableFuture<List<DashboardResponse.PaymentAlert>> paymentAlerts = sectionExecutor.submitReadOnly(
+                "paymentAlerts", () -> buildPaymentAlerts(organizationId), Collections.emptyList());
+        CompletableFuture<List<DashboardResponse.TopProperty>> topByRevenue = sectionExecutor.submitReadOnly(
+                "topPropertiesByRevenue", () -> buildTopPropertiesByRevenue(organizationId), Collections.emptyList());
+        CompletableFuture<List<DashboardResponse.TopProperty>> topByOverdue = sectionExecutor.submitReadOnly(
+                "topPropertiesByOverduePayments", () -> buildTopPropertiesByOverduePayments(organizationId),
+                Collections.emptyList());
+        CompletableFuture<DashboardResponse.MonthlyRevenueChart> monthlyRevenue = sectionExecutor.submitReadOnly(
+                "monthlyRevenue", () -> buildMonthlyRevenueChart(organizationId),
+                DashboardResponse.MonthlyRevenueChart.builder()
+                        .months(Collections.emptyList())
+                        .revenue(Collections.emptyList())
+                        .paymentsCount(Collections.emptyList())
+                        .build());
+
+        DashboardSnapshot snapshot = snapshotFuture.join();
+
+        return DashboardResponse.builder()
+                .generalStats(buildGeneralStats(snapshot))
+                .propertiesStats(buildPropertiesStats(snapshot))
+                .contractsStats(buildContractsStats(snapshot))
+                .paymentsStats(buildPaymentsStats(snapshot))
+                .maintenanceStats(buildMaintenanceStats(snapshot))
+                .recentActivity(DashboardResponse.RecentActivity.builder()
+                        .propertyAlerts(propertyAlerts.join())
+                        .contractAlerts(contractAlerts.join())
+                        .paymentAlerts(paymentAlerts.join())
+                        .topPropertiesByRevenue(topByRevenue.join())
+                        .topPropertiesByOverduePayments(topByOverdue.join())
+                        .build())
+                .chartsData(buildChartsData(monthlyRevenue.join(), snapshot))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RevenueTrendResponse getRevenueTrend(Integer fromYear, Integer toYear) {
+        User currentUser = getCurrentUser();
+        validateUserHasOrganization(currentUser);
+
+        int currentYear = LocalDate.now().getYear();
+        int to = toYear != null ? toYear : currentYear;
+        int from = fromYear != null ? fromYear : to - (DEFAULT_TREND_YEARS - 1);
+
+        if (from > to) {
+            throw new IllegalArgumentException("El año inicial no puede ser posterior al año final");
+        }
+        if (to - from + 1 > MAX_TREND_YEARS) {
+            throw new IllegalArgumentException("El rango máximo es de " + MAX_TREND_YEARS + " años");
+        }
+
+        UUID organizationId = currentUser.getOrganization().getId();
+        log.info("Obteniendo tendencia de ingresos {}-{} para organización: {}", from, to, organizationId);
+
+        // [periodYear, periodMonth, count, sum(amount)]
+        Map<Integer, RevenueTrendResponse.YearRevenue> years = new LinkedHashMap<>();
+        for (int year = from; year <= to; year++) {
+            years.put(year, RevenueTrendResponse.YearRevenue.builder()
+                    .year(year)
+                    .revenue(BigDecimal.ZERO)
+                    .paymentsCount(0)
+                    .monthlyRevenue(new ArrayList<>(Collections.nCopies(12, BigDecimal.ZERO)))
+                    .monthlyPaymentsCount(new ArrayList<>(Collections.nCopies(12, 0)))
+                    .build());
+        }
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        int totalPayments = 0;
+
+        for (Object[] row : revenueRollupRepository.sumPaidByMonth(organizationId, from, to)) {
+            RevenueTrendResponse.YearRevenue yearRevenue = years.get(toInt(row[0]));
+            int monthIndex = toInt(row[1]) - 1;
+            int count = toInt(row[2]);
+            BigDecimal amount = toBigDecimal(row[3]);
+
+            yearRevenue.getMonthlyRevenue().set(monthIndex, amount);
+            yearRevenue.getMonthlyPaymentsCount().set(monthIndex, count);
+            yearRevenue.setRevenue(yearRevenue.getRevenue().add(amount));
+            yearRevenue.setPaymentsCount(yearRevenue.getPaymentsCount() + count);
+
+            totalRevenue = totalRevenue.add(amount);
+            totalPayments += count;
+        }
+
+        return RevenueTrendResponse.builder()
+                .fromYear(from)
+                .toYear(to)
+                .totalRevenue(totalRevenue)
+                .totalPayments(totalPayments)
+                .years(new ArrayList<>(years.values()))
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<DashboardResponse.TopProperty> getTopProperties(String metric, LocalDate from, LocalDate to,
+                                                                Integer limit) {
+        User currentUser = getCurrentUser();
+        validateUserHasOrganization(currentUser);
+
+        TopPropertyMetric topMetric;
+        try {
+            topMetric = TopPropertyMetric.valueOf(metric.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Métrica inválida: " + metric + ". Valores permitidos: REVENUE, OVERDUE");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        int size = limit != null ? Math.max(1, Math.min(limit, MAX_TOP_PROPERTIES_LIMIT)) : TOP_PROPERTIES_LIMIT;
+
+        UUID organizationId = currentUser.getOrganization().getId();
+        log.info("Obteniendo top {} propiedades por {} para organización: {}", size, topMetric, organizationId);
+
+        return findTopProperties(organizationId, topMetric, from, to, size);
+    }
+
+    @Override
+    public DashboardResponse getSectionsForOrganization(UUID organizationId, Set<DashboardSection> sections) {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getCurrentSnapshot(organizationId);
+
+        return sectionExecutor.runReadOnly(() -> {
+            DashboardResponse.DashboardResponseBuilder response = DashboardResponse.builder()
+                    .generalStats(buildGeneralStats(snapshot));
+            DashboardResponse.RecentActivity.RecentActivityBuilder activity = DashboardResponse.RecentActivity.builder();
+
+            if (sections.contains(DashboardSection.PROPERTIES)) {
+                response.propertiesStats(buildPropertiesStats(snapshot));
+            }
+            if (sections.contains(DashboardSection.CONTRACTS)) {
+                response.contractsStats(buildContractsStats(snapshot));
+                activity.contractAlerts(buildContractAlerts(organizationId));
+            }
+            if (sections.contains(DashboardSection.PAYMENTS)) {
+                response.paymentsStats(buildPaymentsStats(snapshot));
+                activity.paymentAlerts(buildPaymentAlerts(organizationId));
+            }
+            if (sections.contains(DashboardSection.MAINTENANCE)) {
+                response.maintenanceStats(buildMaintenanceStats(snapshot));
+                activity.propertyAlerts(buildPropertyAlerts(organizationId));
+            }
+
+            return response.recentActivity(activity.build()).build();
+        });
+    }
+
     private User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String email;
@@ -72,184 +276,67 @@ public class DashboardServiceImpl implements DashboardService {
         }
     }
 
-    private DashboardResponse.GeneralStats buildGeneralStats(UUID organizationId) {
-        Long totalPropertiesLong = propertyRepository.countActiveByOrganization_Id(organizationId);
-        Integer totalProperties = totalPropertiesLong != null ? totalPropertiesLong.intValue() : 0;
-
-        Long totalTenantsLong = tenantRepository.countActiveByOrganization_Id(organizationId);
-        Integer totalTenants = totalTenantsLong != null ? totalTenantsLong.intValue() : 0;
-
-        Integer activeContracts = contractRepository.countByOrganization_IdAndStatus(organizationId, "ACTIVO");
-
-        // Total de ocupantes (suma de occupantsCount de todos los inquilinos activos con contratos)
-        Integer totalOccupants = tenantRepository.findByOrganization_IdAndIsActiveTrue(organizationId)
-                .stream()
-                .mapToInt(Tenant::getNumberOfOccupants)
-                .sum();
-
-        // Ingresos del mes actual
-        LocalDate now = LocalDate.now();
-        BigDecimal monthlyRevenue = paymentRepository.findByOrganizationIdAndStatus(organizationId, "PAGADO")
-                .stream()
-                .filter(p -> p.getPeriodYear() == now.getYear() && p.getPeriodMonth() == now.getMonthValue())
-                .map(Payment::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Ingresos del año actual
-        BigDecimal yearlyRevenue = paymentRepository.findByOrganizationIdAndStatus(organizationId, "PAGADO")
-                .stream()
-                .filter(p -> p.getPeriodYear() == now.getYear())
-                .map(Payment::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+    private DashboardResponse.GeneralStats buildGeneralStats(DashboardSnapshot snapshot) {
         return DashboardResponse.GeneralStats.builder()
-                .totalProperties(totalProperties)
-                .totalTenants(totalTenants)
-                .activeContracts(activeContracts)
-                .totalOccupants(totalOccupants)
-                .monthlyRevenue(monthlyRevenue)
-                .yearlyRevenue(yearlyRevenue)
+                .totalProperties(snapshot.getPropertiesTotal())
+                .totalTenants(snapshot.getTenantsTotal())
+                .activeContracts(snapshot.getContractsActive())
+                .totalOccupants(snapshot.getOccupantsTotal())
+                .monthlyRevenue(snapshot.getMonthlyRevenue())
+                .yearlyRevenue(snapshot.getYearlyRevenue())
                 .build();
     }
 
-    private DashboardResponse.PropertiesStats buildPropertiesStats(UUID organizationId) {
-        List<Property> properties = propertyRepository.findByOrganization_IdAndIsActiveTrue(organizationId);
-
-        Integer total = properties.size();
-        Integer available = (int) properties.stream().filter(p -> "DISPONIBLE".equals(p.getStatus())).count();
-        Integer rented = (int) properties.stream().filter(p -> "RENTADA".equals(p.getStatus())).count();
-        Integer maintenance = (int) properties.stream().filter(p -> "MANTENIMIENTO".equals(p.getStatus())).count();
-
+    private DashboardResponse.PropertiesStats buildPropertiesStats(DashboardSnapshot snapshot) {
+        int total = snapshot.getPropertiesTotal();
+        int rented = snapshot.getPropertiesRented();
         Double occupancyRate = total > 0 ? (rented * 100.0) / total : 0.0;
 
         return DashboardResponse.PropertiesStats.builder()
                 .total(total)
-                .available(available)
+                .available(snapshot.getPropertiesAvailable())
                 .rented(rented)
-                .maintenance(maintenance)
+                .maintenance(snapshot.getPropertiesMaintenance())
                 .occupancyRate(Math.round(occupancyRate * 100.0) / 100.0)
                 .build();
     }
 
-    private DashboardResponse.ContractsStats buildContractsStats(UUID organizationId) {
-        List<Contract> contracts = contractRepository.findByOrganization_Id(organizationId);
-
-        Integer total = contracts.size();
-        Integer active = (int) contracts.stream().filter(c -> "ACTIVO".equals(c.getStatus())).count();
-        Integer expired = (int) contracts.stream().filter(c -> "VENCIDO".equals(c.getStatus())).count();
-        Integer renewed = (int) contracts.stream().filter(c -> "RENOVADO".equals(c.getStatus())).count();
-        Integer canceled = (int) contracts.stream().filter(c -> "CANCELADO".equals(c.getStatus())).count();
-
-        // Contratos que vencen en 30 días
-        LocalDate thirtyDaysFromNow = LocalDate.now().plusDays(30);
-        Integer expiringSoon = (int) contracts.stream()
-                .filter(c -> "ACTIVO".equals(c.getStatus()))
-                .filter(c -> c.getEndDate() != null &&
-                        !c.getEndDate().isAfter(thirtyDaysFromNow) &&
-                        c.getEndDate().isAfter(LocalDate.now()))
-                .count();
-
-        // Depósitos pendientes
-        Integer pendingDepositsCount = (int) contracts.stream()
-                .filter(c -> "PENDIENTE".equals(c.getDepositStatus()))
-                .count();
-
-        BigDecimal pendingDeposits = contracts.stream()
-                .filter(c -> "PENDIENTE".equals(c.getDepositStatus()))
-                .map(Contract::getDepositAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+    private DashboardResponse.ContractsStats buildContractsStats(DashboardSnapshot snapshot) {
         return DashboardResponse.ContractsStats.builder()
-                .total(total)
-                .active(active)
-                .expired(expired)
-                .expiringSoon(expiringSoon)
-                .renewed(renewed)
-                .canceled(canceled)
-                .pendingDeposits(pendingDeposits)
-                .pendingDepositsCount(pendingDepositsCount)
+                .total(snapshot.getContractsTotal())
+                .active(snapshot.getContractsActive())
+                .expired(snapshot.getContractsExpired())
+                .expiringSoon(snapshot.getContractsExpiringSoon())
+                .renewed(snapshot.getContractsRenewed())
+                .canceled(snapshot.getContractsCanceled())
+                .pendingDeposits(snapshot.getPendingDepositsAmount())
+                .pendingDepositsCount(snapshot.getPendingDepositsCount())
                 .build();
     }
 
-    private DashboardResponse.PaymentsStats buildPaymentsStats(UUID organizationId) {
-        List<Payment> payments = paymentRepository.findByOrganizationId(organizationId);
-
-        Integer total = payments.size();
-        Integer pending = (int) payments.stream().filter(p -> "PENDIENTE".equals(p.getStatus())).count();
-        Integer paid = (int) payments.stream().filter(p -> "PAGADO".equals(p.getStatus())).count();
-        Integer overdue = (int) payments.stream().filter(p -> "ATRASADO".equals(p.getStatus())).count();
-
-        BigDecimal totalAmount = payments.stream()
-                .map(Payment::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal paidAmount = payments.stream()
-                .filter(p -> "PAGADO".equals(p.getStatus()))
-                .map(Payment::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal pendingAmount = payments.stream()
-                .filter(p -> "PENDIENTE".equals(p.getStatus()))
-                .map(Payment::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal overdueAmount = payments.stream()
-                .filter(p -> "ATRASADO".equals(p.getStatus()))
-                .map(Payment::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        LocalDate today = LocalDate.now();
-        Integer dueToday = (int) payments.stream()
-                .filter(p -> "PENDIENTE".equals(p.getStatus()))
-                .filter(p -> p.getDueDate() != null && p.getDueDate().isEqual(today))
-                .count();
-
-        LocalDate oneWeekFromNow = today.plusDays(7);
-        Integer dueThisWeek = (int) payments.stream()
-                .filter(p -> "PENDIENTE".equals(p.getStatus()))
-                .filter(p -> p.getDueDate() != null &&
-                        !p.getDueDate().isBefore(today) &&
-                        !p.getDueDate().isAfter(oneWeekFromNow))
-                .count();
-
+    private DashboardResponse.PaymentsStats buildPaymentsStats(DashboardSnapshot snapshot) {
         return DashboardResponse.PaymentsStats.builder()
-                .total(total)
-                .pending(pending)
-                .paid(paid)
-                .overdue(overdue)
-                .totalAmount(totalAmount)
-                .paidAmount(paidAmount)
-                .pendingAmount(pendingAmount)
-                .overdueAmount(overdueAmount)
-                .dueToday(dueToday)
-                .dueThisWeek(dueThisWeek)
+                .total(snapshot.getPaymentsTotal())
+                .pending(snapshot.getPaymentsPending())
+                .paid(snapshot.getPaymentsPaid())
+                .overdue(snapshot.getPaymentsOverdue())
+                .totalAmount(snapshot.getPaymentsTotalAmount())
+                .paidAmount(snapshot.getPaymentsPaidAmount())
+                .pendingAmount(snapshot.getPaymentsPendingAmount())
+                .overdueAmount(snapshot.getPaymentsOverdueAmount())
+                .dueToday(snapshot.getPaymentsDueToday())
+                .dueThisWeek(snapshot.getPaymentsDueThisWeek())
                 .build();
     }
 
-    private DashboardResponse.MaintenanceStats buildMaintenanceStats(UUID organizationId) {
-        List<MaintenanceRecord> records = maintenanceRecordRepository.findByOrganization_Id(organizationId);
-
-        Integer total = records.size();
-        Integer pending = (int) records.stream().filter(r -> "PENDIENTE".equals(r.getStatus())).count();
-        Integer inProgress = (int) records.stream().filter(r -> "EN_PROCESO".equals(r.getStatus())).count();
-        Integer completed = (int) records.stream().filter(r -> "COMPLETADO".equals(r.getStatus())).count();
-
-        BigDecimal estimatedCosts = records.stream()
-                .map(MaintenanceRecord::getEstimatedCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal actualCosts = records.stream()
-                .filter(r -> r.getActualCost() != null)
-                .map(MaintenanceRecord::getActualCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+    private DashboardResponse.MaintenanceStats buildMaintenanceStats(DashboardSnapshot snapshot) {
         return DashboardResponse.MaintenanceStats.builder()
-                .total(total)
-                .pending(pending)
-                .inProgress(inProgress)
-                .completed(completed)
-                .estimatedCosts(estimatedCosts)
-                .actualCosts(actualCosts)
+                .total(snapshot.getMaintenanceTotal())
+                .pending(snapshot.getMaintenancePending())
+                .inProgress(snapshot.getMaintenanceInProgress())
+                .completed(snapshot.getMaintenanceCompleted())
+                .estimatedCosts(snapshot.getMaintenanceEstimatedCosts())
+                .actualCosts(snapshot.getMaintenanceActualCosts())
                 .build();
     }
 
@@ -266,234 +353,191 @@ public class DashboardServiceImpl implements DashboardService {
     private List<DashboardResponse.PropertyAlert> buildPropertyAlerts(UUID organizationId) {
         List<DashboardResponse.PropertyAlert> alerts = new ArrayList<>();
 
-        // Propiedades con mantenimiento pendiente
-        List<MaintenanceRecord> pendingMaintenance = maintenanceRecordRepository
-                .findByStatusAndOrganization_Id("PENDIENTE", organizationId);
+        // Propiedades con mantenimiento pendiente: [propertyCode, address, title]
+        List<Object[]> pendingMaintenance = maintenanceRecordRepository.findPendingAlertsByOrganization(
+                organizationId, PageRequest.of(0, PROPERTY_ALERTS_LIMIT));
 
-        for (MaintenanceRecord record : pendingMaintenance) {
-            Property property = record.getProperty();
+        for (Object[] row : pendingMaintenance) {
             alerts.add(DashboardResponse.PropertyAlert.builder()
-                    .propertyCode(property.getPropertyCode())
-                    .address(property.getAddress())
+                    .propertyCode((String) row[0])
+                    .address((String) row[1])
                     .alertType("MAINTENANCE_REQUIRED")
-                    .message("Mantenimiento pendiente: " + record.getTitle())
+                    .message("Mantenimiento pendiente: " + row[2])
                     .daysCount(null)
                     .build());
         }
 
-        return alerts.stream().limit(5).collect(Collectors.toList());
+        return alerts;
     }
 
     private List<DashboardResponse.ContractAlert> buildContractAlerts(UUID organizationId) {
         List<DashboardResponse.ContractAlert> alerts = new ArrayList<>();
         LocalDate now = LocalDate.now();
-        LocalDate thirtyDaysFromNow = now.plusDays(30);
-
-        // Contratos próximos a vencer
-        List<Contract> expiringContracts = contractRepository.findByOrganization_IdAndStatus(organizationId, "ACTIVO")
-                .stream()
-                .filter(c -> c.getEndDate() != null &&
-                        !c.getEndDate().isAfter(thirtyDaysFromNow) &&
-                        c.getEndDate().isAfter(now))
-                .collect(Collectors.toList());
-
-        for (Contract contract : expiringContracts) {
-            long daysUntilExpiry = java.time.temporal.ChronoUnit.DAYS.between(now, contract.getEndDate());
-            alerts.add(DashboardResponse.ContractAlert.builder()
-                    .contractNumber(contract.getContractNumber())
-                    .propertyCode(contract.getProperty().getPropertyCode())
-                    .propertyAddress(contract.getProperty().getAddress())
-                    .alertType("EXPIRING_SOON")
-                    .message("Vence en " + daysUntilExpiry + " días")
-                    .daysUntilExpiry((int) daysUntilExpiry)
-                    .build());
-        }
-
-        // Contratos con depósito pendiente
-        List<Contract> pendingDeposits = contractRepository.findByOrganization_Id(organizationId)
-                .stream()
-                .filter(c -> "PENDIENTE".equals(c.getDepositStatus()))
-                .collect(Collectors.toList());
-
-        for (Contract contract : pendingDeposits) {
-            alerts.add(DashboardResponse.ContractAlert.builder()
-                    .contractNumber(contract.getContractNumber())
-                    .propertyCode(contract.getProperty().getPropertyCode())
-                    .propertyAddress(contract.getProperty().getAddress())
-                    .alertType("DEPOSIT_PENDING")
-                    .message("Depósito pendiente de $" + contract.getDepositAmount())
-                    .daysUntilExpiry(null)
-                    .build());
+        LocalDate thirtyDaysFromNow = now.plusDays(DashboardSnapshotServiceImpl.EXPIRING_SOON_DAYS);
+
+        // [contractNumber, propertyCode, propertyAddress, status, endDate, depositStatus, depositAmount]
+        List<Object[]> rows = contractRepository.findContractAlertsByOrganization(
+                organizationId, now, thirtyDaysFromNow);
+
+        for (Object[] row : rows) {
+            LocalDate endDate = (LocalDate) row[4];
+
+            // Contratos próximos a vencer
+            if ("ACTIVO".equals(row[3]) && endDate != null &&
+                    endDate.isAfter(now) && !endDate.isAfter(thirtyDaysFromNow)) {
+                long daysUntilExpiry = ChronoUnit.DAYS.between(now, endDate);
+                alerts.add(DashboardResponse.ContractAlert.builder()
+                        .contractNumber((String) row[0])
+                        .propertyCode((String) row[1])
+                        .propertyAddress((String) row[2])
+                        .alertType("EXPIRING_SOON")
+                        .message("Vence en " + daysUntilExpiry + " días")
+                        .daysUntilExpiry((int) daysUntilExpiry)
+                        .build());
+            }
+
+            // Contratos con depósito pendiente
+            if ("PENDIENTE".equals(row[5])) {
+                alerts.add(DashboardResponse.ContractAlert.builder()
+                        .contractNumber((String) row[0])
+                        .propertyCode((String) row[1])
+                        .propertyAddress((String) row[2])
+                        .alertType("DEPOSIT_PENDING")
+                        .message("Depósito pendiente de $" + row[6])
+                        .daysUntilExpiry(null)
+                        .build());
+            }
         }
 
         return alerts.stream()
                 .sorted(Comparator.comparing(a -> a.getDaysUntilExpiry() != null ? a.getDaysUntilExpiry() : Integer.MAX_VALUE))
-                .limit(10)
+                .limit(CONTRACT_ALERTS_LIMIT)
                 .collect(Collectors.toList());
     }
 
     private List<DashboardResponse.PaymentAlert> buildPaymentAlerts(UUID organizationId) {
         List<DashboardResponse.PaymentAlert> alerts = new ArrayList<>();
         LocalDate today = LocalDate.now();
-        LocalDate oneWeekFromNow = today.plusDays(7);
-
-        List<Payment> payments = paymentRepository.findByOrganizationId(organizationId);
-
-        // Pagos atrasados
-        List<Payment> overduePayments = payments.stream()
-                .filter(p -> "ATRASADO".equals(p.getStatus()))
-                .sorted(Comparator.comparing(Payment::getDueDate))
-                .collect(Collectors.toList());
-
-        for (Payment payment : overduePayments) {
-            long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(payment.getDueDate(), today);
-            alerts.add(DashboardResponse.PaymentAlert.builder()
-                    .contractNumber(payment.getContract().getContractNumber())
-                    .propertyCode(payment.getContract().getProperty().getPropertyCode())
-                    .propertyAddress(payment.getContract().getProperty().getAddress())
-                    .alertType("OVERDUE")
-                    .amount(payment.getTotalAmount())
-                    .daysOverdue((int) daysOverdue)
-                    .build());
-        }
-
-        // Pagos que vencen hoy
-        List<Payment> dueToday = payments.stream()
-                .filter(p -> "PENDIENTE".equals(p.getStatus()))
-                .filter(p -> p.getDueDate() != null && p.getDueDate().isEqual(today))
-                .collect(Collectors.toList());
-
-        for (Payment payment : dueToday) {
-            alerts.add(DashboardResponse.PaymentAlert.builder()
-                    .contractNumber(payment.getContract().getContractNumber())
-                    .propertyCode(payment.getContract().getProperty().getPropertyCode())
-                    .propertyAddress(payment.getContract().getProperty().getAddress())
-                    .alertType("DUE_TODAY")
-                    .amount(payment.getTotalAmount())
-                    .daysOverdue(0)
-                    .build());
-        }
 
-        // Pagos que vencen esta semana
-        List<Payment> dueThisWeek = payments.stream()
-                .filter(p -> "PENDIENTE".equals(p.getStatus()))
-                .filter(p -> p.getDueDate() != null &&
-                        p.getDueDate().isAfter(today) &&
-                        !p.getDueDate().isAfter(oneWeekFromNow))
-                .collect(Collectors.toList());
+        // Atrasados primero, luego pendientes por fecha de vencimiento:
+        // [contractNumber, propertyCode, propertyAddress, status, dueDate, totalAmount]
+        List<Object[]> rows = paymentRepository.findPaymentAlertsByOrganization(
+                organizationId, today, today.plusDays(7), PageRequest.of(0, PAYMENT_ALERTS_LIMIT));
+
+        for (Object[] row : rows) {
+            LocalDate dueDate = (LocalDate) row[4];
+            String alertType;
+            Integer daysOverdue;
+
+            if ("ATRASADO".equals(row[3])) {
+                alertType = "OVERDUE";
+                daysOverdue = (int) ChronoUnit.DAYS.between(dueDate, today);
+            } else if (dueDate.isEqual(today)) {
+                alertType = "DUE_TODAY";
+                daysOverdue = 0;
+            } else {
+                alertType = "DUE_THIS_WEEK";
+                daysOverdue = null;
+            }
 
-        for (Payment payment : dueThisWeek) {
             alerts.add(DashboardResponse.PaymentAlert.builder()
-                    .contractNumber(payment.getContract().getContractNumber())
-                    .propertyCode(payment.getContract().getProperty().getPropertyCode())
-                    .propertyAddress(payment.getContract().getProperty().getAddress())
-                    .alertType("DUE_THIS_WEEK")
-                    .amount(payment.getTotalAmount())
-                    .daysOverdue(null)
+                    .contractNumber((String) row[0])
+                    .propertyCode((String) row[1])
+                    .propertyAddress((String) row[2])
+                    .alertType(alertType)
+                    .amount((BigDecimal) row[5])
+                    .daysOverdue(daysOverdue)
                     .build());
         }
 
-        return alerts.stream().limit(10).collect(Collectors.toList());
+        return alerts;
     }
 
     private List<DashboardResponse.TopProperty> buildTopPropertiesByRevenue(UUID organizationId) {
-        List<Payment> paidPayments = paymentRepository.findByOrganizationIdAndStatus(organizationId, "PAGADO");
-
-        Map<String, DashboardResponse.TopProperty> propertyRevenueMap = new HashMap<>();
-
-        for (Payment payment : paidPayments) {
-            String propertyCode = payment.getContract().getProperty().getPropertyCode();
-            String address = payment.getContract().getProperty().getAddress();
-
-            propertyRevenueMap.computeIfAbsent(propertyCode, k ->
-                    DashboardResponse.TopProperty.builder()
-                            .propertyCode(propertyCode)
-                            .address(address)
-                            .amount(BigDecimal.ZERO)
-                            .count(0)
-                            .build()
-            );
-
-            DashboardResponse.TopProperty current = propertyRevenueMap.get(propertyCode);
-            current.setAmount(current.getAmount().add(payment.getTotalAmount()));
-            current.setCount(current.getCount() + 1);
-        }
-
-        return propertyRevenueMap.values().stream()
-                .sorted(Comparator.comparing(DashboardResponse.TopProperty::getAmount).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
+        return findTopProperties(organizationId, TopPropertyMetric.REVENUE, null, null, TOP_PROPERTIES_LIMIT);
     }
 
     private List<DashboardResponse.TopProperty> buildTopPropertiesByOverduePayments(UUID organizationId) {
-        List<Payment> overduePayments = paymentRepository.findByOrganizationIdAndStatus(organizationId, "ATRASADO");
-
-        Map<String, DashboardResponse.TopProperty> propertyOverdueMap = new HashMap<>();
-
-        for (Payment payment : overduePayments) {
-            String propertyCode = payment.getContract().getProperty().getPropertyCode();
-            String address = payment.getContract().getProperty().getAddress();
-
-            propertyOverdueMap.computeIfAbsent(propertyCode, k ->
-                    DashboardResponse.TopProperty.builder()
-                            .propertyCode(propertyCode)
-                            .address(address)
-                            .amount(BigDecimal.ZERO)
-                            .count(0)
-                            .build()
-            );
-
-            DashboardResponse.TopProperty current = propertyOverdueMap.get(propertyCode);
-            current.setAmount(current.getAmount().add(payment.getTotalAmount()));
-            current.setCount(current.getCount() + 1);
-        }
+        return findTopProperties(organizationId, TopPropertyMetric.OVERDUE, null, null, TOP_PROPERTIES_LIMIT);
+    }
 
-        return propertyOverdueMap.values().stream()
-                .sorted(Comparator.comparing(DashboardResponse.TopProperty::getCount).reversed())
-                .limit(5)
+    /**
+     * Ranking calculado en la base de datos (GROUP BY + ORDER BY + LIMIT) sin recorrer
+     * asociaciones lazy. La ventana opcional se aplica sobre la fecha de vencimiento.
+     */
+    private List<DashboardResponse.TopProperty> findTopProperties(UUID organizationId, TopPropertyMetric metric,
+                                                                  LocalDate from, LocalDate to, int limit) {
+        LocalDate fromDate = from != null ? from : MIN_WINDOW_DATE;
+        LocalDate toDate = to != null ? to : MAX_WINDOW_DATE;
+        PageRequest page = PageRequest.of(0, limit);
+
+        // [propertyCode, address, sum(totalAmount), count]
+        List<Object[]> rows = metric == TopPropertyMetric.REVENUE
+                ? paymentRepository.findTopPropertiesByAmount(organizationId, "PAGADO", fromDate, toDate, page)
+                : paymentRepository.findTopPropertiesByCount(organizationId, "ATRASADO", fromDate, toDate, page);
+
+        return rows.stream()
+                .map(row -> DashboardResponse.TopProperty.builder()
+                        .propertyCode((String) row[0])
+                        .address((String) row[1])
+                        .amount(toBigDecimal(row[2]))
+                        .count(toInt(row[3]))
+                        .build())
                 .collect(Collectors.toList());
     }
 
-    private DashboardResponse.ChartsData buildChartsData(UUID organizationId) {
+    private DashboardResponse.ChartsData buildChartsData(DashboardResponse.MonthlyRevenueChart monthlyRevenue,
+                                                         DashboardSnapshot snapshot) {
         return DashboardResponse.ChartsData.builder()
-                .monthlyRevenue(buildMonthlyRevenueChart(organizationId))
-                .paymentStatus(buildPaymentStatusChart(organizationId))
-                .propertyStatus(buildPropertyStatusChart(organizationId))
-                .contractStatus(buildContractStatusChart(organizationId))
-                .maintenanceTypes(buildMaintenanceTypeChart(organizationId))
+                .monthlyRevenue(monthlyRevenue)
+                .paymentStatus(DashboardResponse.PaymentStatusChart.builder()
+                        .paid(snapshot.getPaymentsPaid())
+                        .pending(snapshot.getPaymentsPending())
+                        .overdue(snapshot.getPaymentsOverdue())
+                        .build())
+                .propertyStatus(DashboardResponse.PropertyStatusChart.builder()
+                        .available(snapshot.getPropertiesAvailable())
+                        .rented(snapshot.getPropertiesRented())
+                        .maintenance(snapshot.getPropertiesMaintenance())
+                        .build())
+                .contractStatus(DashboardResponse.ContractStatusChart.builder()
+                        .active(snapshot.getContractsActive())
+                        .expired(snapshot.getContractsExpired())
+                        .expiringSoon(snapshot.getContractsExpiringSoon())
+                        .renewed(snapshot.getContractsRenewed())
+                        .canceled(snapshot.getContractsCanceled())
+                        .build())
+                .maintenanceTypes(DashboardResponse.MaintenanceTypeChart.builder()
+                        .preventivo(snapshot.getMaintenancePreventive())
+                        .correctivo(snapshot.getMaintenanceCorrective())
+                        .emergencia(snapshot.getMaintenanceEmergency())
+                        .build())
                 .build();
     }
 
     private DashboardResponse.MonthlyRevenueChart buildMonthlyRevenueChart(UUID organizationId) {
-        LocalDate now = LocalDate.now();
-        int currentYear = now.getYear();
+        int currentYear = LocalDate.now().getYear();
+        List<Object[]> paidByMonth = revenueRollupRepository.sumPaidByMonth(organizationId, currentYear, currentYear);
+
+        // [periodYear, periodMonth, count, sum(amount)]
+        Map<Integer, Object[]> byMonth = new HashMap<>();
+        for (Object[] row : paidByMonth) {
+            byMonth.put(toInt(row[1]), row);
+        }
 
         List<String> months = new ArrayList<>();
         List<BigDecimal> revenue = new ArrayList<>();
         List<Integer> paymentsCount = new ArrayList<>();
 
-        List<Payment> paidPayments = paymentRepository.findByOrganizationIdAndStatus(organizationId, "PAGADO")
-                .stream()
-                .filter(p -> p.getPeriodYear() == currentYear)
-                .collect(Collectors.toList());
-
         for (int month = 1; month <= 12; month++) {
             String monthName = LocalDate.of(currentYear, month, 1)
                     .getMonth()
                     .getDisplayName(TextStyle.SHORT, new Locale("es", "MX"));
             months.add(monthName);
 
-            final int currentMonth = month;
-            BigDecimal monthRevenue = paidPayments.stream()
-                    .filter(p -> p.getPeriodMonth() == currentMonth)
-                    .map(Payment::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            revenue.add(monthRevenue);
-
-            int monthPaymentsCount = (int) paidPayments.stream()
-                    .filter(p -> p.getPeriodMonth() == currentMonth)
-                    .count();
-            paymentsCount.add(monthPaymentsCount);
+            Object[] row = byMonth.get(month);
+            revenue.add(row != null ? toBigDecimal(row[3]) : BigDecimal.ZERO);
+            paymentsCount.add(row != null ? toInt(row[2]) : 0);
         }
 
         return DashboardResponse.MonthlyRevenueChart.builder()
@@ -503,70 +547,17 @@ public class DashboardServiceImpl implements DashboardService {
                 .build();
     }
 
-    private DashboardResponse.PaymentStatusChart buildPaymentStatusChart(UUID organizationId) {
-        List<Payment> payments = paymentRepository.findByOrganizationId(organizationId);
-
-        int paid = (int) payments.stream().filter(p -> "PAGADO".equals(p.getStatus())).count();
-        int pending = (int) payments.stream().filter(p -> "PENDIENTE".equals(p.getStatus())).count();
-        int overdue = (int) payments.stream().filter(p -> "ATRASADO".equals(p.getStatus())).count();
-
-        return DashboardResponse.PaymentStatusChart.builder()
-                .paid(paid)
-                .pending(pending)
-                .overdue(overdue)
-                .build();
-    }
-
-    private DashboardResponse.PropertyStatusChart buildPropertyStatusChart(UUID organizationId) {
-        List<Property> properties = propertyRepository.findByOrganization_IdAndIsActiveTrue(organizationId);
-
-        int available = (int) properties.stream().filter(p -> "DISPONIBLE".equals(p.getStatus())).count();
-        int rented = (int) properties.stream().filter(p -> "RENTADA".equals(p.getStatus())).count();
-        int maintenance = (int) properties.stream().filter(p -> "MANTENIMIENTO".equals(p.getStatus())).count();
-
-        return DashboardResponse.PropertyStatusChart.builder()
-                .available(available)
-                .rented(rented)
-                .maintenance(maintenance)
-                .build();
+    private int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
     }
 
-    private DashboardResponse.ContractStatusChart buildContractStatusChart(UUID organizationId) {
-        List<Contract> contracts = contractRepository.findByOrganization_Id(organizationId);
-
-        int active = (int) contracts.stream().filter(c -> "ACTIVO".equals(c.getStatus())).count();
-        int expired = (int) contracts.stream().filter(c -> "VENCIDO".equals(c.getStatus())).count();
-        int renewed = (int) contracts.stream().filter(c -> "RENOVADO".equals(c.getStatus())).count();
-        int canceled = (int) contracts.stream().filter(c -> "CANCELADO".equals(c.getStatus())).count();
-
-        LocalDate thirtyDaysFromNow = LocalDate.now().plusDays(30);
-        int expiringSoon = (int) contracts.stream()
-                .filter(c -> "ACTIVO".equals(c.getStatus()))
-                .filter(c -> c.getEndDate() != null &&
-                        !c.getEndDate().isAfter(thirtyDaysFromNow) &&
-                        c.getEndDate().isAfter(LocalDate.now()))
-                .count();
-
-        return DashboardResponse.ContractStatusChart.builder()
-                .active(active)
-                .expired(expired)
-                .expiringSoon(expiringSoon)
-                .renewed(renewed)
-                .canceled(canceled)
-                .build();
-    }
-
-    private DashboardResponse.MaintenanceTypeChart buildMaintenanceTypeChart(UUID organizationId) {
-        List<MaintenanceRecord> records = maintenanceRecordRepository.findByOrganization_Id(organizationId);
-
-        int preventivo = (int) records.stream().filter(r -> "PREVENTIVO".equals(r.getMaintenanceType())).count();
-        int correctivo = (int) records.stream().filter(r -> "CORRECTIVO".equals(r.getMaintenanceType())).count();
-        int emergencia = (int) records.stream().filter(r -> "EMERGENCIA".equals(r.getMaintenanceType())).count();
-
-        return DashboardResponse.MaintenanceTypeChart.builder()
-                .preventivo(preventivo)
-                .correctivo(correctivo)
-                .emergencia(emergencia)
-                .build();
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.services.DashboardSnapshotService;
+import com.rentas.properties.business.services.DashboardStreamService;
+import com.rentas.properties.business.support.ThreadPools;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Recalcula el snapshot del dashboard después del commit, en un pool propio y en su
+ * propia transacción, para que la transacción que cambió los datos no espere ni
+ * mantenga bloqueada la fila del snapshot.
+ *
+ * Los cambios de una organización que llegan mientras su recálculo está en cola se
+ * acumulan en uno solo (unión de secciones), así un job que confirma muchos lotes
+ * seguidos no recalcula el snapshot una vez por lote. La cola tiene a lo más una
+ * tarea por organización.
+ *
+ * Al terminar invalida el dashboard en cache y notifica al stream, que leen el snapshot.
+ * Si un recálculo falla, lo corrige la siguiente modificación o la reconciliación nocturna.
+ */
+@Component
+@Slf4j
+public class DashboardSnapshotRefresher {
+
+    private final ConcurrentMap<UUID, Set<DashboardSection>> pending = new ConcurrentHashMap<>();
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final DashboardStreamService dashboardStreamService;
+    private final DashboardCache dashboardCache;
+    private final ThreadPoolExecutor executor;
+
+    public DashboardSnapshotRefresher(DashboardSnapshotService dashboardSnapshotService,
+                                      DashboardStreamService dashboardStreamService,
+                                      DashboardCache dashboardCache,
+                                      @Value("${dashboard.snapshot.refresh-threads:2}") int threads) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
+        this.dashboardStreamService = dashboardStreamService;
+        this.dashboardCache = dashboardCache;
+
+        // Cola sin límite práctico: pending ya agrupa los recálculos a una tarea por organización
+        this.executor = ThreadPools.fixed("dashboard-snapshot", threads, Integer.MAX_VALUE,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Encola el recálculo de las secciones; si la organización ya tiene uno en cola, se suman a él
+     */
+    public void schedule(UUID organizationId, Set<DashboardSection> sections) {
+        if (sections.isEmpty()) {
+            return;
+        }
+
+        boolean[] queued = {false};
+        pending.compute(organizationId, (id, current) -> {
+            if (current == null) {
+                queued[0] = true;
+                return EnumSet.copyOf(sections);
+            }
+            current.addAll(sections);
+            return current;
+        });
+
+        if (queued[0]) {
+            try {
+                executor.execute(() -> refresh(organizationId));
+            } catch (RejectedExecutionException e) {
+                pending.remove(organizationId);
+                log.warn("No se pudo encolar el recálculo del snapshot de organización {}", organizationId);
+            }
+        }
+    }
+
+    private void refresh(UUID organizationId) {
+        // Lo que llegue a partir de aquí encola un nuevo recálculo
+        Set<DashboardSection> sections = pending.remove(organizationId);
+        if (sections == null) {
+            return;
+        }
+
+        try {
+            dashboardSnapshotService.refreshSections(organizationId, sections);
+        } catch (RuntimeException e) {
+            log.error("Error recalculando snapshot del dashboard de organización {}: {}",
+                    organizationId, e.getMessage(), e);
+            return;
+        }
+
+        dashboardCache.evict(organizationId);
+        dashboardStreamService.publishChanges(organizationId, sections);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ThreadPools.shutdown(executor);
+    }
+}
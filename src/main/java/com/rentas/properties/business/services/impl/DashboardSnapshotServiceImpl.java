@@ -0,0 +1,258 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.services.DashboardSnapshotService;
+import com.rentas.properties.dao.entity.DashboardSnapshot;
+import com.rentas.properties.dao.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mantiene la tabla dashboard_snapshot. Cada sección se recalcula con una sola
+ * consulta agregada, de modo que el snapshot nunca acumula errores de deltas.
+ * Los cambios de datos lo recalculan después del commit (DashboardSnapshotRefresher).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotServiceImpl implements DashboardSnapshotService {
+
+    static final int EXPIRING_SOON_DAYS = 30;
+    static final int DUE_THIS_WEEK_DAYS = 7;
+
+    private final DashboardSnapshotRepository dashboardSnapshotRepository;
+    private final PropertyRepository propertyRepository;
+    private final TenantRepository tenantRepository;
+    private final ContractRepository contractRepository;
+    private final PaymentRepository paymentRepository;
+    private final MaintenanceRecordRepository maintenanceRecordRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+
+    @Override
+    @Transactional
+    public DashboardSnapshot getCurrentSnapshot(UUID organizationId) {
+        DashboardSnapshot snapshot = dashboardSnapshotRepository.findById(organizationId).orElse(null);
+
+        if (snapshot != null && !snapshot.isStale(LocalDate.now())) {
+            return snapshot;
+        }
+
+        log.debug("Snapshot del dashboard inexistente o desactualizado para organización: {}", organizationId);
+        return rebuildSnapshot(organizationId);
+    }
+
+    @Override
+    @Transactional
+    public void refreshSections(UUID organizationId, Set<DashboardSection> sections) {
+        if (sections.isEmpty()) {
+            return;
+        }
+
+        DashboardSnapshot snapshot = dashboardSnapshotRepository.findByIdForUpdate(organizationId).orElse(null);
+
+        // Sin snapshot o calculado otro día: los contadores relativos a la fecha ya no sirven
+        if (snapshot == null || snapshot.isStale(LocalDate.now())) {
+            rebuildSnapshot(organizationId);
+            return;
+        }
+
+        applySections(snapshot, sections, LocalDate.now());
+        dashboardSnapshotRepository.save(snapshot);
+        log.debug("Snapshot del dashboard actualizado para organización {}: {}", organizationId, sections);
+    }
+
+    @Override
+    @Transactional
+    public DashboardSnapshot rebuildSnapshot(UUID organizationId) {
+        // Dos primeras escrituras concurrentes no chocan al insertar: ambas bloquean la misma fila
+        dashboardSnapshotRepository.insertIfAbsent(organizationId);
+        DashboardSnapshot snapshot = dashboardSnapshotRepository.findByIdForUpdate(organizationId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Snapshot del dashboard no encontrado para organización: " + organizationId));
+
+        LocalDate today = LocalDate.now();
+        applySections(snapshot, EnumSet.allOf(DashboardSection.class), today);
+        snapshot.setComputedOn(today);
+
+        return dashboardSnapshotRepository.save(snapshot);
+    }
+
+    private void applySections(DashboardSnapshot snapshot, Set<DashboardSection> sections, LocalDate today) {
+        UUID organizationId = snapshot.getOrganizationId();
+
+        if (sections.contains(DashboardSection.PROPERTIES)) {
+            applyProperties(snapshot, organizationId);
+        }
+        if (sections.contains(DashboardSection.TENANTS)) {
+            applyTenants(snapshot, organizationId);
+        }
+        if (sections.contains(DashboardSection.CONTRACTS)) {
+            applyContracts(snapshot, organizationId, today);
+        }
+        if (sections.contains(DashboardSection.PAYMENTS)) {
+            applyPayments(snapshot, organizationId, today);
+        }
+        if (sections.contains(DashboardSection.MAINTENANCE)) {
+            applyMaintenance(snapshot, organizationId);
+        }
+    }
+
+    private void applyProperties(DashboardSnapshot snapshot, UUID organizationId) {
+        Map<String, Integer> byStatus = new HashMap<>();
+        for (Object[] row : propertyRepository.countActiveByStatusForOrganization(organizationId)) {
+            byStatus.put((String) row[0], toInt(row[1]));
+        }
+
+        snapshot.setPropertiesTotal(byStatus.values().stream().mapToInt(Integer::intValue).sum());
+        snapshot.setPropertiesAvailable(byStatus.getOrDefault("DISPONIBLE", 0));
+        snapshot.setPropertiesRented(byStatus.getOrDefault("RENTADA", 0));
+        snapshot.setPropertiesMaintenance(byStatus.getOrDefault("MANTENIMIENTO", 0));
+    }
+
+    private void applyTenants(DashboardSnapshot snapshot, UUID organizationId) {
+        // [inquilinos activos, suma de ocupantes]
+        List<Object[]> rows = tenantRepository.aggregateActiveForOrganization(organizationId);
+        Object[] row = rows.isEmpty() ? new Object[]{0L, 0L} : rows.get(0);
+
+        snapshot.setTenantsTotal(toInt(row[0]));
+        snapshot.setOccupantsTotal(toInt(row[1]));
+    }
+
+    private void applyContracts(DashboardSnapshot snapshot, UUID organizationId, LocalDate today) {
+        List<Object[]> rows = contractRepository.aggregateByStatusForOrganization(
+                organizationId, today, today.plusDays(EXPIRING_SOON_DAYS));
+
+        // [status, count, expiringSoon, pendingDepositsCount, pendingDepositsAmount]
+        Map<String, Integer> byStatus = new HashMap<>();
+        int total = 0;
+        int expiringSoon = 0;
+        int pendingDepositsCount = 0;
+        BigDecimal pendingDeposits = BigDecimal.ZERO;
+
+        for (Object[] row : rows) {
+            String status = (String) row[0];
+            int count = toInt(row[1]);
+            byStatus.put(status, count);
+            total += count;
+            if ("ACTIVO".equals(status)) {
+                expiringSoon = toInt(row[2]);
+            }
+            pendingDepositsCount += toInt(row[3]);
+            pendingDeposits = pendingDeposits.add(toBigDecimal(row[4]));
+        }
+
+        snapshot.setContractsTotal(total);
+        snapshot.setContractsActive(byStatus.getOrDefault("ACTIVO", 0));
+        snapshot.setContractsExpired(byStatus.getOrDefault("VENCIDO", 0));
+        snapshot.setContractsRenewed(byStatus.getOrDefault("RENOVADO", 0));
+        snapshot.setContractsCanceled(byStatus.getOrDefault("CANCELADO", 0));
+        snapshot.setContractsExpiringSoon(expiringSoon);
+        snapshot.setPendingDepositsCount(pendingDepositsCount);
+        snapshot.setPendingDepositsAmount(pendingDeposits);
+    }
+
+    private void applyPayments(DashboardSnapshot snapshot, UUID organizationId, LocalDate today) {
+        List<Object[]> rows = paymentRepository.aggregateByStatusForOrganization(
+                organizationId, today, today.plusDays(DUE_THIS_WEEK_DAYS));
+
+        // [status, count, totalAmount, dueToday, dueThisWeek]
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        int total = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        int dueToday = 0;
+        int dueThisWeek = 0;
+
+        for (Object[] row : rows) {
+            String status = (String) row[0];
+            int count = toInt(row[1]);
+            BigDecimal amount = toBigDecimal(row[2]);
+            counts.put(status, count);
+            amounts.put(status, amount);
+            total += count;
+            totalAmount = totalAmount.add(amount);
+            if ("PENDIENTE".equals(status)) {
+                dueToday = toInt(row[3]);
+                dueThisWeek = toInt(row[4]);
+            }
+        }
+
+        snapshot.setPaymentsTotal(total);
+        snapshot.setPaymentsPending(counts.getOrDefault("PENDIENTE", 0));
+        snapshot.setPaymentsPaid(counts.getOrDefault("PAGADO", 0));
+        snapshot.setPaymentsOverdue(counts.getOrDefault("ATRASADO", 0));
+        snapshot.setPaymentsTotalAmount(totalAmount);
+        snapshot.setPaymentsPaidAmount(amounts.getOrDefault("PAGADO", BigDecimal.ZERO));
+        snapshot.setPaymentsPendingAmount(amounts.getOrDefault("PENDIENTE", BigDecimal.ZERO));
+        snapshot.setPaymentsOverdueAmount(amounts.getOrDefault("ATRASADO", BigDecimal.ZERO));
+        snapshot.setPaymentsDueToday(dueToday);
+        snapshot.setPaymentsDueThisWeek(dueThisWeek);
+
+        // Ingresos del mes y del año actual desde el rollup: [periodYear, periodMonth, count, sum(amount)]
+        BigDecimal monthlyRevenue = BigDecimal.ZERO;
+        BigDecimal yearlyRevenue = BigDecimal.ZERO;
+        for (Object[] row : revenueRollupRepository.sumPaidByMonth(organizationId, today.getYear(), today.getYear())) {
+            BigDecimal amount = toBigDecimal(row[3]);
+            yearlyRevenue = yearlyRevenue.add(amount);
+            if (toInt(row[1]) == today.getMonthValue()) {
+                monthlyRevenue = monthlyRevenue.add(amount);
+            }
+        }
+
+        snapshot.setMonthlyRevenue(monthlyRevenue);
+        snapshot.setYearlyRevenue(yearlyRevenue);
+    }
+
+    private void applyMaintenance(DashboardSnapshot snapshot, UUID organizationId) {
+        // [status, maintenanceType, count, estimatedCost, actualCost]
+        Map<String, Integer> byStatus = new HashMap<>();
+        Map<String, Integer> byType = new HashMap<>();
+        int total = 0;
+        BigDecimal estimatedCosts = BigDecimal.ZERO;
+        BigDecimal actualCosts = BigDecimal.ZERO;
+
+        for (Object[] row : maintenanceRecordRepository.aggregateByStatusAndTypeForOrganization(organizationId)) {
+            int count = toInt(row[2]);
+            byStatus.merge((String) row[0], count, Integer::sum);
+            byType.merge((String) row[1], count, Integer::sum);
+            total += count;
+            estimatedCosts = estimatedCosts.add(toBigDecimal(row[3]));
+            actualCosts = actualCosts.add(toBigDecimal(row[4]));
+        }
+
+        snapshot.setMaintenanceTotal(total);
+        snapshot.setMaintenancePending(byStatus.getOrDefault("PENDIENTE", 0));
+        snapshot.setMaintenanceInProgress(byStatus.getOrDefault("EN_PROCESO", 0));
+        snapshot.setMaintenanceCompleted(byStatus.getOrDefault("COMPLETADO", 0));
+        snapshot.setMaintenancePreventive(byType.getOrDefault("PREVENTIVO", 0));
+        snapshot.setMaintenanceCorrective(byType.getOrDefault("CORRECTIVO", 0));
+        snapshot.setMaintenanceEmergency(byType.getOrDefault("EMERGENCIA", 0));
+        snapshot.setMaintenanceEstimatedCosts(estimatedCosts);
+        snapshot.setMaintenanceActualCosts(actualCosts);
+    }
+
+    private int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,432 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.api.dto.response.DashboardResponse;
+import com.rentas.properties.api.dto.response.DashboardStreamEvent;
+import com.rentas.properties.api.exception.DashboardStreamLimitException;
+import com.rentas.properties.api.exception.UnauthorizedAccessException;
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.services.DashboardService;
+import com.rentas.properties.business.services.DashboardStreamService;
+import com.rentas.properties.business.support.ThreadPools;
+import com.rentas.properties.dao.entity.User;
+import com.rentas.properties.dao.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stream SSE del dashboard por organización.
+ *
+ * Los cambios confirmados llegan una vez recalculado el snapshot (DashboardSnapshotRefresher);
+ * se recalculan solo las secciones afectadas y se envía un delta compacto (estadísticas que cambiaron y alertas nuevas)
+ * respecto al último estado enviado a la organización.
+ *
+ * Cada conexión tiene una cola acotada que se vacía en un pool propio, de modo que un
+ * cliente lento nunca bloquea a los servicios ni a otros clientes. Si la cola se llena,
+ * se descartan los deltas pendientes y se envía un único evento "resync" para que el
+ * cliente vuelva a pedir /dashboard completo.
+ *
+ * Una organización está en el mapa mientras tenga al menos una conexión; al reconectar se
+ * vuelve a tomar el estado base.
+ *
+ * Eventos: connected, delta, resync; heartbeat como comentario SSE.
+ */
+@Service
+@Slf4j
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+
+    private static final String EVENT_CONNECTED = "connected";
+    private static final String EVENT_DELTA = "delta";
+    private static final String EVENT_RESYNC = "resync";
+
+    private final DashboardService dashboardService;
+    private final UserRepository userRepository;
+    private final ConcurrentMap<UUID, OrganizationStream> streams = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final Counter resyncCounter;
+    private final int maxConnectionsPerOrganization;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    public DashboardStreamServiceImpl(DashboardService dashboardService,
+                                      UserRepository userRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${dashboard.stream.max-connections-per-org:5}") int maxConnectionsPerOrganization,
+                                      @Value("${dashboard.stream.queue-capacity:20}") int queueCapacity,
+                                      @Value("${dashboard.stream.timeout-ms:1800000}") long timeoutMs,
+                                      @Value("${dashboard.stream.threads:2}") int threads) {
+        this.dashboardService = dashboardService;
+        this.userRepository = userRepository;
+        this.maxConnectionsPerOrganization = maxConnectionsPerOrganization;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+
+        this.executor = ThreadPools.fixed("dashboard-stream", threads, 500,
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.resyncCounter = Counter.builder("dashboard.stream.resyncs")
+                .description("Clientes del stream del dashboard que tuvieron que recargar por cola llena")
+                .register(meterRegistry);
+        meterRegistry.gauge("dashboard.stream.connections", streams,
+                map -> map.values().stream().mapToInt(stream -> stream.connections.size()).sum());
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        User currentUser = getCurrentUser();
+        validateUserHasOrganization(currentUser);
+
+        UUID organizationId = currentUser.getOrganization().getId();
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        StreamConnection connection = new StreamConnection(emitter, queueCapacity);
+
+        // Alta atómica con la baja en close(): no se agrega a un stream que ya salió del mapa
+        OrganizationStream stream = streams.compute(organizationId, (id, current) -> {
+            OrganizationStream target = current != null ? current : new OrganizationStream(id);
+            if (!target.tryAdd(connection, maxConnectionsPerOrganization)) {
+                throw new DashboardStreamLimitException(
+                        "Se alcanzó el máximo de " + maxConnectionsPerOrganization +
+                                " conexiones al dashboard en vivo para tu organización");
+            }
+            return target;
+        });
+
+        emitter.onCompletion(() -> close(stream, connection));
+        emitter.onTimeout(() -> close(stream, connection));
+        emitter.onError(error -> close(stream, connection));
+
+        log.info("Cliente conectado al stream del dashboard de organización {} ({} conexiones)",
+                organizationId, stream.connections.size());
+
+        enqueue(connection, new StreamMessage(EVENT_CONNECTED, Map.of("timestamp", LocalDateTime.now())));
+        if (stream.needsBaseline()) {
+            submit(() -> loadBaseline(stream));
+        }
+
+        return emitter;
+    }
+
+    @Override
+    public void publishChanges(UUID organizationId, Set<DashboardSection> sections) {
+        OrganizationStream stream = streams.get(organizationId);
+        if (stream == null || stream.connections.isEmpty() || sections.isEmpty()) {
+            return;
+        }
+
+        Set<DashboardSection> changed = EnumSet.copyOf(sections);
+        if (!submit(() -> pushDelta(stream, changed))) {
+            // Pool saturado: no se puede calcular el delta, los clientes recargan el dashboard
+            log.warn("Pool del stream del dashboard saturado, se solicita resync a organización {}", organizationId);
+            stream.connections.forEach(this::requestResync);
+        }
+    }
+
+    /**
+     * Mantiene viva la conexión a través de proxies y detecta clientes desconectados
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        for (OrganizationStream stream : streams.values()) {
+            for (StreamConnection connection : stream.connections) {
+                // Con la cola ocupada el cliente ya tiene tráfico pendiente; solo se reintenta el envío
+                if (connection.queue.isEmpty()) {
+                    enqueue(connection, StreamMessage.HEARTBEAT);
+                } else {
+                    scheduleDrain(connection);
+                }
+            }
+        }
+    }
+
+    private void loadBaseline(OrganizationStream stream) {
+        DashboardResponse baseline = dashboardService.getSectionsForOrganization(
+                stream.organizationId, EnumSet.allOf(DashboardSection.class));
+
+        synchronized (stream) {
+            if (stream.lastSent == null) {
+                stream.lastSent = baseline;
+            }
+        }
+    }
+
+    private void pushDelta(OrganizationStream stream, Set<DashboardSection> sections) {
+        DashboardResponse current = dashboardService.getSectionsForOrganization(stream.organizationId, sections);
+
+        DashboardStreamEvent delta;
+        synchronized (stream) {
+            delta = buildDelta(stream.lastSent, current, sections);
+            stream.lastSent = merge(stream.lastSent, current);
+        }
+
+        if (delta == null) {
+            return;
+        }
+
+        StreamMessage message = new StreamMessage(EVENT_DELTA, delta);
+        stream.connections.forEach(connection -> enqueue(connection, message));
+        log.debug("Delta del dashboard enviado a {} clientes de organización {}: {}",
+                stream.connections.size(), stream.organizationId, sections);
+    }
+
+    /**
+     * Compara con el último estado enviado. Devuelve null si no cambió nada.
+     */
+    private DashboardStreamEvent buildDelta(DashboardResponse previous, DashboardResponse current,
+                                            Set<DashboardSection> sections) {
+        DashboardResponse before = previous != null ? previous : new DashboardResponse();
+        DashboardResponse.RecentActivity beforeActivity = activityOf(before);
+        DashboardResponse.RecentActivity currentActivity = activityOf(current);
+
+        DashboardStreamEvent delta = DashboardStreamEvent.builder()
+                .sections(sections)
+                .timestamp(LocalDateTime.now())
+                .generalStats(changed(before.getGeneralStats(), current.getGeneralStats()))
+                .propertiesStats(changed(before.getPropertiesStats(), current.getPropertiesStats()))
+                .contractsStats(changed(before.getContractsStats(), current.getContractsStats()))
+                .paymentsStats(changed(before.getPaymentsStats(), current.getPaymentsStats()))
+                .maintenanceStats(changed(before.getMaintenanceStats(), current.getMaintenanceStats()))
+                .build();
+
+        // Sin estado previo no se sabe qué alertas son nuevas; el cliente ya las tiene de /dashboard
+        if (previous != null) {
+            delta.setNewPropertyAlerts(added(beforeActivity.getPropertyAlerts(), currentActivity.getPropertyAlerts()));
+            delta.setNewContractAlerts(added(beforeActivity.getContractAlerts(), currentActivity.getContractAlerts()));
+            delta.setNewPaymentAlerts(added(beforeActivity.getPaymentAlerts(), currentActivity.getPaymentAlerts()));
+        }
+
+        boolean empty = delta.getGeneralStats() == null && delta.getPropertiesStats() == null
+                && delta.getContractsStats() == null && delta.getPaymentsStats() == null
+                && delta.getMaintenanceStats() == null && delta.getNewPropertyAlerts() == null
+                && delta.getNewContractAlerts() == null && delta.getNewPaymentAlerts() == null;
+
+        return empty ? null : delta;
+    }
+
+    /**
+     * Aplica sobre el estado enviado solo las partes que trae la respuesta parcial
+     */
+    private DashboardResponse merge(DashboardResponse previous, DashboardResponse current) {
+        if (previous == null) {
+            return current;
+        }
+
+        DashboardResponse.RecentActivity previousActivity = activityOf(previous);
+        DashboardResponse.RecentActivity currentActivity = activityOf(current);
+
+        return DashboardResponse.builder()
+                .generalStats(coalesce(current.getGeneralStats(), previous.getGeneralStats()))
+                .propertiesStats(coalesce(current.getPropertiesStats(), previous.getPropertiesStats()))
+                .contractsStats(coalesce(current.getContractsStats(), previous.getContractsStats()))
+                .paymentsStats(coalesce(current.getPaymentsStats(), previous.getPaymentsStats()))
+                .maintenanceStats(coalesce(current.getMaintenanceStats(), previous.getMaintenanceStats()))
+                .recentActivity(DashboardResponse.RecentActivity.builder()
+                        .propertyAlerts(coalesce(currentActivity.getPropertyAlerts(), previousActivity.getPropertyAlerts()))
+                        .contractAlerts(coalesce(currentActivity.getContractAlerts(), previousActivity.getContractAlerts()))
+                        .paymentAlerts(coalesce(currentActivity.getPaymentAlerts(), previousActivity.getPaymentAlerts()))
+                        .build())
+                .build();
+    }
+
+    private DashboardResponse.RecentActivity activityOf(DashboardResponse response) {
+        return response.getRecentActivity() != null
+                ? response.getRecentActivity()
+                : new DashboardResponse.RecentActivity();
+    }
+
+    private <T> T changed(T previous, T current) {
+        return current != null && !current.equals(previous) ? current : null;
+    }
+
+    private <T> List<T> added(List<T> previous, List<T> current) {
+        if (current == null) {
+            return null;
+        }
+        Set<T> known = previous != null ? new HashSet<>(previous) : Set.of();
+        List<T> added = current.stream().filter(alert -> !known.contains(alert)).toList();
+        return added.isEmpty() ? null : added;
+    }
+
+    private <T> T coalesce(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private void requestResync(StreamConnection connection) {
+        enqueue(connection, new StreamMessage(EVENT_RESYNC, Map.of("timestamp", LocalDateTime.now())));
+    }
+
+    private void enqueue(StreamConnection connection, StreamMessage message) {
+        if (connection.closed) {
+            return;
+        }
+
+        synchronized (connection) {
+            if (!connection.queue.offer(message)) {
+                // Cliente lento: los deltas pendientes ya no sirven, recarga el dashboard completo
+                connection.queue.clear();
+                connection.queue.offer(new StreamMessage(EVENT_RESYNC, Map.of("timestamp", LocalDateTime.now())));
+                resyncCounter.increment();
+                log.debug("Cola del stream del dashboard llena, se envía resync");
+            }
+        }
+
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(StreamConnection connection) {
+        if (connection.closed || !connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        if (!submit(() -> drain(connection))) {
+            // Se reintenta con el siguiente evento o heartbeat
+            connection.draining.set(false);
+        }
+    }
+
+    private void drain(StreamConnection connection) {
+        try {
+            StreamMessage message;
+            while (!connection.closed && (message = connection.queue.poll()) != null) {
+                connection.emitter.send(message.toEvent());
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Cliente del stream del dashboard desconectado: {}", e.getMessage());
+            connection.closed = true;
+            connection.emitter.completeWithError(e);
+        } finally {
+            connection.draining.set(false);
+        }
+
+        // Un mensaje encolado mientras terminaba el ciclo no debe esperar al siguiente heartbeat
+        if (!connection.closed && !connection.queue.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private void close(OrganizationStream stream, StreamConnection connection) {
+        connection.closed = true;
+        connection.queue.clear();
+        // Con la última conexión se quita la organización del mapa (y su último estado enviado)
+        streams.computeIfPresent(stream.organizationId, (id, current) -> {
+            current.remove(connection);
+            return current.connections.isEmpty() ? null : current;
+        });
+        log.debug("Cliente desconectado del stream del dashboard de organización {}", stream.organizationId);
+    }
+
+    private boolean submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Error en el stream del dashboard: {}", e.getMessage(), e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(stream -> stream.connections.forEach(connection -> {
+            connection.closed = true;
+            connection.emitter.complete();
+        }));
+        ThreadPools.shutdown(executor);
+    }
+
+    private User getCurrentUser() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        String email;
+
+        if (principal instanceof UserDetails) {
+            email = ((UserDetails) principal).getUsername();
+        } else {
+            email = principal.toString();
+        }
+
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UnauthorizedAccessException("Usuario no autenticado"));
+    }
+
+    private void validateUserHasOrganization(User user) {
+        if (user.getOrganization() == null) {
+            throw new UnauthorizedAccessException(
+                    "Debes pertenecer a una organización para acceder al dashboard");
+        }
+    }
+
+    /**
+     * Conexiones y último estado enviado de una organización
+     */
+    private static final class OrganizationStream {
+        private final UUID organizationId;
+        private final List<StreamConnection> connections = new CopyOnWriteArrayList<>();
+        private DashboardResponse lastSent; // protegido por synchronized (this)
+
+        private OrganizationStream(UUID organizationId) {
+            this.organizationId = organizationId;
+        }
+
+        private synchronized boolean tryAdd(StreamConnection connection, int maxConnections) {
+            if (connections.size() >= maxConnections) {
+                return false;
+            }
+            connections.add(connection);
+            return true;
+        }
+
+        private synchronized void remove(StreamConnection connection) {
+            connections.remove(connection);
+        }
+
+        private synchronized boolean needsBaseline() {
+            return lastSent == null;
+        }
+    }
+
+    private static final class StreamConnection {
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamMessage> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private StreamConnection(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    /**
+     * Mensaje encolado; el SseEventBuilder se crea al enviar porque no es reutilizable
+     * entre conexiones.
+     */
+    private record StreamMessage(String name, Object data) {
+
+        private static final StreamMessage HEARTBEAT = new StreamMessage(null, null);
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+}
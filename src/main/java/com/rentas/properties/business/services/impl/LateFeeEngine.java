@@ -0,0 +1,121 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
+import com.rentas.properties.dao.repository.OrganizationRepository;
+import com.rentas.properties.dao.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Aplica recargos por mora con UPDATE por bloques (PaymentRepository.applyLateFees),
+ * sin cargar pagos en memoria.
+ *
+ * Cada bloque de chunk-size pagos va en su propia transacción junto con el evento de periodos
+ * cambiados (rollup y snapshot del dashboard). Un bloque incompleto indica que ya no quedan
+ * candidatos: los pagos aplicados dejan de serlo (late_fee > 0) y los bloqueados por otra
+ * ejecución los termina esa ejecución. Un bloque sin recargo nuevo también termina el ciclo,
+ * para no repetir indefinidamente los mismos pagos.
+ */
+@Component
+@Slf4j
+public class LateFeeEngine {
+
+    public record Result(int paymentsUpdated, BigDecimal totalLateFees) {
+
+        static final Result EMPTY = new Result(0, BigDecimal.ZERO);
+
+        Result plus(Result other) {
+            return new Result(paymentsUpdated + other.paymentsUpdated, totalLateFees.add(other.totalLateFees));
+        }
+    }
+
+    private final PaymentRepository paymentRepository;
+    private final OrganizationRepository organizationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public LateFeeEngine(PaymentRepository paymentRepository,
+                         OrganizationRepository organizationRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${payments.late-fees.chunk-size:500}") int chunkSize) {
+        this.paymentRepository = paymentRepository;
+        this.organizationRepository = organizationRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Aplica recargos en todas las organizaciones activas con recargos habilitados;
+     * el error de una organización no detiene a las demás
+     */
+    public Result applyForAllOrganizations(LocalDate today) {
+        List<UUID> organizationIds = organizationRepository.findIdsWithLateFeesEnabled();
+        Result total = Result.EMPTY;
+        int failed = 0;
+
+        for (UUID organizationId : organizationIds) {
+            try {
+                total = total.plus(applyForOrganization(organizationId, today));
+            } catch (Exception e) {
+                failed++;
+                log.error("Error aplicando recargos de organización {}: {}", organizationId, e.getMessage(), e);
+            }
+        }
+
+        log.info("Recargos del {}: {} pagos, ${} en {} organizaciones ({} con error)",
+                today, total.paymentsUpdated(), total.totalLateFees(), organizationIds.size(), failed);
+        return total;
+    }
+
+    public Result applyForOrganization(UUID organizationId, LocalDate today) {
+        Result total = Result.EMPTY;
+        Result chunk;
+
+        do {
+            chunk = transactionTemplate.execute(status -> applyChunk(organizationId, today));
+            if (chunk == null) {
+                break;
+            }
+            total = total.plus(chunk);
+        } while (chunk.paymentsUpdated() >= chunkSize && chunk.totalLateFees().signum() > 0);
+
+        if (total.paymentsUpdated() > 0) {
+            log.info("Recargos aplicados a {} pagos de organización {}: ${}",
+                    total.paymentsUpdated(), organizationId, total.totalLateFees());
+        }
+        return total;
+    }
+
+    private Result applyChunk(UUID organizationId, LocalDate today) {
+        List<Object[]> rows = paymentRepository.applyLateFees(organizationId, today, chunkSize);
+
+        int count = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        Set<YearMonth> changedPeriods = new HashSet<>();
+        for (Object[] row : rows) {
+            changedPeriods.add(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()));
+            count += ((Number) row[2]).intValue();
+            amount = amount.add((BigDecimal) row[3]);
+        }
+
+        if (count > 0) {
+            eventPublisher.publishEvent(OrganizationDataChangedEvent.paymentsChanged(organizationId, changedPeriods));
+        }
+        return new Result(count, amount);
+    }
+}
@@ -6,11 +6,14 @@ import com.rentas.properties.api.dto.response.MaintenanceRecordDetailResponse;
 import com.rentas.properties.api.dto.response.MaintenanceRecordResponse;
 import com.rentas.properties.api.dto.response.MaintenanceRecordSummaryResponse;
 import com.rentas.properties.api.exception.*;
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
 import com.rentas.properties.business.services.MaintenanceRecordService;
 import com.rentas.properties.dao.entity.*;
 import com.rentas.properties.dao.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -33,6 +36,7 @@ public class MaintenanceRecordServiceImpl implements MaintenanceRecordService {
     private final ContractRepository contractRepository;
     private final MaintenanceImageRepository maintenanceImageRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -82,6 +86,8 @@ public class MaintenanceRecordServiceImpl implements MaintenanceRecordService {
         MaintenanceRecord savedRecord = maintenanceRecordRepository.save(maintenanceRecord);
         log.info("Registro de mantenimiento creado con ID: {}", savedRecord.getId());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(organization.getId(), DashboardSection.MAINTENANCE));
+
         return mapToDetailResponse(savedRecord);
     }
 
@@ -169,6 +175,9 @@ public class MaintenanceRecordServiceImpl implements MaintenanceRecordService {
         MaintenanceRecord updatedRecord = maintenanceRecordRepository.save(record);
         log.info("Registro de mantenimiento actualizado exitosamente");
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                record.getOrganization().getId(), DashboardSection.MAINTENANCE));
+
         return mapToDetailResponse(updatedRecord);
     }
 
@@ -188,6 +197,9 @@ public class MaintenanceRecordServiceImpl implements MaintenanceRecordService {
 
         maintenanceRecordRepository.delete(record);
         log.info("Registro de mantenimiento eliminado exitosamente");
+
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                record.getOrganization().getId(), DashboardSection.MAINTENANCE));
     }
 
     @Override
@@ -383,6 +395,9 @@ public class MaintenanceRecordServiceImpl implements MaintenanceRecordService {
         MaintenanceRecord updatedRecord = maintenanceRecordRepository.save(record);
         log.info("Registro marcado como COMPLETADO exitosamente");
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                record.getOrganization().getId(), DashboardSection.MAINTENANCE));
+
         return mapToDetailResponse(updatedRecord);
     }
 
@@ -0,0 +1,215 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.api.exception.NotificationProviderUnavailableException;
+import com.rentas.properties.api.exception.NotificationRecipientRejectedException;
+import com.rentas.properties.business.provider.NotificationGateway;
+import com.rentas.properties.business.support.SendWindowPlanner;
+import com.rentas.properties.business.support.ThreadPools;
+import com.rentas.properties.dao.entity.Notification;
+import com.rentas.properties.dao.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Envía las notificaciones encoladas (PENDING) usando la tabla notifications como outbox.
+ *
+ * Reclama lotes de filas vencidas (next_attempt_at <= ahora) con FOR UPDATE SKIP LOCKED en una
+ * transacción corta (PENDING -> SENDING), envía cada notificación sin conexión a la base de
+ * datos abierta y registra el resultado en otra transacción corta. Al reclamar se cancelan
+ * los recordatorios de pago cuyo pago ya no está pendiente.
+ *
+ * Cada canal tiene su propio pool acotado (bulkhead): el SMS y el WhatsApp de un recordatorio
+ * BOTH son filas distintas con su propio estado de reintentos, se envían en paralelo, y un
+ * proveedor lento o limitado por tasa no acapara los hilos del otro canal.
+ * Un fallo reprograma el siguiente intento con backoff exponencial y jitter, así que los
+ * reintentos sobreviven a reinicios y varios nodos pueden vaciar la cola a la vez.
+ * Un envío que no llegó al proveedor (límite de tasa, circuito abierto) se reprograma tras
+ * defer-delay-ms sin contar como intento; un destinatario rechazado queda FAILED sin reintentos.
+ * Los envíos se registran por franja horaria en SendWindowPlanner.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationGateway notificationGateway;
+    private final SendWindowPlanner sendWindowPlanner;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<String, ThreadPoolExecutor> channelWorkers = new ConcurrentHashMap<>();
+    private final int threadsPerChannel;
+    private final int batchSize;
+    private final int maxPerRun;
+    private final int maxRetries;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final long stuckTimeoutMs;
+    private final long deferDelayMs;
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  NotificationGateway notificationGateway,
+                                  SendWindowPlanner sendWindowPlanner,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${notification.dispatch.threads-per-channel:4}") int threadsPerChannel,
+                                  @Value("${notification.dispatch.batch-size:50}") int batchSize,
+                                  @Value("${notification.dispatch.max-per-run:1000}") int maxPerRun,
+                                  @Value("${notification.retry.max:3}") int maxRetries,
+                                  @Value("${notification.retry.delay:5000}") long retryBaseDelayMs,
+                                  @Value("${notification.retry.max-delay-ms:3600000}") long retryMaxDelayMs,
+                                  @Value("${notification.dispatch.stuck-timeout-ms:600000}") long stuckTimeoutMs,
+                                  @Value("${notification.dispatch.defer-delay-ms:30000}") long deferDelayMs) {
+        this.notificationRepository = notificationRepository;
+        this.notificationGateway = notificationGateway;
+        this.sendWindowPlanner = sendWindowPlanner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxPerRun = maxPerRun;
+        this.maxRetries = maxRetries;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+        this.stuckTimeoutMs = stuckTimeoutMs;
+        this.deferDelayMs = deferDelayMs;
+        this.threadsPerChannel = threadsPerChannel;
+    }
+
+    private ThreadPoolExecutor workersFor(String channel) {
+        // Cola llena: el hilo del dispatcher envía él mismo y así frena el reclamo de lotes
+        return channelWorkers.computeIfAbsent(channel, key -> ThreadPools.fixed(
+                "notification-dispatch-" + key.toLowerCase(), threadsPerChannel, batchSize,
+                new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    /**
+     * Envía lotes de notificaciones pendientes hasta vaciar la cola o alcanzar el máximo por ejecución
+     *
+     * @return número de notificaciones procesadas
+     */
+    public int dispatchPending() {
+        int processed = 0;
+
+        while (processed < maxPerRun) {
+            List<Notification> batch = claimBatch(Math.min(batchSize, maxPerRun - processed));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            CompletableFuture<?>[] sends = batch.stream()
+                    .map(notification -> CompletableFuture.runAsync(
+                            () -> dispatch(notification), workersFor(notification.getChannel())))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(sends).join();
+
+            processed += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (processed > 0) {
+            log.info("Dispatcher de notificaciones procesó {} notificaciones", processed);
+        }
+        return processed;
+    }
+
+    private List<Notification> claimBatch(int size) {
+        List<Notification> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<UUID> ids = notificationRepository.lockDueIds(now, size);
+            if (ids.isEmpty()) {
+                return Collections.<Notification>emptyList();
+            }
+
+            // El recordatorio pudo encolarse horas antes de su franja: si el pago ya se liquidó no se envía
+            int cancelled = notificationRepository.cancelSettledReminders(ids);
+            if (cancelled > 0) {
+                log.info("{} recordatorios cancelados: el pago ya no está pendiente", cancelled);
+            }
+
+            notificationRepository.markSending(ids, now);
+            return notificationRepository.findAllById(ids).stream()
+                    .filter(notification -> "SENDING".equals(notification.getStatus()))
+                    .toList();
+        });
+        return batch != null ? batch : Collections.emptyList();
+    }
+
+    private void dispatch(Notification notification) {
+        try {
+            String messageId = notificationGateway.send(
+                    notification.getChannel(), notification.getRecipientPhone(), notification.getMessage());
+
+            transactionTemplate.executeWithoutResult(status ->
+                    notificationRepository.markSent(notification.getId(), messageId, LocalDateTime.now()));
+            sendWindowPlanner.recordDispatched("sent");
+            log.info("Notificación {} enviada por {}", notification.getId(), notification.getChannel());
+
+        } catch (NotificationProviderUnavailableException e) {
+            // No llegó al proveedor: se reprograma sin gastar un intento
+            LocalDateTime nextAttemptAt = LocalDateTime.now().plus(jitter(deferDelayMs), ChronoUnit.MILLIS);
+
+            transactionTemplate.executeWithoutResult(status ->
+                    notificationRepository.deferAttempt(notification.getId(), e.getMessage(), nextAttemptAt));
+            sendWindowPlanner.recordDispatched("deferred");
+            log.debug("Notificación {} reprogramada: {}", notification.getId(), e.getMessage());
+
+        } catch (Exception e) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime nextAttemptAt = now.plus(backoffMs(notification.getRetryCount()), ChronoUnit.MILLIS);
+            // Un destinatario rechazado no se reintenta: queda FAILED en este intento
+            int attemptsAllowed = e instanceof NotificationRecipientRejectedException ? 0 : maxRetries;
+
+            transactionTemplate.executeWithoutResult(status ->
+                    notificationRepository.markFailedAttempt(notification.getId(), e.getMessage(),
+                            attemptsAllowed, now, nextAttemptAt));
+            sendWindowPlanner.recordDispatched("failed");
+            log.warn("Error enviando notificación {} (intento {}/{}): {}", notification.getId(),
+                    notification.getRetryCount() + 1, maxRetries, e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve a la cola las notificaciones que llevan demasiado tiempo en SENDING
+     *
+     * @return número de notificaciones recuperadas
+     */
+    public int recoverStuck() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime threshold = now.minus(stuckTimeoutMs, ChronoUnit.MILLIS);
+
+        Integer recovered = transactionTemplate.execute(status ->
+                notificationRepository.requeueStuckSending(threshold, maxRetries, now));
+        if (recovered != null && recovered > 0) {
+            log.warn("Se reprogramaron {} notificaciones que quedaron en SENDING", recovered);
+        }
+        return recovered != null ? recovered : 0;
+    }
+
+    /**
+     * Backoff exponencial con jitter: entre la mitad y el total de base * 2^intentos,
+     * acotado a retryMaxDelayMs, para que los reintentos no lleguen al proveedor en ráfaga
+     */
+    private long backoffMs(Integer previousAttempts) {
+        int attempts = previousAttempts != null ? Math.min(previousAttempts, 30) : 0;
+        return jitter(Math.min(retryMaxDelayMs, retryBaseDelayMs * (1L << attempts)));
+    }
+
+    private long jitter(long delay) {
+        long half = Math.max(1, delay / 2);
+        return half + ThreadLocalRandom.current().nextLong(half);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channelWorkers.values().forEach(ThreadPools::shutdown);
+    }
+}
@@ -5,20 +5,26 @@ import com.rentas.properties.api.dto.request.SendTestNotificationRequest;
 import com.rentas.properties.api.dto.response.NotificationSettingsResponse;
 import com.rentas.properties.api.dto.response.NotificationStatsResponse;
 import com.rentas.properties.api.exception.*;
-import com.rentas.properties.business.provider.NotificationProvider;
+import com.rentas.properties.business.provider.NotificationGateway;
+import com.rentas.properties.business.services.NotificationTemplateService;
+import com.rentas.properties.business.support.NotificationTemplateType;
+import com.rentas.properties.business.support.SendWindowPlanner;
 import com.rentas.properties.dao.entity.*;
+import com.rentas.properties.dao.projection.ReminderCandidate;
 import com.rentas.properties.dao.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -29,77 +35,79 @@ import java.util.stream.Collectors;
 public class NotificationServiceImpl {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationDailyStatsRepository notificationDailyStatsRepository;
     private final OrganizationRepository organizationRepository;
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
     private final ContractRepository contractRepository;
+    private final NotificationGateway notificationGateway;
+    private final SendWindowPlanner sendWindowPlanner;
+    private final NotificationTemplateService notificationTemplateService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Qualifier("twilioWhatsAppProvider")
-    private final NotificationProvider twilioWhatsAppProvider;
-
-    @Qualifier("twilioSMSProvider")
-    private final NotificationProvider twilioSMSProvider;
-
-    @Qualifier("awsSNSProvider")
-    private final NotificationProvider awsSNSProvider;
-
-    @Value("${notification.sms.provider:AWS_SNS}")
-    private String smsProviderName; // AWS_SNS o TWILIO
-
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 5000;
-
-    @Transactional
-    public void processDailyReminders() {
-        log.info("Iniciando proceso de recordatorios diarios");
-
-        LocalDate today = LocalDate.now();
-        LocalDate threeDaysLater = today.plusDays(3);
-        LocalDate threeDaysAgo = today.minusDays(3);
-
-        // Obtener organizaciones con notificaciones habilitadas
-        List<Organization> organizations = organizationRepository.findOrganizationsWithNotificationsEnabled();
+    /**
+     * Candidatos a recordatorio (vencen hoy, en 3 días o vencieron hace 3 días) de un bloque de
+     * organizaciones en una sola consulta, agrupados por organización
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<ReminderCandidate>> findReminderCandidates(Collection<UUID> organizationIds,
+                                                                     LocalDate today) {
+        if (organizationIds.isEmpty()) {
+            return Map.of();
+        }
 
-        log.info("Procesando {} organizaciones con notificaciones habilitadas", organizations.size());
+        List<LocalDate> dueDates = List.of(today, today.plusDays(3), today.minusDays(3));
 
-        for (Organization org : organizations) {
-            try {
-                resetMonthlyCounterIfNeeded(org);
+        List<ReminderCandidate> candidates = paymentRepository.findReminderCandidates(organizationIds, dueDates);
 
-                processOrganizationReminders(org, today, threeDaysLater, threeDaysAgo);
-            } catch (Exception e) {
-                log.error("Error procesando notificaciones para organización {}: {}",
-                        org.getId(), e.getMessage(), e);
+        // Un pago con varios inquilinos marcados como PRIMARY aparece una vez por inquilino; se toma el primero
+        Map<UUID, List<ReminderCandidate>> byOrganization = new HashMap<>();
+        Set<UUID> seenPayments = new HashSet<>();
+        for (ReminderCandidate candidate : candidates) {
+            if (seenPayments.add(candidate.getPaymentId())) {
+                byOrganization.computeIfAbsent(candidate.getOrganizationId(), id -> new ArrayList<>())
+                        .add(candidate);
             }
         }
-
-        log.info("Proceso de recordatorios diarios finalizado");
+        return byOrganization;
     }
 
-    @Transactional
-    public void resetMonthlyCounterIfNeeded(Organization org) {
-        LocalDate lastReset = org.getLastNotificationReset();
-        LocalDate now = LocalDate.now();
-
-
-        if (lastReset == null ||
-                lastReset.getYear() != now.getYear() ||
-                lastReset.getMonthValue() != now.getMonthValue()) {
+    /**
+     * Solo encola las notificaciones del día (filas PENDING) de una organización, repartidas en su
+     * ventana de envío con SendWindowPlanner; el envío lo hace NotificationDispatcher. Cada organización se procesa en su propia transacción corta;
+     * el reparto entre nodos lo hace ReminderJobCoordinator y los candidatos llegan ya
+     * consultados por bloque con findReminderCandidates.
+     */
+    public void processOrganization(UUID organizationId, LocalDate today, List<ReminderCandidate> candidates) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (organizationRepository.resetMonthlyNotificationCounter(
+                    organizationId, today, today.withDayOfMonth(1)) > 0) {
+                log.info("Contador mensual reseteado para organización {}", organizationId);
+            }
 
-            log.info("Reseteando contador mensual para organización {} - Último reset: {}",
-                    org.getId(), lastReset);
+            Organization org = organizationRepository.findWithPlanAndOwnerById(organizationId).orElse(null);
+            if (org == null) {
+                return;
+            }
 
-            org.setNotificationsSentThisMonth(0);
-            org.setLastNotificationReset(now);
-            organizationRepository.save(org);
+            processOrganizationReminders(org, today, candidates);
+        });
+    }
 
-            log.info("Contador reseteado exitosamente para organización {}", org.getId());
+    /**
+     * El contador se reinicia al procesar los recordatorios de la organización; si aún no se procesó
+     * en el mes, lo registrado corresponde a un mes anterior
+     */
+    private static int sentThisMonth(Organization org, LocalDate today) {
+        LocalDate lastReset = org.getLastNotificationReset();
+        if (lastReset == null || lastReset.isBefore(today.withDayOfMonth(1))) {
+            return 0;
         }
+        return org.getNotificationsSentThisMonth() != null ? org.getNotificationsSentThisMonth() : 0;
     }
 
     @Transactional
-    public void processOrganizationReminders(Organization org, LocalDate today,
-                                             LocalDate threeDaysLater, LocalDate threeDaysAgo) {
+    public void processOrganizationReminders(Organization org, LocalDate today, List<ReminderCandidate> candidates) {
 
         log.info("Procesando recordatorios para organización: {} ({}) - Plan: {}",
                 org.getName(), org.getId(), org.getPlanCode());
@@ -110,273 +118,213 @@ public class NotificationServiceImpl {
             return;
         }
 
-        Integer monthlyLimit = org.getMonthlyNotificationLimit();
-        if (monthlyLimit != null && monthlyLimit != -1) {
-            if (org.getNotificationsSentThisMonth() >= monthlyLimit) {
-                log.warn("Organización {} ha excedido su límite mensual de notificaciones ({}/{})",
-                        org.getId(), org.getNotificationsSentThisMonth(), monthlyLimit);
-                // TODO: Enviar email al admin
-                return;
-            }
-        }
-
         String channel = org.getNotificationChannels();
 
-        // Obtener pagos que requieren notificación
-        List<Payment> paymentsToNotify = new ArrayList<>();
-
-        // 3 días antes del vencimiento
-        List<Payment> paymentsDueIn3Days = paymentRepository.findByDueDateAndOrganization(
-                threeDaysLater, org.getId()
-        );
-        paymentsToNotify.addAll(filterNotifiablePayments(paymentsDueIn3Days));
-
-        // Día del vencimiento
-        List<Payment> paymentsDueToday = paymentRepository.findByDueDateAndOrganization(
-                today, org.getId()
-        );
-        paymentsToNotify.addAll(filterNotifiablePayments(paymentsDueToday));
-
-        if (org.hasFeature("OVERDUE_NOTIFICATIONS")) {
-            List<Payment> paymentsOverdue3Days = paymentRepository.findByDueDateAndOrganization(
-                            threeDaysAgo, org.getId()
-                    ).stream()
+        LocalDate threeDaysLater = today.plusDays(3);
+        LocalDate threeDaysAgo = today.minusDays(3);
+        boolean overdueEnabled = org.hasFeature("OVERDUE_NOTIFICATIONS");
+
+        // Mismo orden que antes: 3 días antes del vencimiento, día del vencimiento y atrasados
+        List<ReminderCandidate> paymentsToNotify = new ArrayList<>();
+        paymentsToNotify.addAll(filterNotifiablePayments(candidates, threeDaysLater));
+        paymentsToNotify.addAll(filterNotifiablePayments(candidates, today));
+        if (overdueEnabled) {
+            candidates.stream()
+                    .filter(p -> p.getDueDate().isEqual(threeDaysAgo))
                     .filter(p -> "ATRASADO".equals(p.getStatus()))
-                    .collect(Collectors.toList());
-            paymentsToNotify.addAll(paymentsOverdue3Days);
+                    .forEach(paymentsToNotify::add);
         }
 
         log.info("Se encontraron {} pagos para notificar en organización {}",
                 paymentsToNotify.size(), org.getId());
 
-        int sentCount = 0;
+        if (paymentsToNotify.isEmpty()) {
+            return;
+        }
 
-        for (Payment payment : paymentsToNotify) {
-            if (monthlyLimit != null && monthlyLimit != -1) {
-                if (org.getNotificationsSentThisMonth() + sentCount >= monthlyLimit) {
-                    log.warn("Se alcanzó el límite de notificaciones para organización {}", org.getId());
-                    break;
-                }
+        int reserved = reserveNotificationCredits(org.getId(), paymentsToNotify.size());
+        if (reserved == 0) {
+            log.warn("Organización {} ha excedido su límite mensual de notificaciones ({})",
+                    org.getId(), org.getMonthlyNotificationLimit());
+            // TODO: Enviar email al admin
+            return;
+        }
+        if (reserved < paymentsToNotify.size()) {
+            log.warn("Se alcanzó el límite de notificaciones para organización {}: {} de {} pagos",
+                    org.getId(), reserved, paymentsToNotify.size());
+        }
+
+        // Un horario por crédito reservado, espaciados dentro de la ventana de la organización
+        LocalDateTime now = LocalDateTime.now();
+        List<LocalDateTime> sendTimes = sendWindowPlanner.plan(org.getId(), org.getNotificationWindowStart(),
+                org.getNotificationWindowEnd(), today, now, reserved);
+
+        int queuedCount = 0;
+
+        for (ReminderCandidate payment : paymentsToNotify) {
+            if (queuedCount >= reserved) {
+                break;
             }
 
             try {
-                sendPaymentReminder(payment, org, channel);
-                sentCount++;
+                if (sendPaymentReminder(org, payment, today, channel, sendTimes.get(queuedCount))) {
+                    queuedCount++;
+                }
             } catch (Exception e) {
-                log.error("Error enviando notificación para pago {}: {}", payment.getId(), e.getMessage());
+                log.error("Error encolando notificación para pago {}: {}", payment.getPaymentId(), e.getMessage());
             }
         }
 
-        if (sentCount > 0) {
-            org.incrementNotificationCount(sentCount);
-            organizationRepository.save(org);
+        if (queuedCount < reserved) {
+            organizationRepository.releaseNotificationCredits(org.getId(), reserved - queuedCount);
         }
 
-        if (org.hasFeature("ADMIN_DIGEST") && !paymentsToNotify.isEmpty()) {
-            sendAdminConsolidatedReport(org, paymentsToNotify, channel);
+        if (org.hasFeature("ADMIN_DIGEST")) {
+            sendAdminConsolidatedReport(org, paymentsToNotify, today, channel,
+                    sendWindowPlanner.windowStart(org.getNotificationWindowStart(),
+                            org.getNotificationWindowEnd(), today, now));
         }
     }
 
-    private List<Payment> filterNotifiablePayments(List<Payment> payments) {
-        return payments.stream()
+    private List<ReminderCandidate> filterNotifiablePayments(List<ReminderCandidate> candidates, LocalDate dueDate) {
+        return candidates.stream()
+                .filter(p -> p.getDueDate().isEqual(dueDate))
                 .filter(p -> "PENDIENTE".equals(p.getStatus()) || "ATRASADO".equals(p.getStatus()))
                 .filter(p -> !"ADELANTO".equals(p.getPaymentType()))
                 .collect(Collectors.toList());
     }
 
-    @Transactional
-    public void sendPaymentReminder(Payment payment, Organization org, String channel) {
-        log.info("Enviando recordatorio para pago {}", payment.getId());
-
-        Contract contract = payment.getContract();
+    /**
+     * Reserva hasta requested créditos del cupo mensual sin cargar la organización: intenta la
+     * cantidad completa y, si no cabe, lo que quede disponible en ese momento
+     *
+     * @return créditos reservados (0 si no hay)
+     */
+    private int reserveNotificationCredits(UUID organizationId, int requested) {
+        int toReserve = requested;
 
-        // Obtener inquilino PRIMARY
-        ContractTenant primaryTenant = contract.getContractTenants().stream()
-                .filter(ContractTenant::getIsPrimary)
-                .findFirst()
-                .orElse(null);
+        // Si otro nodo consume créditos entre la consulta y la reserva, se reintenta con el nuevo saldo
+        for (int attempt = 0; attempt < 3 && toReserve > 0; attempt++) {
+            if (organizationRepository.tryReserveNotificationCredits(organizationId, toReserve) > 0) {
+                return toReserve;
+            }
 
-        if (primaryTenant == null || primaryTenant.getTenant() == null) {
-            log.warn("No se encontró inquilino PRIMARY para contrato {}", contract.getId());
-            return;
+            Integer remaining = organizationRepository.findRemainingNotificationCredits(organizationId);
+            if (remaining == null) {
+                return 0; // Sin plan
+            }
+            toReserve = Math.min(requested, remaining);
         }
+        return 0;
+    }
+
+    /**
+     * @return true si se encoló al menos una notificación (consume un crédito); false si no hay
+     * teléfono válido o el recordatorio ya estaba encolado para hoy
+     */
+    private boolean sendPaymentReminder(Organization org, ReminderCandidate payment, LocalDate today,
+                                        String channel, LocalDateTime sendAt) {
+        log.info("Encolando recordatorio para pago {}", payment.getPaymentId());
 
-        Tenant tenant = primaryTenant.getTenant();
-        String phone = normalizePhoneNumber(tenant.getPhone());
+        String phone = normalizePhoneNumber(payment.getTenantPhone());
 
         if (phone == null) {
-            log.warn("Inquilino {} no tiene teléfono válido", tenant.getId());
-            return;
+            log.warn("Inquilino {} no tiene teléfono válido", payment.getTenantId());
+            return false;
         }
 
-        String message = buildPaymentReminderMessage(payment, tenant, contract);
-        String title = "Recordatorio de pago";
+        String message = buildPaymentReminderMessage(org, payment, today);
+        String title;
+        String reminderKind;
 
         // Determinar días hasta vencimiento
-        long daysUntilDue = ChronoUnit.DAYS.between(LocalDate.now(), payment.getDueDate());
+        long daysUntilDue = ChronoUnit.DAYS.between(today, payment.getDueDate());
 
         if (daysUntilDue < 0) {
             title = "Pago atrasado";
+            reminderKind = "OVERDUE";
         } else if (daysUntilDue == 0) {
             title = "Pago vence hoy";
+            reminderKind = "DUE_TODAY";
         } else {
             title = "Recordatorio de pago";
+            reminderKind = "UPCOMING";
         }
 
-        // Enviar según canal
+        // Encolar según canal
+        boolean queued = false;
         if ("BOTH".equals(channel)) {
-            sendNotificationWithRetry(phone, message, "SMS", payment, tenant, title);
-            sendNotificationWithRetry(phone, message, "WHATSAPP", payment, tenant, title);
+            queued = enqueuePaymentNotification(phone, message, "SMS", payment, title, reminderKind, today, sendAt);
+            queued |= enqueuePaymentNotification(phone, message, "WHATSAPP", payment, title, reminderKind, today, sendAt);
         } else if ("SMS".equals(channel)) {
-            sendNotificationWithRetry(phone, message, "SMS", payment, tenant, title);
+            queued = enqueuePaymentNotification(phone, message, "SMS", payment, title, reminderKind, today, sendAt);
         } else if ("WHATSAPP".equals(channel)) {
-            sendNotificationWithRetry(phone, message, "WHATSAPP", payment, tenant, title);
-        }
-    }
-
-    private void sendNotificationWithRetry(String phone, String message, String channel,
-                                           Payment payment, Tenant tenant, String title) {
-
-        Notification notification = Notification.builder()
-                .recipientType("TENANT")
-                .recipientId(tenant.getId())
-                .recipientPhone(phone)
-                .notificationType("PAYMENT_REMINDER")
-                .title(title)
-                .message(message)
-                .channel(channel)
-                .status("PENDING")
-                .relatedPayment(payment)
-                .relatedContract(payment.getContract())
-                .retryCount(0)
-                .build();
-
-        notification = notificationRepository.save(notification);
-
-        int retries = 0;
-        boolean sent = false;
-
-        while (retries < MAX_RETRIES && !sent) {
-            try {
-                String messageId = sendNotification(phone, message, channel);
-
-                notification.setProviderMessageId(messageId);
-                notification.setStatus("SENT");
-                notification.setSentAt(LocalDateTime.now());
-                notificationRepository.save(notification);
-
-                log.info("Notificación enviada exitosamente por {} a {}", channel, phone);
-                sent = true;
-
-            } catch (Exception e) {
-                retries++;
-                notification.setRetryCount(retries);
-                notification.setLastRetryAt(LocalDateTime.now());
-
-                if (retries >= MAX_RETRIES) {
-                    notification.setStatus("FAILED");
-                    notification.setErrorMessage(e.getMessage());
-                    log.error("Notificación fallida después de {} reintentos: {}",
-                            MAX_RETRIES, e.getMessage());
-                } else {
-                    log.warn("Reintento {}/{} para notificación {}", retries, MAX_RETRIES,
-                            notification.getId());
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS * retries); // Backoff exponencial
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                    }
-                }
-
-                notificationRepository.save(notification);
-            }
-        }
-    }
-
-    private String sendNotification(String phone, String message, String channel) {
-        if ("SMS".equals(channel)) {
-            return sendSMSWithSelectedProvider(phone, message);
-        } else if ("WHATSAPP".equals(channel)) {
-            if (!twilioWhatsAppProvider.isConfigured()) {
-                throw new NotificationProviderException("Twilio WhatsApp no está configurado");
-            }
-            return twilioWhatsAppProvider.sendWhatsApp(phone, message);
-        } else {
-            throw new IllegalArgumentException("Canal no soportado: " + channel);
+            queued = enqueuePaymentNotification(phone, message, "WHATSAPP", payment, title, reminderKind, today, sendAt);
         }
+        return queued;
     }
 
     /**
-     * Envía SMS usando el proveedor configurado (Twilio o AWS SNS)
+     * Inserta la fila PENDING con su llave de idempotencia; si ya existe no hace nada
+     *
+     * @return true si se insertó
      */
-    private String sendSMSWithSelectedProvider(String phone, String message) {
-        NotificationProvider smsProvider;
+    private boolean enqueuePaymentNotification(String phone, String message, String channel,
+                                               ReminderCandidate payment, String title, String reminderKind,
+                                               LocalDate today, LocalDateTime sendAt) {
+
+        String idempotencyKey = Notification.paymentReminderKey(payment.getPaymentId(), channel, reminderKind, today);
+
+        int inserted = notificationRepository.insertPaymentReminderIfAbsent(
+                payment.getTenantId(),
+                phone,
+                title,
+                message,
+                channel,
+                payment.getContractId(),
+                payment.getPaymentId(),
+                sendAt,
+                LocalDateTime.now(),
+                idempotencyKey,
+                payment.getOrganizationId()
+        );
 
-        if ("TWILIO".equalsIgnoreCase(smsProviderName)) {
-            if (!twilioSMSProvider.isConfigured()) {
-                log.warn("Twilio SMS no configurado, intentando con AWS SNS como fallback");
-                smsProvider = awsSNSProvider;
-            } else {
-                smsProvider = twilioSMSProvider;
-            }
-        } else {
-            // Default: AWS_SNS
-            if (!awsSNSProvider.isConfigured()) {
-                log.warn("AWS SNS no configurado, intentando con Twilio SMS como fallback");
-                smsProvider = twilioSMSProvider;
-            } else {
-                smsProvider = awsSNSProvider;
-            }
+        if (inserted == 0) {
+            log.info("Recordatorio {} ya estaba encolado, se omite", idempotencyKey);
         }
+        return inserted > 0;
+    }
 
-        if (!smsProvider.isConfigured()) {
-            throw new NotificationProviderException(
-                    "Ningún proveedor de SMS está configurado. Configura Twilio o AWS SNS");
-        }
+    private String buildPaymentReminderMessage(Organization org, ReminderCandidate payment, LocalDate today) {
+        long daysUntilDue = ChronoUnit.DAYS.between(today, payment.getDueDate());
 
-        log.info("Enviando SMS usando proveedor: {}", smsProvider.getProviderName());
-        return smsProvider.sendSMS(phone, message);
-    }
+        Map<String, String> values = new HashMap<>();
+        values.put("tenantName", payment.getTenantName());
+        values.put("dueDate", payment.getDueDate().toString());
+        values.put("amount", formatAmount(payment.getTotalAmount()));
+        values.put("propertyAddress", payment.getPropertyAddress());
 
-    private String buildPaymentReminderMessage(Payment payment, Tenant tenant, Contract contract) {
-        long daysUntilDue = ChronoUnit.DAYS.between(LocalDate.now(), payment.getDueDate());
-
-        if (daysUntilDue == 3) {
-            return String.format(
-                    "Hola %s,\n\n" +
-                            "Tu pago de renta vence en 3 días (%s).\n" +
-                            "Monto: $%.2f\n" +
-                            "Propiedad: %s",
-                    tenant.getFullName(),
-                    payment.getDueDate(),
-                    payment.getTotalAmount(),
-                    contract.getProperty().getAddress()
-            );
+        NotificationTemplateType type;
+        if (daysUntilDue > 0) {
+            type = NotificationTemplateType.PAYMENT_UPCOMING;
+            values.put("daysUntilDue", String.valueOf(daysUntilDue));
         } else if (daysUntilDue == 0) {
-            return String.format(
-                    "Hola %s,\n\n" +
-                            "Tu pago de renta vence HOY (%s).\n" +
-                            "Monto: $%.2f\n" +
-                            "Por favor realiza tu pago a la brevedad.",
-                    tenant.getFullName(),
-                    payment.getDueDate(),
-                    payment.getTotalAmount()
-            );
+            type = NotificationTemplateType.PAYMENT_DUE_TODAY;
         } else { // Atrasado
-            return String.format(
-                    "Hola %s,\n\n" +
-                            "Tu pago de renta está atrasado por %d días.\n" +
-                            "Monto pendiente: $%.2f\n" +
-                            "Por favor contacta a tu administrador.",
-                    tenant.getFullName(),
-                    Math.abs(daysUntilDue),
-                    payment.getTotalAmount()
-            );
+            type = NotificationTemplateType.PAYMENT_OVERDUE;
+            values.put("daysOverdue", String.valueOf(Math.abs(daysUntilDue)));
         }
+
+        return notificationTemplateService.render(org, type, values);
+    }
+
+    private static String formatAmount(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "0.00";
     }
 
-    private void sendAdminConsolidatedReport(Organization org, List<Payment> payments, String channel) {
-        log.info("Enviando reporte consolidado al admin de organización {}", org.getId());
+    private void sendAdminConsolidatedReport(Organization org, List<ReminderCandidate> payments,
+                                             LocalDate today, String channel, LocalDateTime sendAt) {
+        log.info("Encolando reporte consolidado al admin de organización {}", org.getId());
 
         User owner = org.getOwner();
         if (owner == null || owner.getPhone() == null) {
@@ -390,41 +338,51 @@ public class NotificationServiceImpl {
         }
 
         long paymentsDueToday = payments.stream()
-                .filter(p -> p.getDueDate().isEqual(LocalDate.now()))
+                .filter(p -> p.getDueDate().isEqual(today))
                 .count();
 
         long paymentsOverdue = payments.stream()
                 .filter(p -> "ATRASADO".equals(p.getStatus()))
                 .count();
 
-        double totalDueToday = payments.stream()
-                .filter(p -> p.getDueDate().isEqual(LocalDate.now()))
-                .mapToDouble(p -> p.getTotalAmount().doubleValue())
-                .sum();
+        BigDecimal totalDueToday = payments.stream()
+                .filter(p -> p.getDueDate().isEqual(today))
+                .map(ReminderCandidate::getTotalAmount)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        double totalOverdue = payments.stream()
+        BigDecimal totalOverdue = payments.stream()
                 .filter(p -> "ATRASADO".equals(p.getStatus()))
-                .mapToDouble(p -> p.getTotalAmount().doubleValue())
-                .sum();
-
-        String message = String.format(
-                "Resumen de pagos del día:\n\n" +
-                        "- %d pagos vencen hoy: $%.2f\n" +
-                        "- %d pagos atrasados: $%.2f\n" +
-                        "Total: %d contratos requieren atención",
-                paymentsDueToday,
-                totalDueToday,
-                paymentsOverdue,
-                totalOverdue,
-                paymentsDueToday + paymentsOverdue
+                .map(ReminderCandidate::getTotalAmount)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        String message = notificationTemplateService.render(org, NotificationTemplateType.ADMIN_DIGEST, Map.of(
+                        "dueTodayCount", String.valueOf(paymentsDueToday),
+                        "dueTodayTotal", formatAmount(totalDueToday),
+                        "overdueCount", String.valueOf(paymentsOverdue),
+                        "overdueTotal", formatAmount(totalOverdue),
+                        "totalCount", String.valueOf(paymentsDueToday + paymentsOverdue)
+                ));
+
+        String idempotencyKey = Notification.adminDigestKey(org.getId(), today);
+        int inserted = notificationRepository.insertAdminDigestIfAbsent(
+                owner.getId(),
+                phone,
+                "Resumen de pagos del día",
+                message,
+                channel.equals("BOTH") ? "WHATSAPP" : channel,
+                sendAt,
+                LocalDateTime.now(),
+                idempotencyKey,
+                org.getId()
         );
 
-        try {
-            sendNotification(phone, message, channel.equals("BOTH") ? "WHATSAPP" : channel);
-            log.info("Reporte consolidado enviado al admin");
-        } catch (Exception e) {
-            log.error("Error enviando reporte consolidado: {}", e.getMessage());
+        if (inserted == 0) {
+            log.info("Reporte consolidado {} ya estaba encolado, se omite", idempotencyKey);
+            return;
         }
+        log.info("Reporte consolidado encolado para el admin");
     }
 
     private String normalizePhoneNumber(String phone) {
@@ -464,19 +422,25 @@ public class NotificationServiceImpl {
 
         Organization org = currentUser.getOrganization();
 
+        int sentThisMonth = sentThisMonth(org, LocalDate.now());
         Integer monthlyLimit = org.getMonthlyNotificationLimit();
         int remaining = monthlyLimit != null && monthlyLimit != -1
-                ? Math.max(0, monthlyLimit - org.getNotificationsSentThisMonth())
+                ? Math.max(0, monthlyLimit - sentThisMonth)
                 : -1; // -1 = ilimitado
 
         return NotificationSettingsResponse.builder()
                 .enabled(org.getNotificationEnabled())
                 .channel(org.getNotificationChannels())
                 .adminNotifications(org.getAdminDigestEnabled())
-                .sentThisMonth(org.getNotificationsSentThisMonth())
+                .sentThisMonth(sentThisMonth)
                 .monthlyLimit(monthlyLimit != null ? monthlyLimit : -1)
                 .remainingCredits(remaining)
                 .subscriptionPlan(org.getPlanCode())
+                .notificationWindowStart(sendWindowPlanner.effectiveStart(
+                        org.getNotificationWindowStart(), org.getNotificationWindowEnd()))
+                .notificationWindowEnd(sendWindowPlanner.effectiveEnd(
+                        org.getNotificationWindowStart(), org.getNotificationWindowEnd()))
+                .notificationLocale(org.getNotificationLocale())
                 .build();
     }
 
@@ -515,8 +479,20 @@ public class NotificationServiceImpl {
             org.setAdminDigestEnabled(request.getAdminNotifications());
         }
 
-        if (org.getLastNotificationReset() == null) {
-            org.setLastNotificationReset(LocalDate.now());
+        LocalTime windowStart = request.getNotificationWindowStart();
+        LocalTime windowEnd = request.getNotificationWindowEnd();
+        if (windowStart != null || windowEnd != null) {
+            if (windowStart == null || windowEnd == null || !windowStart.isBefore(windowEnd)) {
+                throw new IllegalArgumentException(
+                        "La ventana de envío requiere inicio y fin, y el inicio debe ser anterior al fin");
+            }
+            org.setNotificationWindowStart(windowStart);
+            org.setNotificationWindowEnd(windowEnd);
+        }
+
+        if (request.getNotificationLocale() != null) {
+            notificationTemplateService.validateNotificationLocale(org, request.getNotificationLocale());
+            org.setNotificationLocale(request.getNotificationLocale());
         }
 
         organizationRepository.save(org);
@@ -549,7 +525,7 @@ public class NotificationServiceImpl {
                 "Tu sistema de notificaciones está configurado correctamente.";
 
         try {
-            sendNotification(phone, message, channel);
+            notificationGateway.send(channel, phone, message);
             log.info("Notificación de prueba enviada a {}", phone);
         } catch (Exception e) {
             log.error("Error enviando notificación de prueba: {}", e.getMessage());
@@ -564,8 +540,8 @@ public class NotificationServiceImpl {
 
         UUID orgId = currentUser.getOrganization().getId();
 
-        // Obtener conteos por estado
-        Map<String, Long> statusCounts = notificationRepository.countByStatusAndOrganization(orgId).stream()
+        // Obtener conteos por estado (de notification_daily_stats)
+        Map<String, Long> statusCounts = notificationDailyStatsRepository.sumByStatus(orgId).stream()
                 .collect(Collectors.toMap(
                         arr -> (String) arr[0],
                         arr -> (Long) arr[1]
@@ -577,27 +553,26 @@ public class NotificationServiceImpl {
         int totalFailed = statusCounts.getOrDefault("FAILED", 0L).intValue();
 
         Organization org = currentUser.getOrganization();
+        LocalDate today = LocalDate.now();
 
+        int sentThisMonth = sentThisMonth(org, today);
         Integer monthlyLimit = org.getMonthlyNotificationLimit();
         int remaining = monthlyLimit != null && monthlyLimit != -1
-                ? Math.max(0, monthlyLimit - org.getNotificationsSentThisMonth())
+                ? Math.max(0, monthlyLimit - sentThisMonth)
                 : -1;
 
         // Calcular tasa de entrega
         var deliveryRate = NotificationStatsResponse.calculateDeliveryRate(totalDelivered, totalSent);
 
         // Obtener datos para gráfica (últimos 30 días)
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Object[]> chartDataRaw = notificationRepository.getChartDataByOrganization(
-                orgId, thirtyDaysAgo, LocalDateTime.now()
+        List<Object[]> chartDataRaw = notificationDailyStatsRepository.sumByDayAndStatus(
+                orgId, today.minusDays(30), today
         );
 
         List<NotificationStatsResponse.ChartData> chartData = processChartData(chartDataRaw);
 
         // Obtener últimas 10 notificaciones
-        List<Notification> recent = notificationRepository.findRecentByOrganization(orgId).stream()
-                .limit(10)
-                .collect(Collectors.toList());
+        List<Notification> recent = notificationRepository.findTop10ByOrganizationIdOrderByCreatedAtDesc(orgId);
 
         List<NotificationStatsResponse.RecentNotification> recentNotifications = recent.stream()
                 .map(n -> NotificationStatsResponse.RecentNotification.builder()
@@ -613,7 +588,7 @@ public class NotificationServiceImpl {
                 .totalSent(totalSent)
                 .totalDelivered(totalDelivered)
                 .totalFailed(totalFailed)
-                .sentThisMonth(org.getNotificationsSentThisMonth())
+                .sentThisMonth(sentThisMonth)
                 .monthlyLimit(monthlyLimit != null ? monthlyLimit : -1)
                 .remainingCredits(remaining)
                 .deliveryRate(deliveryRate)
@@ -0,0 +1,213 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.support.ThreadPools;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acumula en memoria los cambios de estado reportados por los webhooks de los proveedores
+ * y los aplica cada flush-interval-ms en un solo batch por provider_message_id (índice),
+ * en lugar de una transacción por callback.
+ *
+ * Solo se registran estados finales (DELIVERED, FAILED); si llegan varios callbacks del mismo
+ * mensaje antes del flush, gana el último. Un callback que llega antes de que el dispatcher
+ * guarde el provider_message_id no encuentra fila y se reintenta en los siguientes flushes
+ * hasta unmatched-retention-ms; uno para una fila que ya está en estado final se descarta.
+ *
+ * El flush corre siempre en un hilo propio: al llegar a max-buffered el callback solo lo
+ * despierta antes de tiempo, sin esperar el batch en el hilo HTTP.
+ */
+@Component
+@Slf4j
+public class NotificationStatusBuffer {
+
+    private static final String MARK_DELIVERED = "UPDATE notifications SET status = 'DELIVERED', delivered_at = ? " +
+            "WHERE provider_message_id = ? AND status IN ('SENDING', 'SENT')";
+    private static final String MARK_FAILED = "UPDATE notifications SET status = 'FAILED', error_message = ? " +
+            "WHERE provider_message_id = ? AND status IN ('SENDING', 'SENT')";
+
+    private record StatusUpdate(String status, String providerStatus, LocalDateTime receivedAt) {
+    }
+
+    private final ConcurrentMap<String, StatusUpdate> pending = new ConcurrentHashMap<>();
+    private final Semaphore flushRequested = new Semaphore(0);
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBuffered;
+    private final long flushIntervalMs;
+    private final long unmatchedRetentionMs;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public NotificationStatusBuffer(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${notification.webhooks.max-buffered:10000}") int maxBuffered,
+                                    @Value("${notification.webhooks.flush-interval-ms:2000}") long flushIntervalMs,
+                                    @Value("${notification.webhooks.unmatched-retention-ms:60000}") long unmatchedRetentionMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBuffered = maxBuffered;
+        this.flushIntervalMs = flushIntervalMs;
+        this.unmatchedRetentionMs = unmatchedRetentionMs;
+        this.flusher = ThreadPools.daemonThreads("notification-status-flush").newThread(this::runFlusher);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flushRequested.release();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Registra el estado reportado por el proveedor (Twilio o AWS)
+     */
+    public void record(String providerMessageId, String providerStatus) {
+        String status = mapProviderStatus(providerStatus);
+        if (status == null) {
+            return; // Estados intermedios: la fila ya está en SENT
+        }
+
+        pending.put(providerMessageId, new StatusUpdate(status, providerStatus, LocalDateTime.now()));
+
+        if (pending.size() >= maxBuffered && flushRequested.availablePermits() == 0) {
+            flushRequested.release();
+        }
+    }
+
+    /**
+     * Flush cada flush-interval-ms o en cuanto record() lo pida; al detenerse aplica lo pendiente
+     */
+    private void runFlusher() {
+        while (running) {
+            try {
+                flushRequested.tryAcquire(flushIntervalMs, TimeUnit.MILLISECONDS);
+                flushRequested.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // remove(key, value) no pierde un callback más reciente que llegue durante el flush
+        List<Map.Entry<String, StatusUpdate>> delivered = new ArrayList<>();
+        List<Map.Entry<String, StatusUpdate>> failed = new ArrayList<>();
+        for (Map.Entry<String, StatusUpdate> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                List<Map.Entry<String, StatusUpdate>> target =
+                        "DELIVERED".equals(entry.getValue().status()) ? delivered : failed;
+                target.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                int[] deliveredCounts = batchUpdate(MARK_DELIVERED, delivered.stream()
+                        .map(entry -> new Object[]{Timestamp.valueOf(entry.getValue().receivedAt()), entry.getKey()})
+                        .toList());
+                int[] failedCounts = batchUpdate(MARK_FAILED, failed.stream()
+                        .map(entry -> new Object[]{"Fallo reportado por proveedor: " + entry.getValue().providerStatus(),
+                                entry.getKey()})
+                        .toList());
+
+                List<Map.Entry<String, StatusUpdate>> unmatched = new ArrayList<>();
+                collectUnmatched(delivered, deliveredCounts, unmatched);
+                collectUnmatched(failed, failedCounts, unmatched);
+                int requeued = requeueUnknown(unmatched);
+
+                log.info("Estados de entrega aplicados: {} entregadas, {} fallidas, {} ya finales, {} sin coincidencia",
+                        delivered.size(), failed.size(), unmatched.size() - requeued, requeued);
+            });
+        } catch (Exception e) {
+            log.error("Error aplicando estados de entrega, se reintentarán: {}", e.getMessage(), e);
+            delivered.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+            failed.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private int[] batchUpdate(String sql, List<Object[]> args) {
+        return args.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private void collectUnmatched(List<Map.Entry<String, StatusUpdate>> updates, int[] counts,
+                                  List<Map.Entry<String, StatusUpdate>> unmatched) {
+        for (int i = 0; i < updates.size(); i++) {
+            if (counts[i] == 0) {
+                unmatched.add(updates.get(i));
+            }
+        }
+    }
+
+    /**
+     * De los callbacks que no actualizaron nada, vuelve a encolar solo los que aún no tienen fila
+     * (el dispatcher no ha guardado el provider_message_id) y no vencen. Los que sí tienen fila
+     * ya están en un estado final (p.ej. "read" de WhatsApp después de "delivered") y se descartan.
+     *
+     * @return callbacks sin fila
+     */
+    private int requeueUnknown(List<Map.Entry<String, StatusUpdate>> unmatched) {
+        if (unmatched.isEmpty()) {
+            return 0;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(unmatched.size(), "?"));
+        Set<String> known = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT provider_message_id FROM notifications WHERE provider_message_id IN (" + placeholders + ")",
+                String.class, unmatched.stream().map(Map.Entry::getKey).toArray()));
+
+        LocalDateTime threshold = LocalDateTime.now().minus(unmatchedRetentionMs, ChronoUnit.MILLIS);
+        int unknown = 0;
+
+        for (Map.Entry<String, StatusUpdate> entry : unmatched) {
+            if (known.contains(entry.getKey())) {
+                continue;
+            }
+            unknown++;
+            if (entry.getValue().receivedAt().isAfter(threshold)) {
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        return unknown;
+    }
+
+    private String mapProviderStatus(String providerStatus) {
+        // Mapeo de estados de Twilio y AWS a nuestros estados internos
+        return switch (providerStatus.toUpperCase()) {
+            case "DELIVERED", "DELIVERY_CONFIRMED", "READ" -> "DELIVERED";
+            case "FAILED", "UNDELIVERED" -> "FAILED";
+            default -> null;
+        };
+    }
+}
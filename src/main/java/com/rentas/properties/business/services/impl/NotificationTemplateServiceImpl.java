@@ -0,0 +1,269 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.api.dto.request.NotificationTemplateRequest;
+import com.rentas.properties.api.dto.response.NotificationTemplateResponse;
+import com.rentas.properties.api.exception.FeatureNotAvailableException;
+import com.rentas.properties.api.exception.UnauthorizedAccessException;
+import com.rentas.properties.business.services.NotificationTemplateService;
+import com.rentas.properties.business.support.CompiledTemplate;
+import com.rentas.properties.business.support.NotificationTemplateType;
+import com.rentas.properties.config.CacheConfig;
+import com.rentas.properties.dao.entity.NotificationTemplate;
+import com.rentas.properties.dao.entity.Organization;
+import com.rentas.properties.dao.entity.User;
+import com.rentas.properties.dao.repository.NotificationTemplateRepository;
+import com.rentas.properties.dao.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Plantillas de mensajes de notificación.
+ *
+ * Cada plantilla se compila una sola vez (CompiledTemplate) y el conjunto compilado de una
+ * organización e idioma se guarda en el cache notificationTemplates; las plantillas por
+ * defecto se compilan al iniciar. Al modificar una plantilla se invalida la entrada tras el commit.
+ * Los envíos usan el idioma de la organización (notification_locale) o, si no lo definió,
+ * notification.templates.default-locale. El idioma solo elige entre plantillas personalizadas:
+ * las plantillas por defecto no se traducen.
+ */
+@Service
+@Slf4j
+public class NotificationTemplateServiceImpl implements NotificationTemplateService {
+
+    private static final Map<NotificationTemplateType, CompiledTemplate> DEFAULT_TEMPLATES = compileDefaults();
+
+    private final NotificationTemplateRepository templateRepository;
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final String defaultLocale;
+    private final Set<String> supportedLocales;
+
+    public NotificationTemplateServiceImpl(NotificationTemplateRepository templateRepository,
+                                           UserRepository userRepository,
+                                           CacheManager cacheManager,
+                                           @Value("${notification.templates.default-locale:es}") String defaultLocale,
+                                           @Value("${notification.templates.supported-locales:es}") String[] supportedLocales) {
+        this.templateRepository = templateRepository;
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.defaultLocale = defaultLocale;
+        this.supportedLocales = new LinkedHashSet<>(Arrays.asList(supportedLocales));
+        this.supportedLocales.add(defaultLocale);
+    }
+
+    @Override
+    public String render(Organization organization, NotificationTemplateType type, Map<String, String> values) {
+        Map<NotificationTemplateType, CompiledTemplate> templates = organization.hasFeature("WHITE_LABEL")
+                ? getCompiledTemplates(organization.getId(), resolveLocale(null, organization))
+                : DEFAULT_TEMPLATES;
+        return templates.get(type).render(values);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationTemplateResponse> getTemplates(String locale) {
+        User currentUser = getCurrentUser();
+        validateUserHasOrganization(currentUser);
+
+        String resolvedLocale = resolveLocale(locale, currentUser.getOrganization());
+        Map<String, NotificationTemplate> custom = new HashMap<>();
+        templateRepository.findByOrganizationIdAndLocale(currentUser.getOrganization().getId(), resolvedLocale)
+                .forEach(template -> custom.put(template.getTemplateKey(), template));
+
+        List<NotificationTemplateResponse> response = new ArrayList<>();
+        for (NotificationTemplateType type : NotificationTemplateType.values()) {
+            NotificationTemplate template = custom.get(type.name());
+            response.add(toResponse(type, resolvedLocale,
+                    template != null ? template.getBody() : type.getDefaultBody(), template != null));
+        }
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public NotificationTemplateResponse updateTemplate(String templateKey, NotificationTemplateRequest request) {
+        User currentUser = getCurrentUser();
+        validateUserHasOrganization(currentUser);
+        validateUserIsAdmin(currentUser);
+        validateWhiteLabel(currentUser.getOrganization());
+
+        NotificationTemplateType type = parseType(templateKey);
+        String locale = resolveLocale(request.getLocale(), currentUser.getOrganization());
+        UUID organizationId = currentUser.getOrganization().getId();
+
+        // Se valida compilando: variables cerradas y permitidas para el tipo
+        CompiledTemplate.compile(request.getBody(), type.getVariables());
+
+        NotificationTemplate template = templateRepository
+                .findByOrganizationIdAndTemplateKeyAndLocale(organizationId, type.name(), locale)
+                .orElseGet(() -> NotificationTemplate.builder()
+                        .organizationId(organizationId)
+                        .templateKey(type.name())
+                        .locale(locale)
+                        .build());
+        template.setBody(request.getBody());
+        templateRepository.save(template);
+
+        evictAfterCommit(organizationId, locale);
+        log.info("Plantilla {} ({}) actualizada para organización {}", type, locale, organizationId);
+
+        return toResponse(type, locale, template.getBody(), true);
+    }
+
+    @Override
+    @Transactional
+    public void resetTemplate(String templateKey, String locale) {
+        User currentUser = getCurrentUser();
+        validateUserHasOrganization(currentUser);
+        validateUserIsAdmin(currentUser);
+
+        NotificationTemplateType type = parseType(templateKey);
+        String resolvedLocale = resolveLocale(locale, currentUser.getOrganization());
+        UUID organizationId = currentUser.getOrganization().getId();
+
+        templateRepository.findByOrganizationIdAndTemplateKeyAndLocale(organizationId, type.name(), resolvedLocale)
+                .ifPresent(templateRepository::delete);
+
+        evictAfterCommit(organizationId, resolvedLocale);
+        log.info("Plantilla {} ({}) restablecida para organización {}", type, resolvedLocale, organizationId);
+    }
+
+    @Override
+    public void validateNotificationLocale(Organization organization, String locale) {
+        validateWhiteLabel(organization);
+        validateSupportedLocale(locale);
+    }
+
+    private Map<NotificationTemplateType, CompiledTemplate> getCompiledTemplates(UUID organizationId, String locale) {
+        Cache cache = cacheManager.getCache(CacheConfig.NOTIFICATION_TEMPLATES_CACHE);
+        if (cache == null) {
+            return compileForOrganization(organizationId, locale);
+        }
+        return cache.get(cacheKey(organizationId, locale), () -> compileForOrganization(organizationId, locale));
+    }
+
+    private Map<NotificationTemplateType, CompiledTemplate> compileForOrganization(UUID organizationId, String locale) {
+        Map<NotificationTemplateType, CompiledTemplate> templates = new EnumMap<>(DEFAULT_TEMPLATES);
+
+        for (NotificationTemplate template : templateRepository.findByOrganizationIdAndLocale(organizationId, locale)) {
+            try {
+                NotificationTemplateType type = NotificationTemplateType.valueOf(template.getTemplateKey());
+                templates.put(type, CompiledTemplate.compile(template.getBody(), type.getVariables()));
+            } catch (IllegalArgumentException e) {
+                // Una plantilla inválida no debe bloquear los envíos: se usa la de por defecto
+                log.warn("Plantilla {} inválida para organización {}, se usa la de por defecto: {}",
+                        template.getTemplateKey(), organizationId, e.getMessage());
+            }
+        }
+        return templates;
+    }
+
+    private void evictAfterCommit(UUID organizationId, String locale) {
+        Cache cache = cacheManager.getCache(CacheConfig.NOTIFICATION_TEMPLATES_CACHE);
+        if (cache == null) {
+            return;
+        }
+
+        String key = cacheKey(organizationId, locale);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(key);
+                }
+            });
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private static String cacheKey(UUID organizationId, String locale) {
+        return organizationId + ":" + locale;
+    }
+
+    private static Map<NotificationTemplateType, CompiledTemplate> compileDefaults() {
+        Map<NotificationTemplateType, CompiledTemplate> defaults = new EnumMap<>(NotificationTemplateType.class);
+        for (NotificationTemplateType type : NotificationTemplateType.values()) {
+            defaults.put(type, CompiledTemplate.compile(type.getDefaultBody(), type.getVariables()));
+        }
+        return Collections.unmodifiableMap(defaults);
+    }
+
+    private NotificationTemplateType parseType(String templateKey) {
+        try {
+            return NotificationTemplateType.valueOf(templateKey.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de plantilla no válido: " + templateKey
+                    + ". Tipos disponibles: " + Arrays.toString(NotificationTemplateType.values()));
+        }
+    }
+
+    /**
+     * Idioma pedido; si no se indica, el de la organización y luego el idioma por defecto
+     */
+    private String resolveLocale(String locale, Organization org) {
+        if (locale != null && !locale.isBlank()) {
+            validateSupportedLocale(locale);
+            return locale;
+        }
+        return org.getNotificationLocale() != null ? org.getNotificationLocale() : defaultLocale;
+    }
+
+    private void validateSupportedLocale(String locale) {
+        if (!supportedLocales.contains(locale)) {
+            throw new IllegalArgumentException("Idioma no soportado: " + locale
+                    + ". Idiomas disponibles: " + supportedLocales);
+        }
+    }
+
+    private NotificationTemplateResponse toResponse(NotificationTemplateType type, String locale,
+                                                    String body, boolean custom) {
+        return NotificationTemplateResponse.builder()
+                .templateKey(type.name())
+                .locale(locale)
+                .body(body)
+                .custom(custom)
+                .variables(type.getVariables().stream().sorted().toList())
+                .build();
+    }
+
+    private void validateWhiteLabel(Organization org) {
+        if (!org.hasFeature("WHITE_LABEL")) {
+            throw new FeatureNotAvailableException(
+                    "Tu plan " + org.getPlanCode() + " no permite personalizar los mensajes. " +
+                            "Por favor, mejora tu plan para habilitar esta funcionalidad."
+            );
+        }
+    }
+
+    private User getCurrentUser() {
+        String email = ((UserDetails) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal()).getUsername();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UnauthorizedAccessException("Usuario no autenticado"));
+    }
+
+    private void validateUserHasOrganization(User user) {
+        if (user.getOrganization() == null) {
+            throw new UnauthorizedAccessException(
+                    "Debes pertenecer a una organización para realizar esta acción");
+        }
+    }
+
+    private void validateUserIsAdmin(User user) {
+        if (!"ADMIN".equals(user.getRole())) {
+            throw new UnauthorizedAccessException(
+                    "Solo usuarios ADMIN pueden modificar las plantillas de notificaciones");
+        }
+    }
+}
@@ -197,6 +197,26 @@ public class OrganizationServiceImpl implements OrganizationService {
             organization.setCodeIsReusable(request.getCodeIsReusable());
         }
 
+        if (request.getLateFeeEnabled() != null) {
+            organization.setLateFeeEnabled(request.getLateFeeEnabled());
+        }
+
+        if (request.getLateFeeGraceDays() != null) {
+            organization.setLateFeeGraceDays(request.getLateFeeGraceDays());
+        }
+
+        if (request.getLateFeeDailyAmount() != null) {
+            organization.setLateFeeDailyAmount(request.getLateFeeDailyAmount());
+        }
+
+        if (request.getLateFeeMonthlyRate() != null) {
+            organization.setLateFeeMonthlyRate(request.getLateFeeMonthlyRate());
+        }
+
+        if (request.getLateFeeMaxRate() != null) {
+            organization.setLateFeeMaxRate(request.getLateFeeMaxRate());
+        }
+
         if ("ADMIN".equals(currentUser.getRole())) {
             if (request.getMaxUsers() != null) {
                 log.warn("Intento de cambiar maxUsers manualmente. Use OrganizationPlanService para cambiar planes.");
@@ -558,6 +578,11 @@ public class OrganizationServiceImpl implements OrganizationService {
                 .subscriptionEndsAt(organization.getSubscriptionEndsAt())
                 .daysUntilTrialEnds(organization.getDaysUntilTrialEnds())
                 .daysUntilSubscriptionEnds(organization.getDaysUntilSubscriptionEnds())
+                .lateFeeEnabled(organization.getLateFeeEnabled())
+                .lateFeeGraceDays(organization.getLateFeeGraceDays())
+                .lateFeeDailyAmount(organization.getLateFeeDailyAmount())
+                .lateFeeMonthlyRate(organization.getLateFeeMonthlyRate())
+                .lateFeeMaxRate(organization.getLateFeeMaxRate())
                 .isActive(organization.getIsActive())
                 .createdAt(organization.getCreatedAt())
                 .updatedAt(organization.getUpdatedAt())
@@ -0,0 +1,261 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
+import com.rentas.properties.dao.entity.Contract;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Mantiene materializados los pagos de cada contrato activo hasta horizon-months adelante.
+ *
+ * Al crear un contrato se insertan en un solo batch JDBC el adelanto, las rentas dentro del
+ * horizonte y el depósito pendiente. El job nocturno bloquea (SKIP LOCKED) bloques de
+ * batch-size contratos activos cuyo horizonte (payments_generated_through) quedó a menos de
+ * un mes del objetivo, inserta las rentas faltantes y avanza el horizonte. Cada inserción
+ * verifica que el periodo no exista ya (INSERT ... WHERE NOT EXISTS), así pagos generados
+ * antes o capturados a mano no se duplican.
+ *
+ * La renta del mes i vence en startDate + i meses (el mes 0 lo cubre el adelanto) y se genera
+ * solo mientras venza antes de endDate.
+ */
+@Component
+@Slf4j
+public class PaymentScheduleGenerator {
+
+    private static final String INSERT_PAYMENT_IF_ABSENT = "INSERT INTO payments (contract_id, organization_id, " +
+            "payment_type, payment_date, due_date, period_month, period_year, amount, late_fee, total_amount, status) " +
+            "SELECT ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM payments WHERE contract_id = ? AND payment_type = ? " +
+            "AND period_year = ? AND period_month = ?)";
+
+    private static final String LOCK_SHORT_HORIZON = "SELECT id, organization_id, start_date, end_date, " +
+            "monthly_rent, water_fee, payments_generated_through " +
+            "FROM contracts " +
+            "WHERE status = 'ACTIVO' " +
+            "AND (payments_generated_through IS NULL OR payments_generated_through < LEAST(end_date, ?)) " +
+            "ORDER BY payments_generated_through NULLS FIRST " +
+            "LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private static final String UPDATE_HORIZON = "UPDATE contracts SET payments_generated_through = ? WHERE id = ?";
+
+    private record ScheduledPayment(UUID contractId, UUID organizationId, String paymentType,
+                                    LocalDate paymentDate, LocalDate dueDate,
+                                    YearMonth period, BigDecimal amount, String status) {
+    }
+
+    private record ContractHorizon(UUID id, UUID organizationId, LocalDate startDate, LocalDate endDate,
+                                   BigDecimal monthlyRent, BigDecimal waterFee, LocalDate generatedThrough) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonMonths;
+    private final int batchSize;
+
+    public PaymentScheduleGenerator(JdbcTemplate jdbcTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${payments.schedule.horizon-months:12}") int horizonMonths,
+                                    @Value("${payments.schedule.batch-size:500}") int batchSize) {
+        if (horizonMonths < 1) {
+            throw new IllegalArgumentException("payments.schedule.horizon-months debe ser al menos 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonMonths = horizonMonths;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Genera los pagos de un contrato recién creado dentro de la transacción actual.
+     * El contrato ya debe estar escrito en la base (flush) porque los pagos se insertan por JDBC.
+     *
+     * @return periodos de los pagos generados, para el evento de pagos cambiados del llamador
+     */
+    public Set<YearMonth> generateInitialSchedule(Contract contract) {
+        UUID organizationId = contract.getOrganization().getId();
+        LocalDate startDate = contract.getStartDate();
+        LocalDate through = horizonEnd(contract.getEndDate(), LocalDate.now());
+        List<ScheduledPayment> payments = new ArrayList<>();
+
+        // Pago de adelanto (primer mes); se considera pagado al firmar
+        if (isPositive(contract.getAdvancePayment())) {
+            payments.add(new ScheduledPayment(contract.getId(), organizationId, "ADELANTO", startDate, startDate,
+                    YearMonth.from(startDate), contract.getAdvancePayment(), "PAGADO"));
+        }
+
+        payments.addAll(rentPayments(contract.getId(), organizationId, startDate, contract.getEndDate(),
+                contract.getMonthlyRent(), contract.getWaterFee(), null, through));
+
+        // Pago del depósito (si no está pagado)
+        if (!Boolean.TRUE.equals(contract.getDepositPaid()) && isPositive(contract.getDepositAmount())) {
+            LocalDate deadline = contract.getDepositPaymentDeadline() != null
+                    ? contract.getDepositPaymentDeadline()
+                    : startDate;
+            payments.add(new ScheduledPayment(contract.getId(), organizationId, "DEPOSITO", startDate, deadline,
+                    YearMonth.from(startDate), contract.getDepositAmount(), "PENDIENTE"));
+        }
+
+        insert(payments);
+        contract.setPaymentsGeneratedThrough(through);
+
+        log.info("Pagos automáticos generados para contrato {}: {} pagos hasta {}",
+                contract.getId(), payments.size(), through);
+
+        Set<YearMonth> periods = new HashSet<>();
+        payments.forEach(payment -> periods.add(payment.period()));
+        return periods;
+    }
+
+    /**
+     * Extiende el horizonte de todos los contratos activos que lo tengan corto
+     *
+     * @return pagos de renta insertados
+     */
+    public int extendHorizons(LocalDate today) {
+        int contracts = 0;
+        int inserted = 0;
+        int[] batch;
+
+        do {
+            batch = transactionTemplate.execute(status -> extendBatch(today));
+            if (batch == null) {
+                break;
+            }
+            contracts += batch[0];
+            inserted += batch[1];
+        } while (batch[0] >= batchSize);
+
+        log.info("Horizonte de pagos extendido: {} contratos, {} pagos de renta generados", contracts, inserted);
+        return inserted;
+    }
+
+    /**
+     * @return [contratos procesados, pagos insertados]
+     */
+    private int[] extendBatch(LocalDate today) {
+        // Se extienden los que quedaron a menos de un mes del horizonte objetivo
+        LocalDate refreshBefore = today.plusMonths(horizonMonths - 1L);
+
+        List<ContractHorizon> contracts = jdbcTemplate.query(LOCK_SHORT_HORIZON,
+                (rs, rowNum) -> new ContractHorizon(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("organization_id", UUID.class),
+                        rs.getObject("start_date", LocalDate.class),
+                        rs.getObject("end_date", LocalDate.class),
+                        rs.getBigDecimal("monthly_rent"),
+                        rs.getBigDecimal("water_fee"),
+                        rs.getObject("payments_generated_through", LocalDate.class)),
+                Date.valueOf(refreshBefore), batchSize);
+
+        if (contracts.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        List<ScheduledPayment> payments = new ArrayList<>();
+        List<Object[]> horizons = new ArrayList<>(contracts.size());
+        Map<UUID, Set<YearMonth>> periodsByOrganization = new HashMap<>();
+
+        for (ContractHorizon contract : contracts) {
+            LocalDate through = horizonEnd(contract.endDate(), today);
+            List<ScheduledPayment> missing = rentPayments(contract.id(), contract.organizationId(), contract.startDate(), contract.endDate(),
+                    contract.monthlyRent(), contract.waterFee(), contract.generatedThrough(), through);
+
+            payments.addAll(missing);
+            horizons.add(new Object[]{Date.valueOf(through), contract.id()});
+            missing.forEach(payment -> periodsByOrganization
+                    .computeIfAbsent(contract.organizationId(), id -> new HashSet<>())
+                    .add(payment.period()));
+        }
+
+        int inserted = insert(payments);
+        jdbcTemplate.batchUpdate(UPDATE_HORIZON, horizons);
+
+        periodsByOrganization.forEach((organizationId, periods) -> eventPublisher.publishEvent(
+                OrganizationDataChangedEvent.paymentsChanged(organizationId, periods)));
+
+        return new int[]{contracts.size(), inserted};
+    }
+
+    /**
+     * Rentas con vencimiento después de generatedAfter (o del inicio) y hasta through, antes de endDate
+     */
+    private List<ScheduledPayment> rentPayments(UUID contractId, UUID organizationId,
+                                                LocalDate startDate, LocalDate endDate,
+                                                BigDecimal monthlyRent, BigDecimal waterFee,
+                                                LocalDate generatedAfter, LocalDate through) {
+        BigDecimal amount = monthlyRent.add(waterFee != null ? waterFee : BigDecimal.ZERO);
+        List<ScheduledPayment> payments = new ArrayList<>();
+
+        for (int month = 1; ; month++) {
+            LocalDate dueDate = startDate.plusMonths(month);
+            if (!dueDate.isBefore(endDate) || dueDate.isAfter(through)) {
+                break;
+            }
+            if (generatedAfter == null || dueDate.isAfter(generatedAfter)) {
+                payments.add(new ScheduledPayment(contractId, organizationId, "RENTA", dueDate, dueDate,
+                        YearMonth.from(dueDate), amount, "PENDIENTE"));
+            }
+        }
+        return payments;
+    }
+
+    private static boolean isPositive(BigDecimal amount) {
+        return amount != null && amount.compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    private LocalDate horizonEnd(LocalDate endDate, LocalDate today) {
+        LocalDate horizon = today.plusMonths(horizonMonths);
+        return endDate.isBefore(horizon) ? endDate : horizon;
+    }
+
+    /**
+     * Inserta en batches JDBC de batch-size filas, omitiendo periodos ya existentes
+     *
+     * @return filas insertadas
+     */
+    private int insert(List<ScheduledPayment> payments) {
+        if (payments.isEmpty()) {
+            return 0;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_PAYMENT_IF_ABSENT, payments, batchSize, (ps, payment) -> {
+            ps.setObject(1, payment.contractId());
+            ps.setObject(2, payment.organizationId());
+            ps.setString(3, payment.paymentType());
+            ps.setDate(4, Date.valueOf(payment.paymentDate()));
+            ps.setDate(5, Date.valueOf(payment.dueDate()));
+            ps.setInt(6, payment.period().getMonthValue());
+            ps.setInt(7, payment.period().getYear());
+            ps.setBigDecimal(8, payment.amount());
+            ps.setBigDecimal(9, payment.amount());
+            ps.setString(10, payment.status());
+            ps.setObject(11, payment.contractId());
+            ps.setString(12, payment.paymentType());
+            ps.setInt(13, payment.period().getYear());
+            ps.setInt(14, payment.period().getMonthValue());
+        });
+
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted += count > 0 ? count : 0;
+            }
+        }
+        return inserted;
+    }
+}
@@ -4,19 +4,27 @@ import com.rentas.properties.api.dto.request.AddLateFeeRequest;
 import com.rentas.properties.api.dto.request.CreatePaymentRequest;
 import com.rentas.properties.api.dto.request.MarkAsPaidRequest;
 import com.rentas.properties.api.dto.request.UpdatePaymentRequest;
+import com.rentas.properties.api.dto.response.LateFeeRunResponse;
 import com.rentas.properties.api.dto.response.PaymentDetailResponse;
+import com.rentas.properties.api.dto.response.PaymentPageResponse;
 import com.rentas.properties.api.dto.response.PaymentResponse;
 import com.rentas.properties.api.dto.response.PaymentSummaryResponse;
 import com.rentas.properties.api.exception.*;
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
 import com.rentas.properties.business.services.PaymentService;
+import com.rentas.properties.business.support.LateFeeRules;
+import com.rentas.properties.business.support.PaymentCursor;
+import com.rentas.properties.business.support.SingleFlight;
 import com.rentas.properties.dao.entity.Contract;
 import com.rentas.properties.dao.entity.Payment;
 import com.rentas.properties.dao.entity.User;
 import com.rentas.properties.dao.repository.ContractRepository;
+import com.rentas.properties.dao.repository.NotificationRepository;
 import com.rentas.properties.dao.repository.PaymentRepository;
 import com.rentas.properties.dao.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -26,9 +34,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,10 +51,17 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final ContractRepository contractRepository;
+    private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
+    private final LateFeeEngine lateFeeEngine;
 
-    private static final BigDecimal LATE_FEE_PERCENTAGE = new BigDecimal("0.05"); // 5% por mes
-    private static final BigDecimal DAILY_LATE_FEE = new BigDecimal("10.00"); // $10 por día
+    private static final Set<String> PAYMENT_STATUSES = Set.of("PENDIENTE", "PAGADO", "ATRASADO", "PARCIAL");
+    private static final Set<String> PAYMENT_TYPES = Set.of("RENTA", "AGUA", "DEPOSITO", "ADELANTO");
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final LocalDate FIRST_PAGE_DUE_DATE = LocalDate.of(1900, 1, 1);
+    private static final UUID FIRST_PAGE_ID = new UUID(0L, 0L);
 
     @Override
     @Transactional
@@ -63,6 +83,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         Payment payment = Payment.builder()
                 .contract(contract)
+                .organizationId(contract.getOrganization().getId())
                 .paymentType(request.getPaymentType())
                 .paymentDate(request.getPaymentDate())
                 .dueDate(request.getDueDate())
@@ -77,6 +98,9 @@ public class PaymentServiceImpl implements PaymentService {
         Payment savedPayment = paymentRepository.save(payment);
         log.info("Pago creado exitosamente con ID: {}", savedPayment.getId());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.paymentsChanged(
+                contract.getOrganization().getId(), List.of(periodOf(savedPayment))));
+
         return mapToDetailResponse(savedPayment);
     }
 
@@ -158,10 +182,11 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         // Si el pago está atrasado y no tiene recargo, calcularlo automáticamente
-        if (payment.getDueDate().isBefore(LocalDate.now()) && 
+        LateFeeRules lateFeeRules = LateFeeRules.of(currentUser.getOrganization());
+        if (lateFeeRules.appliesTo(payment.getDueDate(), LocalDate.now()) &&
             payment.getLateFee().compareTo(BigDecimal.ZERO) == 0) {
             
-            BigDecimal autoLateFee = calculateLateFeeForPayment(payment);
+            BigDecimal autoLateFee = calculateLateFeeForPayment(payment, lateFeeRules);
             payment.setLateFee(autoLateFee);
             payment.setTotalAmount(payment.getAmount().add(autoLateFee));
             log.info("Recargo automático calculado: ${}", autoLateFee);
@@ -181,6 +206,15 @@ public class PaymentServiceImpl implements PaymentService {
         Payment updatedPayment = paymentRepository.save(payment);
         log.info("Pago marcado como PAGADO exitosamente");
 
+        // Recordatorios encolados para más tarde en el día ya no aplican
+        int cancelledReminders = notificationRepository.cancelPendingRemindersByPayment(id);
+        if (cancelledReminders > 0) {
+            log.info("Se cancelaron {} recordatorios pendientes del pago {}", cancelledReminders, id);
+        }
+
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.paymentsChanged(
+                currentUser.getOrganization().getId(), List.of(periodOf(updatedPayment))));
+
         return mapToDetailResponse(updatedPayment);
     }
 
@@ -205,7 +239,7 @@ public class PaymentServiceImpl implements PaymentService {
         
         if (request.isAutoCalculate()) {
             // Calcular recargo automáticamente
-            newLateFee = calculateLateFeeForPayment(payment);
+            newLateFee = calculateLateFeeForPayment(payment, LateFeeRules.of(currentUser.getOrganization()));
             log.info("Recargo calculado automáticamente: ${}", newLateFee);
         } else {
             // Usar monto manual
@@ -226,41 +260,32 @@ public class PaymentServiceImpl implements PaymentService {
         Payment updatedPayment = paymentRepository.save(payment);
         log.info("Recargo agregado exitosamente. Nuevo total: ${}", updatedPayment.getTotalAmount());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.paymentsChanged(
+                currentUser.getOrganization().getId(), List.of(periodOf(updatedPayment))));
+
         return mapToDetailResponse(updatedPayment);
     }
 
+    /**
+     * Sin transacción propia: LateFeeEngine confirma cada bloque por separado
+     */
     @Override
-    @Transactional
-    public int calculateAutomaticLateFees() {
+    public LateFeeRunResponse calculateAutomaticLateFees() {
         log.info("Calculando recargos automáticos para pagos atrasados");
 
         User currentUser = getCurrentUser();
         validateUserHasOrganization(currentUser);
 
-        UUID organizationId = currentUser.getOrganization().getId();
+        LocalDate today = LocalDate.now();
+        LateFeeEngine.Result result = lateFeeEngine.applyForOrganization(currentUser.getOrganization().getId(), today);
 
-        // Obtener pagos atrasados que no estén pagados
-        List<Payment> overduePayments = paymentRepository.findOverduePayments(LocalDate.now()).stream()
-                .filter(p -> p.getContract().getOrganization().getId().equals(organizationId))
-                .filter(p -> !"PAGADO".equals(p.getStatus()))
-                .collect(Collectors.toList());
+        log.info("Recargos automáticos aplicados a {} pagos", result.paymentsUpdated());
 
-        int count = 0;
-        for (Payment payment : overduePayments) {
-            // Solo aplicar si no tiene recargo o si el recargo es antiguo
-            if (payment.getLateFee().compareTo(BigDecimal.ZERO) == 0) {
-                BigDecimal lateFee = calculateLateFeeForPayment(payment);
-                payment.setLateFee(lateFee);
-                payment.setTotalAmount(payment.getAmount().add(lateFee));
-                payment.setStatus("ATRASADO");
-                paymentRepository.save(payment);
-                count++;
-                log.debug("Recargo aplicado al pago {}: ${}", payment.getId(), lateFee);
-            }
-        }
-
-        log.info("Recargos automáticos aplicados a {} pagos", count);
-        return count;
+        return LateFeeRunResponse.builder()
+                .runDate(today)
+                .paymentsUpdated(result.paymentsUpdated())
+                .totalLateFees(result.totalLateFees())
+                .build();
     }
 
     @Override
@@ -325,9 +350,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         UUID organizationId = currentUser.getOrganization().getId();
 
-        List<Payment> payments = paymentRepository.findOverduePayments(LocalDate.now()).stream()
-                .filter(p -> p.getContract().getOrganization().getId().equals(organizationId))
-                .collect(Collectors.toList());
+        List<Payment> payments = paymentRepository.findOverduePaymentsByOrganization(organizationId, LocalDate.now());
 
         return payments.stream()
                 .map(this::mapToResponse)
@@ -344,9 +367,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         UUID organizationId = currentUser.getOrganization().getId();
 
-        List<Payment> payments = paymentRepository.findPaymentsDueToday(LocalDate.now()).stream()
-                .filter(p -> p.getContract().getOrganization().getId().equals(organizationId))
-                .collect(Collectors.toList());
+        List<Payment> payments = paymentRepository.findPaymentsDueTodayByOrganization(organizationId, LocalDate.now());
 
         return payments.stream()
                 .map(this::mapToResponse)
@@ -355,30 +376,67 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<PaymentResponse> getPaymentsByPeriod(int year, int month) {
-        log.info("Obteniendo pagos del periodo {}/{}", month, year);
+    public PaymentPageResponse getPaymentsByPeriod(int year, int month, String status, String paymentType,
+                                                   String cursor, int size) {
+        log.info("Obteniendo pagos del periodo {}/{} (estado: {}, tipo: {})", month, year, status, paymentType);
 
         // Validar mes
         if (month < 1 || month > 12) {
             throw new IllegalArgumentException("El mes debe estar entre 1 y 12");
         }
+        if (status != null && !PAYMENT_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Estado no válido: " + status + ". Estados disponibles: " + PAYMENT_STATUSES);
+        }
+        if (paymentType != null && !PAYMENT_TYPES.contains(paymentType)) {
+            throw new IllegalArgumentException("Tipo de pago no válido: " + paymentType + ". Tipos disponibles: " + PAYMENT_TYPES);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
 
         User currentUser = getCurrentUser();
         validateUserHasOrganization(currentUser);
 
         UUID organizationId = currentUser.getOrganization().getId();
 
-        List<Payment> payments = paymentRepository.findByPeriodYearAndPeriodMonth(year, month).stream()
-                .filter(p -> p.getContract().getOrganization().getId().equals(organizationId))
-                .collect(Collectors.toList());
+        // Llave (dueDate, id) del último pago de la página anterior
+        LocalDate afterDueDate = FIRST_PAGE_DUE_DATE;
+        UUID afterId = FIRST_PAGE_ID;
+        if (cursor != null && !cursor.isBlank()) {
+            PaymentCursor after = PaymentCursor.decode(cursor);
+            afterDueDate = after.dueDate();
+            afterId = after.id();
+        }
 
-        return payments.stream()
+        // Se pide uno extra para saber si hay más páginas
+        List<UUID> ids = paymentRepository.findPeriodPageIds(organizationId, year, month, status, paymentType,
+                afterDueDate, afterId, size + 1);
+        boolean hasMore = ids.size() > size;
+        List<UUID> pageIds = hasMore ? ids.subList(0, size) : ids;
+
+        Map<UUID, Payment> byId = paymentRepository.findWithContractAndPropertyByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Payment::getId, Function.identity()));
+        List<PaymentResponse> items = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore && !items.isEmpty()) {
+            PaymentResponse last = items.get(items.size() - 1);
+            nextCursor = new PaymentCursor(last.getDueDate(), last.getId()).encode();
+        }
+
+        return PaymentPageResponse.builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public PaymentSummaryResponse getPaymentsSummary() {
         log.info("Obteniendo resumen de pagos");
 
@@ -387,6 +445,12 @@ public class PaymentServiceImpl implements PaymentService {
 
         UUID organizationId = currentUser.getOrganization().getId();
 
+        // Llamadas concurrentes de la misma organización comparten un único cálculo
+        return singleFlight.executeReadOnly("paymentsSummary", organizationId,
+                () -> buildPaymentsSummary(organizationId));
+    }
+
+    private PaymentSummaryResponse buildPaymentsSummary(UUID organizationId) {
         List<Payment> allPayments = paymentRepository.findByOrganizationId(organizationId);
 
         long totalPayments = allPayments.size();
@@ -457,12 +521,16 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
+    private YearMonth periodOf(Payment payment) {
+        return YearMonth.of(payment.getPeriodYear(), payment.getPeriodMonth());
+    }
+
     private void validateUserCanAccessPayment(User user, Payment payment) {
         if (user.getOrganization() == null) {
             throw new UnauthorizedAccessException("No perteneces a ninguna organización");
         }
 
-        if (!payment.getContract().getOrganization().getId().equals(user.getOrganization().getId())) {
+        if (!payment.getOrganizationId().equals(user.getOrganization().getId())) {
             log.warn("Usuario {} intentó acceder al pago {} de otra organización",
                     user.getId(), payment.getId());
             throw new UnauthorizedAccessException(
@@ -486,34 +554,12 @@ public class PaymentServiceImpl implements PaymentService {
      * Fórmula: Días de atraso * tarifa diaria
      * O: Porcentaje sobre el monto base
      */
-    private BigDecimal calculateLateFeeForPayment(Payment payment) {
-        if (!payment.getDueDate().isBefore(LocalDate.now())) {
-            return BigDecimal.ZERO;
-        }
-
-        long daysOverdue = ChronoUnit.DAYS.between(payment.getDueDate(), LocalDate.now());
-
-        // Opción 1: Recargo fijo por día
-        BigDecimal dailyFee = DAILY_LATE_FEE.multiply(BigDecimal.valueOf(daysOverdue));
-
-        // Opción 2: Porcentaje sobre el monto (calculado mensualmente)
-        long monthsOverdue = daysOverdue / 30;
-        BigDecimal percentageFee = payment.getAmount()
-                .multiply(LATE_FEE_PERCENTAGE)
-                .multiply(BigDecimal.valueOf(monthsOverdue > 0 ? monthsOverdue : 1));
-
-        // Usar el mayor de los dos
-        BigDecimal lateFee = dailyFee.max(percentageFee);
-
-        // Limitar el recargo a un máximo (ej: 50% del monto original)
-        BigDecimal maxLateFee = payment.getAmount().multiply(new BigDecimal("0.50"));
-        
-        if (lateFee.compareTo(maxLateFee) > 0) {
-            lateFee = maxLateFee;
-        }
+    private BigDecimal calculateLateFeeForPayment(Payment payment, LateFeeRules rules) {
+        LocalDate today = LocalDate.now();
+        BigDecimal lateFee = rules.calculate(payment.getAmount(), payment.getDueDate(), today);
 
-        log.debug("Recargo calculado para pago {}: ${} ({} días de atraso)", 
-                payment.getId(), lateFee, daysOverdue);
+        log.debug("Recargo calculado para pago {}: ${} ({} días de atraso)",
+                payment.getId(), lateFee, ChronoUnit.DAYS.between(payment.getDueDate(), today));
 
         return lateFee;
     }
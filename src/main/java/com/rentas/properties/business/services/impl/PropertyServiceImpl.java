@@ -6,6 +6,8 @@ import com.rentas.properties.api.dto.response.PropertyDetailResponse;
 import com.rentas.properties.api.dto.response.PropertyResponse;
 import com.rentas.properties.api.exception.*;
 import com.rentas.properties.business.services.CloudinaryService;
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
 import com.rentas.properties.business.services.PropertyService;
 import com.rentas.properties.dao.entity.*;
 import com.rentas.properties.dao.repository.ContractRepository;
@@ -15,6 +17,7 @@ import com.rentas.properties.dao.repository.PropertyRepository;
 import com.rentas.properties.dao.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -36,6 +39,7 @@ public class PropertyServiceImpl implements PropertyService {
     private final OrganizationRepository organizationRepository;
     private final ContractRepository contractRepository;
     private final CloudinaryService cloudinaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -120,6 +124,8 @@ public class PropertyServiceImpl implements PropertyService {
         log.info("Propiedad creada exitosamente con ID: {} - Contador de organización: {}/{}",
                 savedProperty.getId(), organization.getCurrentPropertiesCount(), organization.getSubscriptionPlan().getMaxProperties());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(organization.getId(), DashboardSection.PROPERTIES));
+
         return mapToDetailResponse(savedProperty);
     }
 
@@ -291,6 +297,9 @@ public class PropertyServiceImpl implements PropertyService {
         Property updatedProperty = propertyRepository.save(property);
         log.info("Propiedad actualizada exitosamente: {}", updatedProperty.getPropertyCode());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                property.getOrganization().getId(), DashboardSection.PROPERTIES));
+
         return mapToDetailResponse(updatedProperty);
     }
 
@@ -330,6 +339,9 @@ public class PropertyServiceImpl implements PropertyService {
 
         propertyRepository.delete(property);
         log.info("Propiedad eliminada exitosamente: {}", id);
+
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                organization.getId(), DashboardSection.PROPERTIES, DashboardSection.MAINTENANCE));
     }
 
     @Override
@@ -0,0 +1,216 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.support.ThreadPools;
+import com.rentas.properties.dao.entity.ReminderJobShard;
+import com.rentas.properties.dao.projection.ReminderCandidate;
+import com.rentas.properties.dao.repository.OrganizationRepository;
+import com.rentas.properties.dao.repository.ReminderJobShardRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reparte el job diario de recordatorios entre nodos.
+ *
+ * Cada ejecución crea shard_count filas en reminder_job_shards; cada organización pertenece
+ * al shard floorMod(id.hashCode(), shard_count). Los nodos reclaman shards con
+ * FOR UPDATE SKIP LOCKED y un lease que renuevan mientras procesan sus organizaciones en
+ * paralelo. Si un nodo cae, su lease vence y otro nodo retoma el shard.
+ *
+ * Los pagos candidatos se consultan por bloques de candidate-chunk-size organizaciones
+ * (una consulta por bloque, no varias por organización).
+ */
+@Component
+@Slf4j
+public class ReminderJobCoordinator {
+
+    private final ReminderJobShardRepository shardRepository;
+    private final OrganizationRepository organizationRepository;
+    private final NotificationServiceImpl notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService leaseRenewer;
+    private final String nodeId;
+    private final int shardCount;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final int candidateChunkSize;
+
+    public ReminderJobCoordinator(ReminderJobShardRepository shardRepository,
+                                  OrganizationRepository organizationRepository,
+                                  NotificationServiceImpl notificationService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${notification.reminders.node-id:}") String nodeId,
+                                  @Value("${notification.reminders.shard-count:8}") int shardCount,
+                                  @Value("${notification.reminders.threads:2}") int threads,
+                                  @Value("${notification.reminders.lease-ms:120000}") long leaseMs,
+                                  @Value("${notification.reminders.max-attempts:3}") int maxAttempts,
+                                  @Value("${notification.reminders.candidate-chunk-size:200}") int candidateChunkSize) {
+        this.shardRepository = shardRepository;
+        this.organizationRepository = organizationRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId != null && !nodeId.isBlank() ? nodeId : defaultNodeId();
+        this.shardCount = shardCount;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.candidateChunkSize = candidateChunkSize;
+
+        this.workers = ThreadPools.fixed("reminder-shard", threads, 100,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(ThreadPools.daemonThreads("reminder-lease-renewer"));
+    }
+
+    /**
+     * Crea los shards de la ejecución del día (idempotente entre nodos)
+     */
+    public void startRun(LocalDate runDate) {
+        Integer created = transactionTemplate.execute(status -> shardRepository.createShards(runDate, shardCount));
+        log.info("Ejecución de recordatorios {}: {} shards creados por nodo {}", runDate, created, nodeId);
+    }
+
+    /**
+     * Reclama y procesa shards de la ejecución hasta que no quede ninguno disponible
+     *
+     * @return número de shards procesados por este nodo
+     */
+    public int processAvailableShards(LocalDate runDate) {
+        int processed = 0;
+
+        ReminderJobShard shard;
+        while ((shard = claimNext(runDate)) != null) {
+            processShard(shard);
+            processed++;
+        }
+
+        if (processed > 0) {
+            log.info("Nodo {} procesó {} shards de recordatorios de {}", nodeId, processed, runDate);
+        }
+        return processed;
+    }
+
+    private ReminderJobShard claimNext(LocalDate runDate) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<UUID> ids = shardRepository.lockClaimable(runDate, now);
+            if (ids.isEmpty()) {
+                return null;
+            }
+
+            UUID id = ids.get(0);
+            shardRepository.claim(id, nodeId, now.plus(leaseMs, ChronoUnit.MILLIS), now);
+            return shardRepository.findById(id).orElse(null);
+        });
+    }
+
+    private void processShard(ReminderJobShard shard) {
+        if (shard.getAttempts() > maxAttempts) {
+            log.error("Shard {} de {} agotó {} intentos, se marca FAILED",
+                    shard.getShardId(), shard.getRunDate(), maxAttempts);
+            finish(shard, "FAILED", 0, "Máximo de intentos alcanzado");
+            return;
+        }
+
+        log.info("Nodo {} procesando shard {}/{} de {} (intento {})", nodeId, shard.getShardId(),
+                shard.getShardCount(), shard.getRunDate(), shard.getAttempts());
+
+        AtomicBoolean leaseLost = new AtomicBoolean();
+        long renewEvery = Math.max(1000, leaseMs / 3);
+        ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(
+                () -> renewLease(shard, leaseLost), renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        try {
+            // El número de shards se toma de la fila para que todos los nodos repartan igual
+            List<UUID> organizationIds = organizationRepository.findIdsWithNotificationsEnabled().stream()
+                    .filter(id -> Math.floorMod(id.hashCode(), shard.getShardCount()) == shard.getShardId())
+                    .toList();
+
+            LocalDate runDate = shard.getRunDate();
+
+            for (int from = 0; from < organizationIds.size() && !leaseLost.get(); from += candidateChunkSize) {
+                List<UUID> chunk = organizationIds.subList(from, Math.min(from + candidateChunkSize, organizationIds.size()));
+                Map<UUID, List<ReminderCandidate>> candidates = notificationService.findReminderCandidates(chunk, runDate);
+
+                CompletableFuture<?>[] tasks = chunk.stream()
+                        .map(organizationId -> CompletableFuture.runAsync(() -> {
+                            if (leaseLost.get()) {
+                                return;
+                            }
+                            try {
+                                notificationService.processOrganization(organizationId, runDate,
+                                        candidates.getOrDefault(organizationId, List.of()));
+                                processed.incrementAndGet();
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                                log.error("Error procesando notificaciones para organización {}: {}",
+                                        organizationId, e.getMessage(), e);
+                            }
+                        }, workers))
+                        .toArray(CompletableFuture[]::new);
+                CompletableFuture.allOf(tasks).join();
+            }
+        } finally {
+            renewal.cancel(false);
+        }
+
+        if (leaseLost.get()) {
+            log.warn("Nodo {} perdió el lease del shard {} de {}; lo terminará otro nodo",
+                    nodeId, shard.getShardId(), shard.getRunDate());
+            return;
+        }
+
+        finish(shard, "DONE", processed.get(),
+                failed.get() > 0 ? failed.get() + " organizaciones con error" : null);
+    }
+
+    private void renewLease(ReminderJobShard shard, AtomicBoolean leaseLost) {
+        try {
+            Integer renewed = transactionTemplate.execute(status -> shardRepository.renewLease(
+                    shard.getId(), nodeId, LocalDateTime.now().plus(leaseMs, ChronoUnit.MILLIS)));
+            if (renewed == null || renewed == 0) {
+                leaseLost.set(true);
+            }
+        } catch (Exception e) {
+            // Un fallo puntual no pierde el lease; si persiste, el lease vence y otro nodo retoma el shard
+            log.warn("No se pudo renovar el lease del shard {}: {}", shard.getShardId(), e.getMessage());
+        }
+    }
+
+    private void finish(ReminderJobShard shard, String status, int processed, String lastError) {
+        transactionTemplate.executeWithoutResult(tx -> shardRepository.finish(
+                shard.getId(), nodeId, status, processed, lastError, LocalDateTime.now()));
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+        ThreadPools.shutdown(workers);
+    }
+}
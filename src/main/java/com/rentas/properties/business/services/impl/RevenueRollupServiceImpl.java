@@ -0,0 +1,40 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.services.RevenueRollupService;
+import com.rentas.properties.dao.repository.RevenueRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    private final RevenueRollupRepository revenueRollupRepository;
+
+    @Override
+    @Transactional
+    public void refreshPeriods(UUID organizationId, Collection<YearMonth> periods) {
+        revenueRollupRepository.lockOrganization(organizationId);
+        for (YearMonth period : periods) {
+            revenueRollupRepository.upsertPeriod(organizationId, period.getYear(), period.getMonthValue());
+            revenueRollupRepository.deleteEmptyGroups(organizationId, period.getYear(), period.getMonthValue());
+        }
+        log.debug("Rollup de ingresos actualizado para organización {}: {}", organizationId, periods);
+    }
+
+    @Override
+    @Transactional
+    public void refreshOrganization(UUID organizationId) {
+        revenueRollupRepository.lockOrganization(organizationId);
+        int groups = revenueRollupRepository.upsertOrganization(organizationId);
+        revenueRollupRepository.deleteEmptyGroupsForOrganization(organizationId);
+        log.debug("Rollup de ingresos recalculado para organización {} ({} grupos)", organizationId, groups);
+    }
+}
@@ -0,0 +1,150 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
+import com.rentas.properties.dao.entity.JobCheckpoint;
+import com.rentas.properties.dao.repository.ContractRepository;
+import com.rentas.properties.dao.repository.JobCheckpointRepository;
+import com.rentas.properties.dao.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Transiciones de estado por fecha: pagos PENDIENTE vencidos pasan a ATRASADO y contratos
+ * ACTIVO cuya fecha de fin ya pasó pasan a VENCIDO.
+ *
+ * Cada job recorre su tabla en orden de id (keyset) por bloques de batch-size; cada bloque va
+ * en una transacción que bloquea el checkpoint del día, marca los registros, publica los
+ * cambios para el dashboard y guarda el último id. Si el nodo cae, la siguiente ejecución
+ * continúa desde el checkpoint; si corren dos nodos, avanzan por turnos.
+ */
+@Component
+@Slf4j
+public class StatusTransitionJob {
+
+    public static final String OVERDUE_PAYMENTS_JOB = "payments-overdue";
+    public static final String EXPIRED_CONTRACTS_JOB = "contracts-expired";
+
+    private static final UUID FIRST_KEY = new UUID(0L, 0L);
+
+    private final PaymentRepository paymentRepository;
+    private final ContractRepository contractRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public StatusTransitionJob(PaymentRepository paymentRepository,
+                               ContractRepository contractRepository,
+                               JobCheckpointRepository checkpointRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${status-transitions.batch-size:500}") int batchSize) {
+        this.paymentRepository = paymentRepository;
+        this.contractRepository = contractRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Retoma las ejecuciones del día que quedaron a medias (nodo caído o reiniciado)
+     */
+    public void resumeInterrupted(LocalDate today) {
+        if (checkpointRepository.existsByJobNameAndRunDateAndStatus(OVERDUE_PAYMENTS_JOB, today, "RUNNING")) {
+            markOverduePayments(today);
+        }
+        if (checkpointRepository.existsByJobNameAndRunDateAndStatus(EXPIRED_CONTRACTS_JOB, today, "RUNNING")) {
+            markExpiredContracts(today);
+        }
+    }
+
+    /**
+     * @return pagos marcados ATRASADO en esta llamada
+     */
+    public int markOverduePayments(LocalDate today) {
+        return run(OVERDUE_PAYMENTS_JOB, today, afterId -> {
+            List<UUID> ids = paymentRepository.lockOverdueBatch(today, afterId, batchSize);
+            if (ids.isEmpty()) {
+                return ids;
+            }
+
+            Map<UUID, Set<YearMonth>> periodsByOrganization = new HashMap<>();
+            for (Object[] row : paymentRepository.markOverdue(ids)) {
+                periodsByOrganization.computeIfAbsent((UUID) row[0], id -> new HashSet<>())
+                        .add(YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
+            }
+            periodsByOrganization.forEach((organizationId, periods) -> eventPublisher.publishEvent(
+                    OrganizationDataChangedEvent.paymentsChanged(organizationId, periods)));
+            return ids;
+        });
+    }
+
+    /**
+     * @return contratos marcados VENCIDO en esta llamada
+     */
+    public int markExpiredContracts(LocalDate today) {
+        return run(EXPIRED_CONTRACTS_JOB, today, afterId -> {
+            List<UUID> ids = contractRepository.lockExpiredBatch(today, afterId, batchSize);
+            if (ids.isEmpty()) {
+                return ids;
+            }
+
+            for (UUID organizationId : contractRepository.markExpired(ids)) {
+                eventPublisher.publishEvent(OrganizationDataChangedEvent.of(organizationId, DashboardSection.CONTRACTS));
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Procesa bloques desde el checkpoint hasta que un bloque salga incompleto
+     *
+     * @param batch marca el bloque siguiente a la llave indicada y devuelve sus ids en orden
+     */
+    private int run(String jobName, LocalDate runDate, Function<UUID, List<UUID>> batch) {
+        transactionTemplate.executeWithoutResult(tx -> checkpointRepository.createIfAbsent(jobName, runDate));
+
+        int processed = 0;
+        Integer batchCount;
+        do {
+            batchCount = transactionTemplate.execute(tx -> {
+                JobCheckpoint checkpoint = checkpointRepository.findForUpdate(jobName, runDate).orElse(null);
+                if (checkpoint == null || "DONE".equals(checkpoint.getStatus())) {
+                    return null;
+                }
+
+                List<UUID> ids = batch.apply(checkpoint.getLastId() != null ? checkpoint.getLastId() : FIRST_KEY);
+
+                LocalDateTime now = LocalDateTime.now();
+                if (!ids.isEmpty()) {
+                    checkpoint.setLastId(ids.get(ids.size() - 1));
+                    checkpoint.setProcessedCount(checkpoint.getProcessedCount() + ids.size());
+                }
+                if (ids.size() < batchSize) {
+                    checkpoint.setStatus("DONE");
+                    checkpoint.setFinishedAt(now);
+                }
+                checkpoint.setUpdatedAt(now);
+                return ids.size();
+            });
+            processed += batchCount != null ? batchCount : 0;
+        } while (batchCount != null && batchCount >= batchSize);
+
+        if (processed > 0) {
+            log.info("Job {} del {}: {} registros procesados", jobName, runDate, processed);
+        }
+        return processed;
+    }
+}
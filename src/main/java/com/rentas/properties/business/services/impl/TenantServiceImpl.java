@@ -9,6 +9,8 @@ import com.rentas.properties.api.exception.TenantHasActiveContractsException;
 import com.rentas.properties.api.exception.TenantNotFoundException;
 import com.rentas.properties.api.exception.UnauthorizedAccessException;
 import com.rentas.properties.business.services.CloudinaryService;
+import com.rentas.properties.business.events.DashboardSection;
+import com.rentas.properties.business.events.OrganizationDataChangedEvent;
 import com.rentas.properties.business.services.TenantService;
 import com.rentas.properties.dao.entity.Organization;
 import com.rentas.properties.dao.entity.Tenant;
@@ -17,6 +19,7 @@ import com.rentas.properties.dao.repository.TenantRepository;
 import com.rentas.properties.dao.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -34,6 +37,7 @@ public class TenantServiceImpl implements TenantService {
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -79,6 +83,8 @@ public class TenantServiceImpl implements TenantService {
         Tenant savedTenant = tenantRepository.save(tenant);
         log.info("Arrendatario creado exitosamente con ID: {}", savedTenant.getId());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(organization.getId(), DashboardSection.TENANTS));
+
         return mapToDetailResponse(savedTenant);
     }
 
@@ -178,6 +184,9 @@ public class TenantServiceImpl implements TenantService {
         Tenant updatedTenant = tenantRepository.save(tenant);
         log.info("Arrendatario actualizado exitosamente: {}", updatedTenant.getFullName());
 
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                tenant.getOrganization().getId(), DashboardSection.TENANTS));
+
         return mapToDetailResponse(updatedTenant);
     }
 
@@ -215,6 +224,9 @@ public class TenantServiceImpl implements TenantService {
         tenantRepository.save(tenant);
 
         log.info("Arrendatario desactivado exitosamente: {}", id);
+
+        eventPublisher.publishEvent(OrganizationDataChangedEvent.of(
+                tenant.getOrganization().getId(), DashboardSection.TENANTS));
     }
 
     @Override
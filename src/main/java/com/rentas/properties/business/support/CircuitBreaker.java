@@ -0,0 +1,85 @@
+package com.rentas.properties.business.support;
+
+/**
+ * Circuit breaker por fallos consecutivos.
+ *
+ * CLOSED: las llamadas pasan; tras failureThreshold fallos seguidos pasa a OPEN.
+ * OPEN: las llamadas se rechazan sin intentarse durante openMillis.
+ * HALF_OPEN: se deja pasar una sola llamada de prueba; si funciona vuelve a CLOSED,
+ * si falla vuelve a OPEN.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold <= 0 || openMillis <= 0) {
+            throw new IllegalArgumentException("El umbral y el tiempo abierto del circuit breaker deben ser mayores a cero");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Indica si la llamada puede intentarse. En HALF_OPEN solo la primera obtiene permiso.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Devuelve el permiso de una llamada que no llegó a ejecutarse (ej. limitada por tasa)
+     */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Estado actual, sin consumir la llamada de prueba
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
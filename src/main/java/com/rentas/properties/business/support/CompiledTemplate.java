@@ -0,0 +1,74 @@
+package com.rentas.properties.business.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plantilla de mensaje ya analizada.
+ *
+ * El texto se divide una sola vez en segmentos literales y variables ({{nombre}}); renderizar
+ * solo concatena los segmentos sobre un StringBuilder, sin volver a analizar ni usar
+ * String.format. Una variable sin valor se renderiza vacía.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;   // literals[i] va antes de variables[i]; el último cierra
+    private final String[] variables;
+    private final int estimatedLength;
+
+    private CompiledTemplate(List<String> literals, List<String> variables, int estimatedLength) {
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        this.estimatedLength = estimatedLength;
+    }
+
+    /**
+     * Analiza la plantilla validando que solo use las variables permitidas
+     *
+     * @throws IllegalArgumentException si una variable no está cerrada o no está permitida
+     */
+    public static CompiledTemplate compile(String body, Set<String> allowedVariables) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = body.indexOf(OPEN, position)) >= 0) {
+            int close = body.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Variable sin cerrar en la plantilla, posición " + open);
+            }
+
+            String variable = body.substring(open + OPEN.length(), close).trim();
+            if (!allowedVariables.contains(variable)) {
+                throw new IllegalArgumentException("Variable no permitida en la plantilla: " + variable
+                        + ". Variables disponibles: " + allowedVariables);
+            }
+
+            literals.add(body.substring(position, open));
+            variables.add(variable);
+            position = close + CLOSE.length();
+        }
+        literals.add(body.substring(position));
+
+        return new CompiledTemplate(literals, variables, body.length() + variables.size() * 16);
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder message = new StringBuilder(estimatedLength);
+        for (int i = 0; i < variables.length; i++) {
+            message.append(literals[i]);
+            String value = values.get(variables[i]);
+            if (value != null) {
+                message.append(value);
+            }
+        }
+        message.append(literals[literals.length - 1]);
+        return message.toString();
+    }
+}
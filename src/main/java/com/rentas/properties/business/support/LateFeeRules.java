@@ -0,0 +1,74 @@
+package com.rentas.properties.business.support;
+
+import com.rentas.properties.dao.entity.Organization;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Reglas de recargo por mora de una organización.
+ *
+ * Recargo = mayor entre (cuota diaria x días de atraso) y (tasa mensual x monto x meses de
+ * atraso, mínimo 1), limitado a tasa máxima x monto. PaymentRepository.applyLateFees aplica
+ * la misma fórmula en SQL; si cambia aquí debe cambiar allá (PaymentRepositoryLateFeeTest
+ * compara ambas).
+ */
+public final class LateFeeRules {
+
+    private static final int DAYS_PER_MONTH = 30;
+
+    private final boolean enabled;
+    private final int graceDays;
+    private final BigDecimal dailyAmount;
+    private final BigDecimal monthlyRate;
+    private final BigDecimal maxRate;
+
+    private LateFeeRules(boolean enabled, int graceDays, BigDecimal dailyAmount,
+                         BigDecimal monthlyRate, BigDecimal maxRate) {
+        this.enabled = enabled;
+        this.graceDays = graceDays;
+        this.dailyAmount = dailyAmount;
+        this.monthlyRate = monthlyRate;
+        this.maxRate = maxRate;
+    }
+
+    public static LateFeeRules of(Organization organization) {
+        return new LateFeeRules(
+                Boolean.TRUE.equals(organization.getLateFeeEnabled()),
+                organization.getLateFeeGraceDays() != null ? organization.getLateFeeGraceDays() : 0,
+                orZero(organization.getLateFeeDailyAmount()),
+                orZero(organization.getLateFeeMonthlyRate()),
+                orZero(organization.getLateFeeMaxRate()));
+    }
+
+    /**
+     * Indica si el recargo automático aplica: reglas habilitadas y pasados los días de gracia
+     */
+    public boolean appliesTo(LocalDate dueDate, LocalDate today) {
+        return enabled && dueDate.plusDays(graceDays).isBefore(today);
+    }
+
+    /**
+     * Recargo para un pago con vencimiento dueDate a la fecha today (0 si no está vencido)
+     */
+    public BigDecimal calculate(BigDecimal amount, LocalDate dueDate, LocalDate today) {
+        long daysOverdue = ChronoUnit.DAYS.between(dueDate, today);
+        if (daysOverdue <= 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal dailyFee = dailyAmount.multiply(BigDecimal.valueOf(daysOverdue));
+        BigDecimal percentageFee = amount.multiply(monthlyRate)
+                .multiply(BigDecimal.valueOf(Math.max(1, daysOverdue / DAYS_PER_MONTH)));
+
+        return dailyFee.max(percentageFee)
+                .min(amount.multiply(maxRate))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,53 @@
+package com.rentas.properties.business.support;
+
+import java.util.Set;
+
+/**
+ * Tipos de mensaje con plantilla, su texto por defecto (es) y las variables que admiten
+ */
+public enum NotificationTemplateType {
+
+    PAYMENT_UPCOMING(
+            "Hola {{tenantName}},\n\n" +
+                    "Tu pago de renta vence en {{daysUntilDue}} días ({{dueDate}}).\n" +
+                    "Monto: ${{amount}}\n" +
+                    "Propiedad: {{propertyAddress}}",
+            Set.of("tenantName", "dueDate", "amount", "propertyAddress", "daysUntilDue")),
+
+    PAYMENT_DUE_TODAY(
+            "Hola {{tenantName}},\n\n" +
+                    "Tu pago de renta vence HOY ({{dueDate}}).\n" +
+                    "Monto: ${{amount}}\n" +
+                    "Por favor realiza tu pago a la brevedad.",
+            Set.of("tenantName", "dueDate", "amount", "propertyAddress")),
+
+    PAYMENT_OVERDUE(
+            "Hola {{tenantName}},\n\n" +
+                    "Tu pago de renta está atrasado por {{daysOverdue}} días.\n" +
+                    "Monto pendiente: ${{amount}}\n" +
+                    "Por favor contacta a tu administrador.",
+            Set.of("tenantName", "dueDate", "amount", "propertyAddress", "daysOverdue")),
+
+    ADMIN_DIGEST(
+            "Resumen de pagos del día:\n\n" +
+                    "- {{dueTodayCount}} pagos vencen hoy: ${{dueTodayTotal}}\n" +
+                    "- {{overdueCount}} pagos atrasados: ${{overdueTotal}}\n" +
+                    "Total: {{totalCount}} contratos requieren atención",
+            Set.of("dueTodayCount", "dueTodayTotal", "overdueCount", "overdueTotal", "totalCount"));
+
+    private final String defaultBody;
+    private final Set<String> variables;
+
+    NotificationTemplateType(String defaultBody, Set<String> variables) {
+        this.defaultBody = defaultBody;
+        this.variables = variables;
+    }
+
+    public String getDefaultBody() {
+        return defaultBody;
+    }
+
+    public Set<String> getVariables() {
+        return variables;
+    }
+}
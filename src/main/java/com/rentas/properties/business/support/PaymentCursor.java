@@ -0,0 +1,33 @@
+package com.rentas.properties.business.support;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor opaco de la paginación de pagos por periodo: la llave (dueDate, id) del último pago
+ * de la página anterior, codificada en Base64 URL-safe.
+ */
+public record PaymentCursor(LocalDate dueDate, UUID id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((dueDate + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no fue generado por encode
+     */
+    public static PaymentCursor decode(String cursor) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (key.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new PaymentCursor(LocalDate.parse(key[0]), UUID.fromString(key[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
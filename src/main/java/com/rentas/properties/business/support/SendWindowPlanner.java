@@ -0,0 +1,120 @@
+package com.rentas.properties.business.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reparte los recordatorios del día dentro de la ventana de envío de cada organización.
+ *
+ * Las n notificaciones de una organización quedan espaciadas de forma uniforme en la ventana,
+ * desplazadas por una fase derivada del ID de la organización para que las que tienen pocos
+ * recordatorios no coincidan todas al inicio. El dispatcher solo reclama filas con
+ * next_attempt_at vencido, así que la tabla notifications funciona como cola por franjas.
+ *
+ * Métricas por franja de bucket-minutes (etiqueta bucket = "HH:mm" de inicio de la franja):
+ * notification.window.scheduled{bucket} y notification.window.dispatched{bucket, result}
+ */
+@Component
+public class SendWindowPlanner {
+
+    private final LocalTime defaultStart;
+    private final LocalTime defaultEnd;
+    private final int bucketMinutes;
+    private final MeterRegistry meterRegistry;
+
+    public SendWindowPlanner(@Value("${notification.window.default-start:08:00}") String defaultStart,
+                             @Value("${notification.window.default-end:18:00}") String defaultEnd,
+                             @Value("${notification.window.bucket-minutes:15}") int bucketMinutes,
+                             MeterRegistry meterRegistry) {
+        this.defaultStart = LocalTime.parse(defaultStart);
+        this.defaultEnd = LocalTime.parse(defaultEnd);
+        if (!this.defaultStart.isBefore(this.defaultEnd) || bucketMinutes <= 0) {
+            throw new IllegalArgumentException("Ventana de envío por defecto inválida");
+        }
+        this.bucketMinutes = bucketMinutes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Horarios de envío para count notificaciones de una organización en el día indicado.
+     * Si la ventana ya empezó se reparte lo que queda de ella; si ya terminó, se envían de inmediato.
+     *
+     * @param windowStart inicio configurado por la organización (NULL = por defecto)
+     * @param windowEnd   fin configurado por la organización (NULL = por defecto)
+     */
+    public List<LocalDateTime> plan(UUID organizationId, LocalTime windowStart, LocalTime windowEnd,
+                                    LocalDate day, LocalDateTime now, int count) {
+        List<LocalDateTime> slots = new ArrayList<>(count);
+        if (count <= 0) {
+            return slots;
+        }
+
+        LocalDateTime start = day.atTime(effectiveStart(windowStart, windowEnd));
+        LocalDateTime end = day.atTime(effectiveEnd(windowStart, windowEnd));
+        if (start.isBefore(now)) {
+            start = now;
+        }
+
+        long windowMillis = start.isBefore(end) ? Duration.between(start, end).toMillis() : 0;
+        double phase = (organizationId.hashCode() & 0x7fffffff) / (double) Integer.MAX_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            LocalDateTime slot = start.plus((long) (windowMillis * ((i + phase) / count)), ChronoUnit.MILLIS);
+            slots.add(slot);
+            counter("notification.window.scheduled", bucketOf(slot)).increment();
+        }
+        return slots;
+    }
+
+    /**
+     * Primer horario disponible de la ventana (para envíos únicos como el resumen del admin)
+     */
+    public LocalDateTime windowStart(LocalTime windowStart, LocalTime windowEnd, LocalDate day, LocalDateTime now) {
+        LocalDateTime start = day.atTime(effectiveStart(windowStart, windowEnd));
+        return start.isBefore(now) ? now : start;
+    }
+
+    public LocalTime effectiveStart(LocalTime windowStart, LocalTime windowEnd) {
+        return windowStart != null && windowEnd != null ? windowStart : defaultStart;
+    }
+
+    public LocalTime effectiveEnd(LocalTime windowStart, LocalTime windowEnd) {
+        return windowStart != null && windowEnd != null ? windowEnd : defaultEnd;
+    }
+
+    /**
+     * Registra un envío en la franja actual
+     *
+     * @param result sent, deferred o failed
+     */
+    public void recordDispatched(String result) {
+        Counter.builder("notification.window.dispatched")
+                .tag("bucket", bucketOf(LocalDateTime.now()))
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private String bucketOf(LocalDateTime time) {
+        int minuteOfDay = time.getHour() * 60 + time.getMinute();
+        int bucketStart = minuteOfDay - minuteOfDay % bucketMinutes;
+        return String.format("%02d:%02d", bucketStart / 60, bucketStart % 60);
+    }
+
+    private Counter counter(String name, String bucket) {
+        return Counter.builder(name)
+                .tag("bucket", bucket)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.rentas.properties.business.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de lecturas costosas ("single-flight").
+ *
+ * Las llamadas concurrentes con la misma operación y clave (normalmente la organización)
+ * comparten un único cálculo en curso: la primera lo ejecuta y las demás esperan su
+ * resultado. Al terminar, la entrada se libera y la siguiente llamada vuelve a calcular,
+ * por lo que no actúa como cache.
+ *
+ * Métrica: singleflight.calls{operation, result=executed|coalesced}
+ */
+@Component
+@Slf4j
+public class SingleFlight {
+
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SingleFlight(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Ejecuta (o se une a) el cálculo en curso para la operación y clave dadas
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> supplier) {
+        FlightKey flightKey = new FlightKey(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+
+        if (existing != null) {
+            counter(operation, "coalesced").increment();
+            log.debug("Llamada coalescida a {} para {}", operation, key);
+            return (T) await(existing);
+        }
+
+        counter(operation, "executed").increment();
+        try {
+            T result = supplier.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Igual que {@link #execute}, pero el cálculo corre en una transacción de solo lectura
+     * abierta por quien lo ejecuta; los que esperan no ocupan conexión.
+     */
+    public <T> T executeReadOnly(String operation, Object key, Supplier<T> supplier) {
+        return execute(operation, key, () -> readOnlyTransaction.execute(status -> supplier.get()));
+    }
+
+    private Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String operation, String result) {
+        return Counter.builder("singleflight.calls")
+                .description("Llamadas a lecturas coalescidas por organización")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record FlightKey(String operation, Object key) {
+    }
+}
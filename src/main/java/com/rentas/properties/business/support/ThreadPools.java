@@ -0,0 +1,65 @@
+package com.rentas.properties.business.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pools de hilos propios de los servicios (dashboard, notificaciones, recordatorios).
+ *
+ * Todos son de tamaño fijo con cola acotada y hilos daemon con nombre "prefijo-N", para que
+ * se identifiquen en los thread dumps y no impidan que la JVM termine. El servicio dueño del
+ * pool lo cierra en su @PreDestroy con shutdown(), que deja terminar las tareas en curso.
+ */
+@Slf4j
+public final class ThreadPools {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private ThreadPools() {
+    }
+
+    /**
+     * Pool fijo de threads hilos; con la cola llena aplica whenFull
+     * (p.ej. CallerRunsPolicy para frenar al productor, AbortPolicy para rechazar)
+     */
+    public static ThreadPoolExecutor fixed(String namePrefix, int threads, int queueCapacity,
+                                           RejectedExecutionHandler whenFull) {
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), daemonThreads(namePrefix), whenFull);
+    }
+
+    /**
+     * Hilos daemon llamados namePrefix-1, namePrefix-2...
+     */
+    public static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Deja de aceptar tareas y espera brevemente las que están en curso; las que no terminan se interrumpen
+     */
+    public static void shutdown(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Pool de hilos sin terminar tras {} s, se interrumpen sus tareas", SHUTDOWN_TIMEOUT_SECONDS);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.rentas.properties.business.support;
+
+/**
+ * Token bucket para limitar la tasa de llamadas a un recurso externo.
+ *
+ * Se recarga a ratePerSecond tokens por segundo hasta burst. Cada llamada reserva un token;
+ * si no hay, se le indica cuánto esperar. Las reservas pueden dejar el saldo en negativo,
+ * así las esperas de llamadas concurrentes se escalonan en lugar de coincidir.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double nanosPerToken;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("La tasa y la ráfaga del token bucket deben ser mayores a cero");
+        }
+        this.capacity = burst;
+        this.nanosPerToken = 1_000_000_000d / ratePerSecond;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserva un token
+     *
+     * @param maxWaitNanos espera máxima aceptable
+     * @return nanosegundos a esperar antes de usar el token (0 si es inmediato),
+     *         o -1 si la espera excede maxWaitNanos (en ese caso no se reserva nada)
+     */
+    public synchronized long reserve(long maxWaitNanos) {
+        refill(System.nanoTime());
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        long waitNanos = (long) Math.ceil((1 - tokens) * nanosPerToken);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed / nanosPerToken);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rentas.properties.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de cache en memoria
+ *
+ * El CacheManager (Caffeine) lo crea Spring Boot a partir de spring.cache.*:
+ * tamaño máximo, expiración y registro de estadísticas. Con recordStats
+ * habilitado, Actuator publica cache.gets (result=hit/miss), cache.puts y
+ * cache.evictions en /actuator/metrics.
+ *
+ * spring.cache.caffeine.spec aplica a los caches de spring.cache.cache-names; el de
+ * plantillas de notificación se registra aparte con su propia especificación.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * DashboardResponse por organización, invalidado tras cada commit que cambia sus datos
+     */
+    public static final String DASHBOARD_CACHE = "dashboard";
+
+    /**
+     * Plantillas de notificación compiladas por organización e idioma, invalidadas al modificarlas
+     */
+    public static final String NOTIFICATION_TEMPLATES_CACHE = "notificationTemplates";
+
+    /**
+     * Las plantillas cambian rara vez y se invalidan al modificarlas: la expiración solo acota
+     * cuánto tarda en verse un cambio hecho en otra instancia
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> notificationTemplatesCacheCustomizer(
+            @Value("${notification.templates.cache-spec:maximumSize=5000,expireAfterWrite=15m,recordStats}") String spec) {
+        return cacheManager -> cacheManager.registerCustomCache(NOTIFICATION_TEMPLATES_CACHE,
+                Caffeine.from(spec).build());
+    }
+}
@@ -107,6 +107,10 @@ public class Contract extends BaseEntity {
     @Builder.Default
     private String status = "ACTIVO"; // ACTIVO, VENCIDO, RENOVADO, CANCELADO
 
+    // Fecha hasta la que ya existen los pagos de RENTA (ver PaymentScheduleGenerator)
+    @Column(name = "payments_generated_through")
+    private LocalDate paymentsGeneratedThrough;
+
     // Documentos
     @Column(name = "contract_document_url", columnDefinition = "TEXT")
     private String contractDocumentUrl;
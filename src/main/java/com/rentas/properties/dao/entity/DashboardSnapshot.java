@@ -0,0 +1,189 @@
+package com.rentas.properties.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad DashboardSnapshot - Contadores precalculados del dashboard por organización
+ * Se mantiene al día en la misma transacción que modifica los datos de origen
+ */
+@Entity
+@Table(name = "dashboard_snapshot")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSnapshot {
+
+    @Id
+    @Column(name = "organization_id", updatable = false, nullable = false)
+    private UUID organizationId;
+
+    // Propiedades
+    @Builder.Default
+    @Column(name = "properties_total", nullable = false)
+    private Integer propertiesTotal = 0;
+
+    @Builder.Default
+    @Column(name = "properties_available", nullable = false)
+    private Integer propertiesAvailable = 0;
+
+    @Builder.Default
+    @Column(name = "properties_rented", nullable = false)
+    private Integer propertiesRented = 0;
+
+    @Builder.Default
+    @Column(name = "properties_maintenance", nullable = false)
+    private Integer propertiesMaintenance = 0;
+
+    // Inquilinos
+    @Builder.Default
+    @Column(name = "tenants_total", nullable = false)
+    private Integer tenantsTotal = 0;
+
+    @Builder.Default
+    @Column(name = "occupants_total", nullable = false)
+    private Integer occupantsTotal = 0;
+
+    // Contratos
+    @Builder.Default
+    @Column(name = "contracts_total", nullable = false)
+    private Integer contractsTotal = 0;
+
+    @Builder.Default
+    @Column(name = "contracts_active", nullable = false)
+    private Integer contractsActive = 0;
+
+    @Builder.Default
+    @Column(name = "contracts_expired", nullable = false)
+    private Integer contractsExpired = 0;
+
+    @Builder.Default
+    @Column(name = "contracts_renewed", nullable = false)
+    private Integer contractsRenewed = 0;
+
+    @Builder.Default
+    @Column(name = "contracts_canceled", nullable = false)
+    private Integer contractsCanceled = 0;
+
+    @Builder.Default
+    @Column(name = "contracts_expiring_soon", nullable = false)
+    private Integer contractsExpiringSoon = 0;
+
+    @Builder.Default
+    @Column(name = "pending_deposits_count", nullable = false)
+    private Integer pendingDepositsCount = 0;
+
+    @Builder.Default
+    @Column(name = "pending_deposits_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal pendingDepositsAmount = BigDecimal.ZERO;
+
+    // Pagos
+    @Builder.Default
+    @Column(name = "payments_total", nullable = false)
+    private Integer paymentsTotal = 0;
+
+    @Builder.Default
+    @Column(name = "payments_pending", nullable = false)
+    private Integer paymentsPending = 0;
+
+    @Builder.Default
+    @Column(name = "payments_paid", nullable = false)
+    private Integer paymentsPaid = 0;
+
+    @Builder.Default
+    @Column(name = "payments_overdue", nullable = false)
+    private Integer paymentsOverdue = 0;
+
+    @Builder.Default
+    @Column(name = "payments_total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paymentsTotalAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "payments_paid_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paymentsPaidAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "payments_pending_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paymentsPendingAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "payments_overdue_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paymentsOverdueAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "payments_due_today", nullable = false)
+    private Integer paymentsDueToday = 0;
+
+    @Builder.Default
+    @Column(name = "payments_due_this_week", nullable = false)
+    private Integer paymentsDueThisWeek = 0;
+
+    @Builder.Default
+    @Column(name = "monthly_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal monthlyRevenue = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "yearly_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal yearlyRevenue = BigDecimal.ZERO;
+
+    // Mantenimiento
+    @Builder.Default
+    @Column(name = "maintenance_total", nullable = false)
+    private Integer maintenanceTotal = 0;
+
+    @Builder.Default
+    @Column(name = "maintenance_pending", nullable = false)
+    private Integer maintenancePending = 0;
+
+    @Builder.Default
+    @Column(name = "maintenance_in_progress", nullable = false)
+    private Integer maintenanceInProgress = 0;
+
+    @Builder.Default
+    @Column(name = "maintenance_completed", nullable = false)
+    private Integer maintenanceCompleted = 0;
+
+    @Builder.Default
+    @Column(name = "maintenance_preventive", nullable = false)
+    private Integer maintenancePreventive = 0;
+
+    @Builder.Default
+    @Column(name = "maintenance_corrective", nullable = false)
+    private Integer maintenanceCorrective = 0;
+
+    @Builder.Default
+    @Column(name = "maintenance_emergency", nullable = false)
+    private Integer maintenanceEmergency = 0;
+
+    @Builder.Default
+    @Column(name = "maintenance_estimated_costs", nullable = false, precision = 14, scale = 2)
+    private BigDecimal maintenanceEstimatedCosts = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "maintenance_actual_costs", nullable = false, precision = 14, scale = 2)
+    private BigDecimal maintenanceActualCosts = BigDecimal.ZERO;
+
+    // Día con el que se calcularon los contadores relativos a la fecha
+    @Column(name = "computed_on", nullable = false)
+    private LocalDate computedOn;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isStale(LocalDate today) {
+        return computedOn == null || !computedOn.isEqual(today);
+    }
+}
@@ -0,0 +1,54 @@
+package com.rentas.properties.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad JobCheckpoint - Avance de un job por bloques en una fecha de ejecución
+ * lastId es la llave del último registro procesado; el siguiente bloque empieza después de ella
+ */
+@Entity
+@Table(name = "job_checkpoints",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_job_checkpoints_run",
+                columnNames = {"job_name", "run_date"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // RUNNING, DONE
+
+    @Column(name = "last_id")
+    private UUID lastId;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
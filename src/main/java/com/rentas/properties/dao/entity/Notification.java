@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.GenericGenerator;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -24,6 +25,9 @@ public class Notification {
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
+    @Column(name = "organization_id")
+    private UUID organizationId; // Para estadísticas (notification_daily_stats) y consultas por organización
+
     @Column(name = "recipient_type", nullable = false, length = 50)
     private String recipientType; // TENANT, USER
 
@@ -46,7 +50,7 @@ public class Notification {
     private String channel; // SMS, WHATSAPP, EMAIL
 
     @Column(name = "status", length = 50)
-    private String status; // PENDING, SENT, FAILED, DELIVERED
+    private String status; // PENDING, SENDING, SENT, FAILED, DELIVERED, CANCELLED
 
     @Column(name = "sent_at")
     private LocalDateTime sentAt;
@@ -74,6 +78,12 @@ public class Notification {
     @Column(name = "last_retry_at")
     private LocalDateTime lastRetryAt;
 
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // Cuándo puede reclamarse (solo PENDING)
+
+    @Column(name = "idempotency_key", length = 200, updatable = false)
+    private String idempotencyKey; // Único: evita encolar dos veces el mismo recordatorio o resumen
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -90,5 +100,22 @@ public class Notification {
         if (retryCount == null) {
             retryCount = 0;
         }
+        if (nextAttemptAt == null && "PENDING".equals(status)) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    /**
+     * Llave determinista de un recordatorio de pago: pago, canal, tipo de recordatorio y fecha de envío
+     */
+    public static String paymentReminderKey(UUID paymentId, String channel, String reminderKind, LocalDate sendDate) {
+        return "PAYMENT_REMINDER:" + paymentId + ":" + channel + ":" + reminderKind + ":" + sendDate;
+    }
+
+    /**
+     * Llave determinista del resumen diario al admin: uno por organización y día
+     */
+    public static String adminDigestKey(UUID organizationId, LocalDate sendDate) {
+        return "ADMIN_DIGEST:" + organizationId + ":" + sendDate;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.rentas.properties.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad NotificationDailyStats - Número de notificaciones por organización, día, canal y estado
+ * Se mantiene con el trigger de notifications y el job de acumulación; no se escribe directamente
+ */
+@Entity
+@Table(name = "notification_daily_stats",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_notification_daily_stats",
+                columnNames = {"organization_id", "day", "channel", "status"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day; // Día de envío, o de creación si no se ha enviado
+
+    @Column(name = "channel", nullable = false, length = 50)
+    private String channel;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "notification_count", nullable = false)
+    private Integer notificationCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.rentas.properties.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad NotificationTemplate - Texto personalizado de un tipo de mensaje para una organización e idioma
+ * (plan WHITE_LABEL). Sin fila se usa la plantilla por defecto de NotificationTemplateType.
+ */
+@Entity
+@Table(name = "notification_templates")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "organization_id", nullable = false, updatable = false)
+    private UUID organizationId;
+
+    @Column(name = "template_key", nullable = false, length = 50, updatable = false)
+    private String templateKey; // PAYMENT_UPCOMING, PAYMENT_DUE_TODAY, PAYMENT_OVERDUE, ADMIN_DIGEST
+
+    @Column(name = "locale", nullable = false, length = 10, updatable = false)
+    private String locale;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
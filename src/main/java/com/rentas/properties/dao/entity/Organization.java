@@ -6,8 +6,10 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -121,10 +123,12 @@ public class Organization {
     @Column(name = "notification_enabled")
     private Boolean notificationEnabled;
 
-    @Column(name = "notifications_sent_this_month")
+    // Solo lo modifican los UPDATE atómicos de OrganizationRepository; guardar la entidad no lo pisa
+    @Column(name = "notifications_sent_this_month", updatable = false)
     private Integer notificationsSentThisMonth;
 
-    @Column(name = "last_notification_reset")
+    // Igual que el contador: una entidad cargada antes del reinicio mensual no debe regresar la fecha
+    @Column(name = "last_notification_reset", updatable = false)
     private LocalDate lastNotificationReset;
 
     @Column(name = "admin_notifications")
@@ -136,6 +140,38 @@ public class Organization {
     @Column(name = "admin_digest_enabled")
     private Boolean adminDigestEnabled = false;
 
+    // Ventana diaria en la que se reparten los recordatorios; NULL = ventana por defecto
+    @Column(name = "notification_window_start")
+    private LocalTime notificationWindowStart;
+
+    @Column(name = "notification_window_end")
+    private LocalTime notificationWindowEnd;
+
+    // Idioma de las plantillas de mensajes; NULL = idioma por defecto
+    @Column(name = "notification_locale", length = 10)
+    private String notificationLocale;
+
+    // Reglas de recargo por mora (ver LateFeeRules); desactivadas hasta que la organización las active
+    @Column(name = "late_fee_enabled", nullable = false)
+    @Builder.Default
+    private Boolean lateFeeEnabled = false;
+
+    @Column(name = "late_fee_grace_days", nullable = false)
+    @Builder.Default
+    private Integer lateFeeGraceDays = 0;
+
+    @Column(name = "late_fee_daily_amount", nullable = false, precision = 10, scale = 2)
+    @Builder.Default
+    private BigDecimal lateFeeDailyAmount = new BigDecimal("10.00");
+
+    @Column(name = "late_fee_monthly_rate", nullable = false, precision = 5, scale = 4)
+    @Builder.Default
+    private BigDecimal lateFeeMonthlyRate = new BigDecimal("0.0500");
+
+    @Column(name = "late_fee_max_rate", nullable = false, precision = 5, scale = 4)
+    @Builder.Default
+    private BigDecimal lateFeeMaxRate = new BigDecimal("0.5000");
+
     // Relaciones
     @OneToMany(mappedBy = "organization", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
@@ -178,6 +214,9 @@ public class Organization {
         if (notificationsSentThisMonth == null) {
             notificationsSentThisMonth = 0;
         }
+        if (lastNotificationReset == null) {
+            lastNotificationReset = LocalDate.now();
+        }
         if (adminNotifications == null) {
             adminNotifications = true;
         }
@@ -328,18 +367,6 @@ public class Organization {
         };
     }
 
-    public void resetMonthlyNotifications() {
-        this.notificationsSentThisMonth = 0;
-        this.lastNotificationReset = LocalDate.now();
-    }
-
-    public void incrementNotificationsSent() {
-        if (this.notificationsSentThisMonth == null) {
-            this.notificationsSentThisMonth = 0;
-        }
-        this.notificationsSentThisMonth++;
-    }
-
     public Integer getMonthlyNotificationLimit() {
         if (subscriptionPlan == null) {
             return 0;
@@ -347,13 +374,6 @@ public class Organization {
         return subscriptionPlan.getMonthlyNotificationLimit();
     }
 
-    public void incrementNotificationCount(int count) {
-        if (this.notificationsSentThisMonth == null) {
-            this.notificationsSentThisMonth = 0;
-        }
-        this.notificationsSentThisMonth += count;
-    }
-
 
     public Integer getRemainingNotifications() {
         Integer limit = getMonthlyNotificationLimit();
@@ -16,6 +16,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "payments", indexes = {
         @Index(name = "idx_payments_contract", columnList = "contract_id"),
+        @Index(name = "idx_payments_org_status_due", columnList = "organization_id, status, due_date"),
+        @Index(name = "idx_payments_org_period_keyset", columnList = "organization_id, period_year, period_month, due_date, id"),
         @Index(name = "idx_payments_status", columnList = "status"),
         @Index(name = "idx_payments_dates", columnList = "payment_date, due_date"),
         @Index(name = "idx_payments_period", columnList = "period_year, period_month"),
@@ -38,6 +40,10 @@ public class Payment {
     @JoinColumn(name = "contract_id", nullable = false, foreignKey = @ForeignKey(name = "fk_payment_contract"))
     private Contract contract;
 
+    // Copia de contract.organization para consultar por organización sin pasar por contracts
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
     // Tipo de pago
     @NotBlank(message = "El tipo de pago es obligatorio")
     @Size(max = 50)
@@ -116,6 +122,9 @@ public class Payment {
             createdAt = LocalDateTime.now();
         }
         updatedAt = LocalDateTime.now();
+        if (organizationId == null && contract != null && contract.getOrganization() != null) {
+            organizationId = contract.getOrganization().getId();
+        }
         // Calcular total automáticamente
         if (totalAmount == null && amount != null) {
             totalAmount = amount.add(lateFee != null ? lateFee : BigDecimal.ZERO);
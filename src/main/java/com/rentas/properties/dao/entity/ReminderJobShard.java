@@ -0,0 +1,66 @@
+package com.rentas.properties.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad ReminderJobShard - Partición de la ejecución diaria de recordatorios
+ * Un nodo la reclama con un lease (owner, leaseUntil) y la marca DONE al terminar
+ */
+@Entity
+@Table(name = "reminder_job_shards",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_reminder_job_shards_run",
+                columnNames = {"run_date", "shard_id"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderJobShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "shard_id", nullable = false)
+    private Integer shardId;
+
+    @Column(name = "shard_count", nullable = false)
+    private Integer shardCount;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // PENDING, RUNNING, DONE, FAILED
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "organizations_processed", nullable = false)
+    private Integer organizationsProcessed;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
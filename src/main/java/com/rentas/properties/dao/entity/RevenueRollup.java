@@ -0,0 +1,58 @@
+package com.rentas.properties.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad RevenueRollup - Totales mensuales de pagos por organización, tipo y estado
+ * Se mantiene desde RevenueRollupService; no se escribe directamente
+ */
+@Entity
+@Table(name = "revenue_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_revenue_rollup_period",
+                columnNames = {"organization_id", "period_year", "period_month", "payment_type", "status"}),
+        indexes = {
+                @Index(name = "idx_revenue_rollup_org_status_period",
+                        columnList = "organization_id, status, period_year, period_month")
+        })
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    @Column(name = "payment_type", nullable = false, length = 50)
+    private String paymentType;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "amount_sum", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amountSum;
+
+    @Column(name = "payment_count", nullable = false)
+    private Integer paymentCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.rentas.properties.dao.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Pago candidato a recordatorio con los datos del inquilino PRIMARY y la propiedad,
+ * obtenido en una sola consulta (expresión constructora JPQL) sin cargar entidades.
+ */
+@Getter
+@AllArgsConstructor
+public class ReminderCandidate {
+
+    private UUID paymentId;
+    private UUID organizationId;
+    private UUID contractId;
+    private LocalDate dueDate;
+    private String status;
+    private String paymentType;
+    private BigDecimal totalAmount;
+    private UUID tenantId;
+    private String tenantName;
+    private String tenantPhone;
+    private String propertyAddress;
+}
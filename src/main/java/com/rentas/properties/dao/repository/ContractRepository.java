@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -58,4 +59,64 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
             @Param("organizationId") UUID organizationId,
             @Param("status") String status
     );
-}
\ No newline at end of file
+
+    /**
+     * Agrega contratos por estado: [status, count, expiringSoon, pendingDepositsCount, pendingDepositsAmount]
+     */
+    @Query("SELECT c.status, COUNT(c), " +
+            "SUM(CASE WHEN c.endDate > :today AND c.endDate <= :expiringLimit THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.depositStatus = 'PENDIENTE' THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN c.depositStatus = 'PENDIENTE' THEN c.depositAmount END), 0) " +
+            "FROM Contract c WHERE c.organization.id = :organizationId " +
+            "GROUP BY c.status")
+    List<Object[]> aggregateByStatusForOrganization(
+            @Param("organizationId") UUID organizationId,
+            @Param("today") LocalDate today,
+            @Param("expiringLimit") LocalDate expiringLimit
+    );
+
+    /**
+     * Alertas de contratos sin hidratar entidades:
+     * [contractNumber, propertyCode, propertyAddress, status, endDate, depositStatus, depositAmount]
+     */
+    @Query("SELECT c.contractNumber, pr.propertyCode, pr.address, c.status, c.endDate, " +
+            "c.depositStatus, c.depositAmount " +
+            "FROM Contract c JOIN c.property pr " +
+            "WHERE c.organization.id = :organizationId " +
+            "AND ((c.status = 'ACTIVO' AND c.endDate > :today AND c.endDate <= :expiringLimit) " +
+            "OR c.depositStatus = 'PENDIENTE')")
+    List<Object[]> findContractAlertsByOrganization(
+            @Param("organizationId") UUID organizationId,
+            @Param("today") LocalDate today,
+            @Param("expiringLimit") LocalDate expiringLimit
+    );
+
+    /**
+     * Siguiente bloque de contratos ACTIVO terminados después de :afterId, en orden de id
+     * (idx_contracts_active_keyset)
+     */
+    @Query(value = "SELECT id FROM contracts " +
+            "WHERE status = 'ACTIVO' AND end_date < :today AND id > :afterId " +
+            "ORDER BY id " +
+            "LIMIT :limit " +
+            "FOR UPDATE",
+            nativeQuery = true)
+    List<UUID> lockExpiredBatch(
+            @Param("today") LocalDate today,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Marca VENCIDO los contratos del bloque
+     *
+     * @return organizaciones afectadas
+     */
+    @Query(value = "WITH updated AS (" +
+            "UPDATE contracts SET status = 'VENCIDO' " +
+            "WHERE id IN (:ids) AND status = 'ACTIVO' " +
+            "RETURNING organization_id) " +
+            "SELECT DISTINCT organization_id FROM updated",
+            nativeQuery = true)
+    List<UUID> markExpired(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,36 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.dao.entity.DashboardSnapshot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DashboardSnapshotRepository extends JpaRepository<DashboardSnapshot, UUID> {
+
+    /**
+     * Bloquea la fila del snapshot para que dos transacciones concurrentes
+     * no recalculen la misma sección con datos desfasados
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DashboardSnapshot s WHERE s.organizationId = :organizationId")
+    Optional<DashboardSnapshot> findByIdForUpdate(@Param("organizationId") UUID organizationId);
+
+    /**
+     * Crea la fila vacía del snapshot si no existe, para que findByIdForUpdate siempre tenga
+     * qué bloquear. computed_on antiguo: queda marcada como desactualizada hasta recalcularse.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_snapshot (organization_id, computed_on) " +
+            "VALUES (:organizationId, DATE '1900-01-01') " +
+            "ON CONFLICT (organization_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("organizationId") UUID organizationId);
+}
@@ -0,0 +1,38 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.dao.entity.JobCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, UUID> {
+
+    /**
+     * Crea el checkpoint de la ejecución; si otro nodo ya lo creó no hace nada
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_checkpoints (job_name, run_date) " +
+            "VALUES (:jobName, :runDate) " +
+            "ON CONFLICT (job_name, run_date) DO NOTHING",
+            nativeQuery = true)
+    int createIfAbsent(@Param("jobName") String jobName, @Param("runDate") LocalDate runDate);
+
+    boolean existsByJobNameAndRunDateAndStatus(String jobName, LocalDate runDate, String status);
+
+    /**
+     * Bloquea el checkpoint mientras se procesa un bloque, así dos nodos avanzan por turnos
+     * sobre la misma llave en lugar de procesar el mismo bloque
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM JobCheckpoint j WHERE j.jobName = :jobName AND j.runDate = :runDate")
+    Optional<JobCheckpoint> findForUpdate(@Param("jobName") String jobName, @Param("runDate") LocalDate runDate);
+}
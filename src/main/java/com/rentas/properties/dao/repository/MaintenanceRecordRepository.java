@@ -1,6 +1,7 @@
 package com.rentas.properties.dao.repository;
 
 import com.rentas.properties.dao.entity.MaintenanceRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -40,4 +41,24 @@ public interface MaintenanceRecordRepository extends JpaRepository<MaintenanceRe
     @Query("SELECT COUNT(mr) FROM MaintenanceRecord mr WHERE mr.organization.id = :organizationId " +
             "AND (mr.status = 'PENDIENTE' OR mr.status = 'EN_PROCESO')")
     Long countPendingByOrganization(@Param("organizationId") UUID organizationId);
-}
\ No newline at end of file
+
+    /**
+     * Agrega registros por estado y tipo: [status, maintenanceType, count, sum(estimatedCost), sum(actualCost)]
+     */
+    @Query("SELECT mr.status, mr.maintenanceType, COUNT(mr), " +
+            "COALESCE(SUM(mr.estimatedCost), 0), COALESCE(SUM(mr.actualCost), 0) " +
+            "FROM MaintenanceRecord mr WHERE mr.organization.id = :organizationId " +
+            "GROUP BY mr.status, mr.maintenanceType")
+    List<Object[]> aggregateByStatusAndTypeForOrganization(@Param("organizationId") UUID organizationId);
+
+    /**
+     * Alertas de mantenimiento pendiente: [propertyCode, propertyAddress, title]
+     */
+    @Query("SELECT pr.propertyCode, pr.address, mr.title FROM MaintenanceRecord mr JOIN mr.property pr " +
+            "WHERE mr.organization.id = :organizationId AND mr.status = 'PENDIENTE' " +
+            "ORDER BY mr.maintenanceDate")
+    List<Object[]> findPendingAlertsByOrganization(
+            @Param("organizationId") UUID organizationId,
+            Pageable pageable
+    );
+}
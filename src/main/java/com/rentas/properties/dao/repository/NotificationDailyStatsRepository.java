@@ -0,0 +1,62 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.dao.entity.NotificationDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationDailyStatsRepository extends JpaRepository<NotificationDailyStats, UUID> {
+
+    /**
+     * Notificaciones por estado de una organización: [status, count]
+     */
+    @Query("SELECT s.status, SUM(s.notificationCount) FROM NotificationDailyStats s " +
+            "WHERE s.organizationId = :organizationId " +
+            "GROUP BY s.status")
+    List<Object[]> sumByStatus(@Param("organizationId") UUID organizationId);
+
+    /**
+     * Notificaciones por día y estado en un rango: [day, status, count]
+     */
+    @Query("SELECT s.day, s.status, SUM(s.notificationCount) FROM NotificationDailyStats s " +
+            "WHERE s.organizationId = :organizationId AND s.day BETWEEN :fromDay AND :toDay " +
+            "GROUP BY s.day, s.status " +
+            "ORDER BY s.day DESC")
+    List<Object[]> sumByDayAndStatus(
+            @Param("organizationId") UUID organizationId,
+            @Param("fromDay") LocalDate fromDay,
+            @Param("toDay") LocalDate toDay
+    );
+
+    /**
+     * Acumula en notification_daily_stats hasta :limit deltas registrados por el trigger de
+     * notifications y los elimina. Los deltas bloqueados por otro nodo se saltan; las filas de
+     * stats se actualizan en orden de llave para que dos nodos no se bloqueen mutuamente.
+     * Los deltas de organizaciones ya eliminadas se descartan.
+     *
+     * @return número de grupos actualizados (0 si ya no quedaban deltas)
+     */
+    @Modifying
+    @Query(value = "WITH folded AS (" +
+            "DELETE FROM notification_stats_deltas WHERE id IN (" +
+            "SELECT id FROM notification_stats_deltas ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING organization_id, day, channel, status, delta) " +
+            "INSERT INTO notification_daily_stats (organization_id, day, channel, status, notification_count, updated_at) " +
+            "SELECT f.organization_id, f.day, f.channel, f.status, SUM(f.delta), CURRENT_TIMESTAMP " +
+            "FROM folded f " +
+            "WHERE EXISTS (SELECT 1 FROM organizations o WHERE o.id = f.organization_id) " +
+            "GROUP BY f.organization_id, f.day, f.channel, f.status " +
+            "ORDER BY f.organization_id, f.day, f.channel, f.status " +
+            "ON CONFLICT (organization_id, day, channel, status) DO UPDATE " +
+            "SET notification_count = notification_daily_stats.notification_count + EXCLUDED.notification_count, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int foldDeltas(@Param("limit") int limit);
+}
@@ -2,6 +2,7 @@ package com.rentas.properties.dao.repository;
 
 import com.rentas.properties.dao.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,15 +15,152 @@ import java.util.UUID;
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
     /**
-     * Encuentra notificaciones pendientes que exceden 24 horas
+     * Bloquea notificaciones PENDING cuyo próximo intento ya venció. Las filas bloqueadas por
+     * otro nodo se saltan, así varios nodos vacían la cola en paralelo sin enviar dos veces.
      */
-    @Query("SELECT n FROM Notification n WHERE n.status = 'PENDING' " +
-            "AND n.createdAt < :threshold " +
-            "AND n.retryCount < :maxRetries")
-    List<Notification> findPendingNotificationsOlderThan(
-            @Param("threshold") LocalDateTime threshold,
-            @Param("maxRetries") int maxRetries
-    );
+    @Query(value = "SELECT id FROM notifications " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UUID> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Encola un recordatorio de pago (PENDING) salvo que ya exista otro con la misma llave de
+     * idempotencia; así repetir el job o procesar la organización en dos nodos no duplica envíos
+     *
+     * @return 1 si se insertó, 0 si ya existía
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notifications (recipient_type, recipient_id, recipient_phone, notification_type, " +
+            "title, message, channel, status, related_contract_id, related_payment_id, retry_count, " +
+            "next_attempt_at, created_at, idempotency_key, organization_id) " +
+            "VALUES ('TENANT', :recipientId, :recipientPhone, 'PAYMENT_REMINDER', :title, :message, :channel, " +
+            "'PENDING', :contractId, :paymentId, 0, :nextAttemptAt, :createdAt, :idempotencyKey, :organizationId) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int insertPaymentReminderIfAbsent(@Param("recipientId") UUID recipientId,
+                                      @Param("recipientPhone") String recipientPhone,
+                                      @Param("title") String title,
+                                      @Param("message") String message,
+                                      @Param("channel") String channel,
+                                      @Param("contractId") UUID contractId,
+                                      @Param("paymentId") UUID paymentId,
+                                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("idempotencyKey") String idempotencyKey,
+                                      @Param("organizationId") UUID organizationId);
+
+    /**
+     * Encola el resumen diario al admin (PENDING) salvo que ya exista con la misma llave; así
+     * retomar un shard o repetir el job no envía un segundo resumen
+     *
+     * @return 1 si se insertó, 0 si ya existía
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notifications (recipient_type, recipient_id, recipient_phone, notification_type, " +
+            "title, message, channel, status, retry_count, next_attempt_at, created_at, idempotency_key, organization_id) " +
+            "VALUES ('USER', :recipientId, :recipientPhone, 'ADMIN_DIGEST', :title, :message, :channel, " +
+            "'PENDING', 0, :nextAttemptAt, :createdAt, :idempotencyKey, :organizationId) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int insertAdminDigestIfAbsent(@Param("recipientId") UUID recipientId,
+                                  @Param("recipientPhone") String recipientPhone,
+                                  @Param("title") String title,
+                                  @Param("message") String message,
+                                  @Param("channel") String channel,
+                                  @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("idempotencyKey") String idempotencyKey,
+                                  @Param("organizationId") UUID organizationId);
+
+    /**
+     * Cancela los recordatorios de pago reclamados cuyo pago ya no está PENDIENTE ni ATRASADO
+     * (p.ej. se pagó entre que se encoló el recordatorio y su franja de envío)
+     *
+     * @return recordatorios cancelados
+     */
+    @Modifying
+    @Query(value = "UPDATE notifications n SET status = 'CANCELLED', next_attempt_at = NULL, " +
+            "error_message = 'Pago ya no pendiente, recordatorio cancelado' " +
+            "FROM payments p " +
+            "WHERE n.id IN (:ids) AND n.status = 'PENDING' AND n.notification_type = 'PAYMENT_REMINDER' " +
+            "AND p.id = n.related_payment_id AND p.status NOT IN ('PENDIENTE', 'ATRASADO')",
+            nativeQuery = true)
+    int cancelSettledReminders(@Param("ids") List<UUID> ids);
+
+    /**
+     * Cancela los recordatorios aún no enviados de un pago
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'CANCELLED', n.nextAttemptAt = NULL " +
+            "WHERE n.relatedPayment.id = :paymentId " +
+            "AND n.notificationType = 'PAYMENT_REMINDER' " +
+            "AND n.status = 'PENDING'")
+    int cancelPendingRemindersByPayment(@Param("paymentId") UUID paymentId);
+
+    /**
+     * Reclama notificaciones para envío (PENDING -> SENDING)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = 'SENDING', n.lastRetryAt = :now " +
+            "WHERE n.id IN :ids AND n.status = 'PENDING'")
+    int markSending(@Param("ids") List<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * También acepta PENDING: si la recuperación de envíos interrumpidos ya la devolvió
+     * a la cola, un envío lento que sí terminó no debe repetirse
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'SENT', n.providerMessageId = :providerMessageId, " +
+            "n.sentAt = :sentAt, n.errorMessage = NULL, n.nextAttemptAt = NULL " +
+            "WHERE n.id = :id AND n.status IN ('SENDING', 'PENDING')")
+    int markSent(@Param("id") UUID id,
+                 @Param("providerMessageId") String providerMessageId,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Registra un envío fallido: vuelve a PENDING con el próximo intento programado
+     * o queda FAILED al agotar reintentos
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET " +
+            "n.status = CASE WHEN n.retryCount + 1 >= :maxRetries THEN 'FAILED' ELSE 'PENDING' END, " +
+            "n.retryCount = n.retryCount + 1, n.lastRetryAt = :now, n.errorMessage = :errorMessage, " +
+            "n.nextAttemptAt = :nextAttemptAt " +
+            "WHERE n.id = :id AND n.status = 'SENDING'")
+    int markFailedAttempt(@Param("id") UUID id,
+                          @Param("errorMessage") String errorMessage,
+                          @Param("maxRetries") int maxRetries,
+                          @Param("now") LocalDateTime now,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Reprograma un envío que no llegó a intentarse (proveedor limitado por tasa o con el
+     * circuito abierto) sin consumir un intento
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.errorMessage = :errorMessage, " +
+            "n.nextAttemptAt = :nextAttemptAt " +
+            "WHERE n.id = :id AND n.status = 'SENDING'")
+    int deferAttempt(@Param("id") UUID id,
+                     @Param("errorMessage") String errorMessage,
+                     @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Devuelve a la cola los envíos que quedaron en SENDING (nodo caído o reiniciado).
+     * Cuenta como un intento para que un mensaje que tumba al proceso no se reintente sin fin.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET " +
+            "n.status = CASE WHEN n.retryCount + 1 >= :maxRetries THEN 'FAILED' ELSE 'PENDING' END, " +
+            "n.retryCount = n.retryCount + 1, n.nextAttemptAt = :now, " +
+            "n.errorMessage = 'Envío interrumpido, reprogramado' " +
+            "WHERE n.status = 'SENDING' AND n.lastRetryAt < :threshold")
+    int requeueStuckSending(@Param("threshold") LocalDateTime threshold,
+                            @Param("maxRetries") int maxRetries,
+                            @Param("now") LocalDateTime now);
 
     /**
      * Encuentra notificaciones por pago
@@ -39,8 +177,7 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      */
     @Query("SELECT COUNT(n) FROM Notification n " +
             "JOIN n.relatedPayment p " +
-            "JOIN p.contract c " +
-            "WHERE c.organization.id = :organizationId " +
+            "WHERE p.organizationId = :organizationId " +
             "AND n.sentAt BETWEEN :startDate AND :endDate " +
             "AND n.status IN ('SENT', 'DELIVERED')")
     Long countSentNotificationsByOrganizationAndDateRange(
@@ -50,45 +187,14 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     );
 
     /**
-     * Obtiene últimas notificaciones de una organización
-     */
-    @Query("SELECT n FROM Notification n " +
-            "JOIN n.relatedPayment p " +
-            "JOIN p.contract c " +
-            "WHERE c.organization.id = :organizationId " +
-            "ORDER BY n.createdAt DESC")
-    List<Notification> findRecentByOrganization(@Param("organizationId") UUID organizationId);
-
-    /**
-     * Cuenta notificaciones por estado para una organización
+     * Últimas 10 notificaciones de una organización (idx_notifications_org_created)
      */
-    @Query("SELECT n.status, COUNT(n) FROM Notification n " +
-            "JOIN n.relatedPayment p " +
-            "JOIN p.contract c " +
-            "WHERE c.organization.id = :organizationId " +
-            "GROUP BY n.status")
-    List<Object[]> countByStatusAndOrganization(@Param("organizationId") UUID organizationId);
-
-    /**
-     * Obtiene datos para gráfica de notificaciones por día
-     */
-    @Query("SELECT CAST(n.sentAt AS date), n.status, COUNT(n) " +
-            "FROM Notification n " +
-            "JOIN n.relatedPayment p " +
-            "JOIN p.contract c " +
-            "WHERE c.organization.id = :organizationId " +
-            "AND n.sentAt BETWEEN :startDate AND :endDate " +
-            "GROUP BY CAST(n.sentAt AS date), n.status " +
-            "ORDER BY CAST(n.sentAt AS date) DESC")
-    List<Object[]> getChartDataByOrganization(
-            @Param("organizationId") UUID organizationId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
+    List<Notification> findTop10ByOrganizationIdOrderByCreatedAtDesc(UUID organizationId);
 
     /**
      * Cancela todas las notificaciones pendientes de un contrato
      */
+    @Modifying
     @Query("UPDATE Notification n SET n.status = 'CANCELLED' " +
             "WHERE n.relatedContract.id = :contractId " +
             "AND n.status = 'PENDING'")
@@ -0,0 +1,19 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.dao.entity.NotificationTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationTemplateRepository extends JpaRepository<NotificationTemplate, UUID> {
+
+    List<NotificationTemplate> findByOrganizationIdAndLocale(UUID organizationId, String locale);
+
+    Optional<NotificationTemplate> findByOrganizationIdAndTemplateKeyAndLocale(UUID organizationId,
+                                                                              String templateKey,
+                                                                              String locale);
+}
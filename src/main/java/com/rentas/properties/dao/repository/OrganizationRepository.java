@@ -24,6 +24,9 @@ public interface OrganizationRepository extends JpaRepository<Organization, UUID
 
     List<Organization> findByIsActiveTrue();
 
+    @Query("SELECT o.id FROM Organization o WHERE o.isActive = true")
+    List<UUID> findActiveOrganizationIds();
+
     Optional<Organization> findByOwnerId(UUID ownerId);
 
     @Query("SELECT o FROM Organization o WHERE o.subscriptionStatus = 'trial' AND o.trialEndsAt < :date")
@@ -35,14 +38,64 @@ public interface OrganizationRepository extends JpaRepository<Organization, UUID
     @Query("SELECT o FROM Organization o WHERE o.notificationEnabled = true AND o.isActive = true")
     List<Organization> findOrganizationsWithNotificationsEnabled();
 
-    @Modifying
-    @Query("UPDATE Organization o SET o.notificationsSentThisMonth = o.notificationsSentThisMonth + :count " +
+    @Query("SELECT o.id FROM Organization o WHERE o.notificationEnabled = true AND o.isActive = true")
+    List<UUID> findIdsWithNotificationsEnabled();
+
+    @Query("SELECT o.id FROM Organization o WHERE o.lateFeeEnabled = true AND o.isActive = true")
+    List<UUID> findIdsWithLateFeesEnabled();
+
+    /**
+     * Organización con plan y owner ya cargados (evita cargas lazy al procesar recordatorios)
+     */
+    @Query("SELECT o FROM Organization o LEFT JOIN FETCH o.subscriptionPlan LEFT JOIN FETCH o.owner " +
             "WHERE o.id = :organizationId")
-    void incrementNotificationCount(@Param("organizationId") UUID organizationId, @Param("count") int count);
+    Optional<Organization> findWithPlanAndOwnerById(@Param("organizationId") UUID organizationId);
+
+    /**
+     * Reserva count créditos del cupo mensual solo si caben en el límite del plan
+     * (-1 o NULL = ilimitado). Es atómico: dos nodos no pueden exceder el límite.
+     *
+     * @return 1 si se reservaron, 0 si no hay créditos suficientes
+     */
+    @Modifying
+    @Query(value = "UPDATE organizations o " +
+            "SET notifications_sent_this_month = COALESCE(o.notifications_sent_this_month, 0) + :count " +
+            "FROM subscription_plans sp " +
+            "WHERE o.id = :organizationId " +
+            "AND sp.id = o.subscription_plan_id " +
+            "AND (sp.monthly_notification_limit IS NULL OR sp.monthly_notification_limit = -1 " +
+            "OR COALESCE(o.notifications_sent_this_month, 0) + :count <= sp.monthly_notification_limit)",
+            nativeQuery = true)
+    int tryReserveNotificationCredits(@Param("organizationId") UUID organizationId, @Param("count") int count);
+
+    /**
+     * Devuelve créditos reservados que no se usaron
+     */
+    @Modifying
+    @Query(value = "UPDATE organizations " +
+            "SET notifications_sent_this_month = GREATEST(0, COALESCE(notifications_sent_this_month, 0) - :count) " +
+            "WHERE id = :organizationId",
+            nativeQuery = true)
+    int releaseNotificationCredits(@Param("organizationId") UUID organizationId, @Param("count") int count);
 
+    /**
+     * Créditos disponibles en el mes para organizaciones con límite (NULL si es ilimitado o sin plan)
+     */
+    @Query(value = "SELECT GREATEST(0, sp.monthly_notification_limit - COALESCE(o.notifications_sent_this_month, 0)) " +
+            "FROM organizations o JOIN subscription_plans sp ON sp.id = o.subscription_plan_id " +
+            "WHERE o.id = :organizationId " +
+            "AND sp.monthly_notification_limit IS NOT NULL AND sp.monthly_notification_limit <> -1",
+            nativeQuery = true)
+    Integer findRemainingNotificationCredits(@Param("organizationId") UUID organizationId);
 
+    /**
+     * Reinicia el contador de una organización si su último reset es anterior al mes indicado
+     */
     @Modifying
-    @Query("UPDATE Organization o SET o.notificationsSentThisMonth = 0, o.lastNotificationReset = :resetDate " +
-            "WHERE o.lastNotificationReset IS NULL OR o.lastNotificationReset < :resetDate")
-    void resetMonthlyNotificationCounters(@Param("resetDate") LocalDate resetDate);
+    @Query("UPDATE Organization o SET o.notificationsSentThisMonth = 0, o.lastNotificationReset = :today " +
+            "WHERE o.id = :organizationId " +
+            "AND (o.lastNotificationReset IS NULL OR o.lastNotificationReset < :monthStart)")
+    int resetMonthlyNotificationCounter(@Param("organizationId") UUID organizationId,
+                                        @Param("today") LocalDate today,
+                                        @Param("monthStart") LocalDate monthStart);
 }
\ No newline at end of file
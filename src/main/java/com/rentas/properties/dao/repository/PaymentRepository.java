@@ -1,6 +1,8 @@
 package com.rentas.properties.dao.repository;
 
 import com.rentas.properties.dao.entity.Payment;
+import com.rentas.properties.dao.projection.ReminderCandidate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,34 +31,32 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     @Query("SELECT p FROM Payment p WHERE p.dueDate = :today AND p.status = 'PENDIENTE'")
     List<Payment> findPaymentsDueToday(@Param("today") LocalDate today);
 
-    List<Payment> findByPeriodYearAndPeriodMonth(Integer year, Integer month);
-
     @Query("SELECT p FROM Payment p WHERE p.contract.id = :contractId " +
             "AND p.periodYear = :year AND p.periodMonth = :month")
     Optional<Payment> findByContractAndPeriod(@Param("contractId") UUID contractId,
                                               @Param("year") Integer year,
                                               @Param("month") Integer month);
 
-    @Query("SELECT p FROM Payment p WHERE p.contract.organization.id = :organizationId")
+    @Query("SELECT p FROM Payment p WHERE p.organizationId = :organizationId")
     List<Payment> findByOrganizationId(@Param("organizationId") UUID organizationId);
 
-    @Query("SELECT p FROM Payment p WHERE p.contract.organization.id = :organizationId AND p.status = :status")
+    @Query("SELECT p FROM Payment p WHERE p.organizationId = :organizationId AND p.status = :status")
     List<Payment> findByOrganizationIdAndStatus(
             @Param("organizationId") UUID organizationId,
             @Param("status") String status
     );
 
-    @Query("SELECT p FROM Payment p WHERE p.contract.organization.id = :organizationId AND p.status = 'PENDIENTE'")
+    @Query("SELECT p FROM Payment p WHERE p.organizationId = :organizationId AND p.status = 'PENDIENTE'")
     List<Payment> findPendingPaymentsByOrganization(@Param("organizationId") UUID organizationId);
 
-    @Query("SELECT p FROM Payment p WHERE p.contract.organization.id = :organizationId " +
+    @Query("SELECT p FROM Payment p WHERE p.organizationId = :organizationId " +
             "AND (p.status = 'ATRASADO' OR (p.status = 'PENDIENTE' AND p.dueDate < :today))")
     List<Payment> findOverduePaymentsByOrganization(
             @Param("organizationId") UUID organizationId,
             @Param("today") LocalDate today
     );
 
-    @Query("SELECT p FROM Payment p WHERE p.contract.organization.id = :organizationId " +
+    @Query("SELECT p FROM Payment p WHERE p.organizationId = :organizationId " +
             "AND p.dueDate = :today AND p.status = 'PENDIENTE'")
     List<Payment> findPaymentsDueTodayByOrganization(
             @Param("organizationId") UUID organizationId,
@@ -63,7 +64,7 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     );
 
     @Query("SELECT SUM(p.totalAmount) FROM Payment p " +
-            "WHERE p.contract.organization.id = :organizationId AND p.status = 'PAGADO' " +
+            "WHERE p.organizationId = :organizationId AND p.status = 'PAGADO' " +
             "AND p.periodYear = :year AND p.periodMonth = :month")
     BigDecimal sumPaidAmountByOrganizationAndPeriod(
             @Param("organizationId") UUID organizationId,
@@ -73,10 +74,201 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
     @Query("SELECT p FROM Payment p " +
             "WHERE p.dueDate = :dueDate " +
-            "AND p.contract.organization.id = :organizationId " +
+            "AND p.organizationId = :organizationId " +
             "AND p.status IN ('PENDIENTE', 'ATRASADO')")
     List<Payment> findByDueDateAndOrganization(
             @Param("dueDate") LocalDate dueDate,
             @Param("organizationId") UUID organizationId
     );
-}
\ No newline at end of file
+
+    /**
+     * Pagos candidatos a recordatorio de varias organizaciones y fechas de vencimiento en una
+     * sola consulta, con teléfono y nombre del inquilino PRIMARY y dirección de la propiedad
+     */
+    @Query("SELECT new com.rentas.properties.dao.projection.ReminderCandidate(" +
+            "p.id, p.organizationId, c.id, p.dueDate, p.status, p.paymentType, p.totalAmount, " +
+            "t.id, t.fullName, t.phone, pr.address) " +
+            "FROM Payment p " +
+            "JOIN p.contract c " +
+            "JOIN c.property pr " +
+            "JOIN c.contractTenants ct " +
+            "JOIN ct.tenant t " +
+            "WHERE p.organizationId IN :organizationIds " +
+            "AND p.dueDate IN :dueDates " +
+            "AND p.status IN ('PENDIENTE', 'ATRASADO') " +
+            "AND ct.isPrimary = true " +
+            "ORDER BY p.organizationId, p.dueDate, p.id")
+    List<ReminderCandidate> findReminderCandidates(
+            @Param("organizationIds") Collection<UUID> organizationIds,
+            @Param("dueDates") Collection<LocalDate> dueDates
+    );
+
+    /**
+     * Agrega pagos por estado para una organización: [status, count, sum(totalAmount), dueToday, dueThisWeek]
+     */
+    @Query("SELECT p.status, COUNT(p), COALESCE(SUM(p.totalAmount), 0), " +
+            "SUM(CASE WHEN p.dueDate = :today THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.dueDate BETWEEN :today AND :weekEnd THEN 1 ELSE 0 END) " +
+            "FROM Payment p WHERE p.organizationId = :organizationId " +
+            "GROUP BY p.status")
+    List<Object[]> aggregateByStatusForOrganization(
+            @Param("organizationId") UUID organizationId,
+            @Param("today") LocalDate today,
+            @Param("weekEnd") LocalDate weekEnd
+    );
+
+    /**
+     * Alertas de pagos sin hidratar entidades:
+     * [contractNumber, propertyCode, propertyAddress, status, dueDate, totalAmount]
+     */
+    @Query("SELECT c.contractNumber, pr.propertyCode, pr.address, p.status, p.dueDate, p.totalAmount " +
+            "FROM Payment p JOIN p.contract c JOIN c.property pr " +
+            "WHERE p.organizationId = :organizationId " +
+            "AND (p.status = 'ATRASADO' OR (p.status = 'PENDIENTE' AND p.dueDate BETWEEN :today AND :weekEnd)) " +
+            "ORDER BY CASE WHEN p.status = 'ATRASADO' THEN 0 ELSE 1 END, p.dueDate")
+    List<Object[]> findPaymentAlertsByOrganization(
+            @Param("organizationId") UUID organizationId,
+            @Param("today") LocalDate today,
+            @Param("weekEnd") LocalDate weekEnd,
+            Pageable pageable
+    );
+
+    /**
+     * Ranking de propiedades por monto de pagos en un estado: [propertyCode, address, sum(totalAmount), count]
+     */
+    @Query("SELECT pr.propertyCode, pr.address, COALESCE(SUM(p.totalAmount), 0), COUNT(p) " +
+            "FROM Payment p JOIN p.contract c JOIN c.property pr " +
+            "WHERE p.organizationId = :organizationId AND p.status = :status " +
+            "AND p.dueDate BETWEEN :fromDate AND :toDate " +
+            "GROUP BY pr.id, pr.propertyCode, pr.address " +
+            "ORDER BY COALESCE(SUM(p.totalAmount), 0) DESC, COUNT(p) DESC")
+    List<Object[]> findTopPropertiesByAmount(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") String status,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            Pageable pageable
+    );
+
+    /**
+     * Ranking de propiedades por número de pagos en un estado: [propertyCode, address, sum(totalAmount), count]
+     */
+    @Query("SELECT pr.propertyCode, pr.address, COALESCE(SUM(p.totalAmount), 0), COUNT(p) " +
+            "FROM Payment p JOIN p.contract c JOIN c.property pr " +
+            "WHERE p.organizationId = :organizationId AND p.status = :status " +
+            "AND p.dueDate BETWEEN :fromDate AND :toDate " +
+            "GROUP BY pr.id, pr.propertyCode, pr.address " +
+            "ORDER BY COUNT(p) DESC, COALESCE(SUM(p.totalAmount), 0) DESC")
+    List<Object[]> findTopPropertiesByCount(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") String status,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            Pageable pageable
+    );
+
+    /**
+     * Aplica el recargo por mora (reglas de la organización, ver LateFeeRules) a un bloque de
+     * hasta :limit pagos vencidos sin recargo y los marca ATRASADO, sin cargarlos en memoria.
+     * Recorre idx_payments_org_late_fee_candidates; los pagos bloqueados por otra ejecución se saltan.
+     * No aplica nada si la organización tiene los recargos deshabilitados. Los pagos cuyo recargo
+     * redondea a 0 se excluyen del bloque: seguirían con late_fee = 0 y se volverían a seleccionar.
+     *
+     * @return [periodYear, periodMonth, count, sum(lateFee)] de los pagos actualizados
+     */
+    @Query(value = "WITH rules AS (" +
+            "SELECT o.id, o.late_fee_grace_days, o.late_fee_daily_amount, o.late_fee_monthly_rate, o.late_fee_max_rate " +
+            "FROM organizations o " +
+            "WHERE o.id = :organizationId AND o.late_fee_enabled = true AND o.late_fee_max_rate > 0 " +
+            "AND (o.late_fee_daily_amount > 0 OR o.late_fee_monthly_rate > 0)), " +
+            "batch AS (" +
+            "SELECT p.id, f.fee " +
+            "FROM payments p JOIN rules r ON r.id = p.organization_id " +
+            "CROSS JOIN LATERAL (SELECT ROUND(LEAST(" +
+            "GREATEST(r.late_fee_daily_amount * (CAST(:today AS date) - p.due_date), " +
+            "p.amount * r.late_fee_monthly_rate * GREATEST((CAST(:today AS date) - p.due_date) / 30, 1)), " +
+            "p.amount * r.late_fee_max_rate), 2) AS fee) f " +
+            "WHERE p.status IN ('PENDIENTE', 'ATRASADO') AND p.late_fee = 0 " +
+            "AND p.due_date < CAST(:today AS date) - r.late_fee_grace_days " +
+            "AND f.fee > 0 " +
+            "ORDER BY p.due_date, p.id " +
+            "LIMIT :limit " +
+            "FOR UPDATE OF p SKIP LOCKED), " +
+            "applied AS (" +
+            "UPDATE payments p SET " +
+            "late_fee = b.fee, total_amount = p.amount + b.fee, status = 'ATRASADO', updated_at = CURRENT_TIMESTAMP " +
+            "FROM batch b " +
+            "WHERE p.id = b.id " +
+            "RETURNING p.period_year, p.period_month, p.late_fee) " +
+            "SELECT period_year, period_month, COUNT(*), COALESCE(SUM(late_fee), 0) " +
+            "FROM applied " +
+            "GROUP BY period_year, period_month",
+            nativeQuery = true)
+    List<Object[]> applyLateFees(
+            @Param("organizationId") UUID organizationId,
+            @Param("today") LocalDate today,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Siguiente bloque de pagos PENDIENTE vencidos después de :afterId, en orden de id
+     * (idx_payments_pending_keyset). Los bloquea para que no cambien mientras se marcan.
+     */
+    @Query(value = "SELECT id FROM payments " +
+            "WHERE status = 'PENDIENTE' AND due_date < :today AND id > :afterId " +
+            "ORDER BY id " +
+            "LIMIT :limit " +
+            "FOR UPDATE",
+            nativeQuery = true)
+    List<UUID> lockOverdueBatch(
+            @Param("today") LocalDate today,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Marca ATRASADO los pagos del bloque
+     *
+     * @return [organizationId, periodYear, periodMonth] afectados
+     */
+    @Query(value = "WITH updated AS (" +
+            "UPDATE payments SET status = 'ATRASADO' " +
+            "WHERE id IN (:ids) AND status = 'PENDIENTE' " +
+            "RETURNING organization_id, period_year, period_month) " +
+            "SELECT organization_id, period_year, period_month " +
+            "FROM updated " +
+            "GROUP BY organization_id, period_year, period_month",
+            nativeQuery = true)
+    List<Object[]> markOverdue(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Página de ids de pagos del periodo de una organización, en orden (dueDate, id), después de
+     * la llave (afterDueDate, afterId), sobre idx_payments_org_period_keyset. Status y tipo son
+     * opcionales (NULL = todos).
+     */
+    @Query(value = "SELECT p.id FROM payments p " +
+            "WHERE p.organization_id = :organizationId " +
+            "AND p.period_year = :year AND p.period_month = :month " +
+            "AND (CAST(:status AS VARCHAR) IS NULL OR p.status = :status) " +
+            "AND (CAST(:paymentType AS VARCHAR) IS NULL OR p.payment_type = :paymentType) " +
+            "AND (p.due_date, p.id) > (CAST(:afterDueDate AS DATE), CAST(:afterId AS UUID)) " +
+            "ORDER BY p.due_date, p.id " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findPeriodPageIds(
+            @Param("organizationId") UUID organizationId,
+            @Param("year") int year,
+            @Param("month") int month,
+            @Param("status") String status,
+            @Param("paymentType") String paymentType,
+            @Param("afterDueDate") LocalDate afterDueDate,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Pagos con su contrato y propiedad en una sola consulta (sin orden: lo da la página de ids)
+     */
+    @Query("SELECT p FROM Payment p JOIN FETCH p.contract c JOIN FETCH c.property WHERE p.id IN :ids")
+    List<Payment> findWithContractAndPropertyByIdIn(@Param("ids") Collection<UUID> ids);
+}
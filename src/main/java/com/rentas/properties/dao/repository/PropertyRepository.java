@@ -39,4 +39,8 @@ public interface PropertyRepository extends JpaRepository<Property, UUID> {
 
     @Query("SELECT p FROM Property p WHERE p.organization.id = :organizationId AND p.status = 'RENTADA'")
     List<Property> findRentedByOrganization(@Param("organizationId") UUID organizationId);
-}
\ No newline at end of file
+
+    @Query("SELECT p.status, COUNT(p) FROM Property p WHERE p.organization.id = :organizationId " +
+            "AND p.isActive = true GROUP BY p.status")
+    List<Object[]> countActiveByStatusForOrganization(@Param("organizationId") UUID organizationId);
+}
@@ -0,0 +1,69 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.dao.entity.ReminderJobShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReminderJobShardRepository extends JpaRepository<ReminderJobShard, UUID> {
+
+    /**
+     * Crea los shards de la ejecución; si otro nodo ya los creó no hace nada
+     */
+    @Modifying
+    @Query(value = "INSERT INTO reminder_job_shards (run_date, shard_id, shard_count) " +
+            "SELECT :runDate, s, :shardCount FROM generate_series(0, :shardCount - 1) s " +
+            "ON CONFLICT (run_date, shard_id) DO NOTHING",
+            nativeQuery = true)
+    int createShards(@Param("runDate") LocalDate runDate, @Param("shardCount") int shardCount);
+
+    /**
+     * Bloquea un shard pendiente o cuyo lease venció (nodo caído); los bloqueados por otro nodo se saltan
+     */
+    @Query(value = "SELECT id FROM reminder_job_shards " +
+            "WHERE run_date = :runDate " +
+            "AND (status = 'PENDING' OR (status = 'RUNNING' AND lease_until < :now)) " +
+            "ORDER BY shard_id " +
+            "LIMIT 1 " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UUID> lockClaimable(@Param("runDate") LocalDate runDate, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReminderJobShard s SET s.status = 'RUNNING', s.owner = :owner, s.leaseUntil = :leaseUntil, " +
+            "s.attempts = s.attempts + 1, s.startedAt = :now, s.lastError = NULL " +
+            "WHERE s.id = :id")
+    int claim(@Param("id") UUID id,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Extiende el lease solo si el shard sigue siendo de este nodo
+     */
+    @Modifying
+    @Query("UPDATE ReminderJobShard s SET s.leaseUntil = :leaseUntil " +
+            "WHERE s.id = :id AND s.owner = :owner AND s.status = 'RUNNING'")
+    int renewLease(@Param("id") UUID id,
+                   @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE ReminderJobShard s SET s.status = :status, s.finishedAt = :now, s.leaseUntil = NULL, " +
+            "s.organizationsProcessed = :processed, s.lastError = :lastError " +
+            "WHERE s.id = :id AND s.owner = :owner AND s.status = 'RUNNING'")
+    int finish(@Param("id") UUID id,
+               @Param("owner") String owner,
+               @Param("status") String status,
+               @Param("processed") int processed,
+               @Param("lastError") String lastError,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,103 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.dao.entity.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, UUID> {
+
+    /**
+     * Ingresos pagados por mes en un rango de años: [periodYear, periodMonth, count, sum(amount)]
+     */
+    @Query("SELECT r.periodYear, r.periodMonth, SUM(r.paymentCount), SUM(r.amountSum) FROM RevenueRollup r " +
+            "WHERE r.organizationId = :organizationId AND r.status = 'PAGADO' " +
+            "AND r.periodYear BETWEEN :fromYear AND :toYear " +
+            "GROUP BY r.periodYear, r.periodMonth " +
+            "ORDER BY r.periodYear, r.periodMonth")
+    List<Object[]> sumPaidByMonth(
+            @Param("organizationId") UUID organizationId,
+            @Param("fromYear") Integer fromYear,
+            @Param("toYear") Integer toYear
+    );
+
+    /**
+     * Lock de transacción por organización (pg_advisory_xact_lock). Los recálculos de una misma
+     * organización se ejecutan uno tras otro: cada SUM se toma después de que la transacción
+     * anterior hizo commit, así un recálculo concurrente no sobrescribe el grupo con totales
+     * que no incluyen el pago del otro. Se libera al terminar la transacción.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('revenue_rollup'), " +
+            "hashtext(CAST(:organizationId AS text)))) l",
+            nativeQuery = true)
+    int lockOrganization(@Param("organizationId") UUID organizationId);
+
+    /**
+     * Recalcula (upsert) los grupos de un periodo a partir de la tabla payments.
+     * Requiere lockOrganization en la misma transacción.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollup (organization_id, period_year, period_month, payment_type, status, " +
+            "amount_sum, payment_count, updated_at) " +
+            "SELECT p.organization_id, p.period_year, p.period_month, p.payment_type, p.status, " +
+            "COALESCE(SUM(p.total_amount), 0), COUNT(*), CURRENT_TIMESTAMP " +
+            "FROM payments p " +
+            "WHERE p.organization_id = :organizationId AND p.period_year = :year AND p.period_month = :month " +
+            "GROUP BY p.organization_id, p.period_year, p.period_month, p.payment_type, p.status " +
+            "ON CONFLICT (organization_id, period_year, period_month, payment_type, status) DO UPDATE " +
+            "SET amount_sum = EXCLUDED.amount_sum, payment_count = EXCLUDED.payment_count, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int upsertPeriod(
+            @Param("organizationId") UUID organizationId,
+            @Param("year") int year,
+            @Param("month") int month
+    );
+
+    /**
+     * Elimina los grupos del periodo que ya no tienen pagos (p.ej. cambiaron de estado)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM revenue_rollup r " +
+            "WHERE r.organization_id = :organizationId AND r.period_year = :year AND r.period_month = :month " +
+            "AND NOT EXISTS (SELECT 1 FROM payments p " +
+            "WHERE p.organization_id = r.organization_id AND p.period_year = r.period_year " +
+            "AND p.period_month = r.period_month AND p.payment_type = r.payment_type AND p.status = r.status)",
+            nativeQuery = true)
+    int deleteEmptyGroups(
+            @Param("organizationId") UUID organizationId,
+            @Param("year") int year,
+            @Param("month") int month
+    );
+
+    /**
+     * Recalcula todos los periodos de la organización. Requiere lockOrganization en la misma transacción.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollup (organization_id, period_year, period_month, payment_type, status, " +
+            "amount_sum, payment_count, updated_at) " +
+            "SELECT p.organization_id, p.period_year, p.period_month, p.payment_type, p.status, " +
+            "COALESCE(SUM(p.total_amount), 0), COUNT(*), CURRENT_TIMESTAMP " +
+            "FROM payments p " +
+            "WHERE p.organization_id = :organizationId " +
+            "GROUP BY p.organization_id, p.period_year, p.period_month, p.payment_type, p.status " +
+            "ON CONFLICT (organization_id, period_year, period_month, payment_type, status) DO UPDATE " +
+            "SET amount_sum = EXCLUDED.amount_sum, payment_count = EXCLUDED.payment_count, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int upsertOrganization(@Param("organizationId") UUID organizationId);
+
+    @Modifying
+    @Query(value = "DELETE FROM revenue_rollup r WHERE r.organization_id = :organizationId " +
+            "AND NOT EXISTS (SELECT 1 FROM payments p " +
+            "WHERE p.organization_id = r.organization_id AND p.period_year = r.period_year " +
+            "AND p.period_month = r.period_month AND p.payment_type = r.payment_type AND p.status = r.status)",
+            nativeQuery = true)
+    int deleteEmptyGroupsForOrganization(@Param("organizationId") UUID organizationId);
+}
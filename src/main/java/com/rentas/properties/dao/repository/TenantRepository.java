@@ -43,4 +43,11 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
 
     @Query("SELECT COUNT(t) FROM Tenant t WHERE t.organization.id = :organizationId AND t.isActive = true")
     Long countActiveByOrganization_Id(@Param("organizationId") UUID organizationId);
-}
\ No newline at end of file
+
+    /**
+     * [activeTenants, sum(numberOfOccupants)] de los inquilinos activos de la organización
+     */
+    @Query("SELECT COUNT(t), COALESCE(SUM(t.numberOfOccupants), 0) FROM Tenant t " +
+            "WHERE t.organization.id = :organizationId AND t.isActive = true")
+    List<Object[]> aggregateActiveForOrganization(@Param("organizationId") UUID organizationId);
+}
@@ -2,6 +2,7 @@ package com.rentas.properties.security.config;
 
 import com.rentas.properties.security.jwt.JwtAuthenticationFilter;
 import com.rentas.properties.security.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -40,8 +41,12 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Los envíos posteriores del stream SSE ya se autorizaron en la petición original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/test/**").permitAll()
+                        // Los proveedores no envían JWT; cada webhook valida la firma del proveedor
+                        .requestMatchers("/api/v1/notifications/webhooks/**").permitAll()
 
                         .requestMatchers(
                                 "/swagger-ui/**",
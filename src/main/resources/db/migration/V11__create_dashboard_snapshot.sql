@@ -0,0 +1,60 @@
+-- ============================================
+-- V11: Snapshot del dashboard por organización
+-- Una fila por organización con los contadores de cada sección.
+-- Se actualiza en la misma transacción que modifica pagos, contratos,
+-- propiedades, inquilinos o mantenimientos y se reconcilia cada noche.
+-- ============================================
+
+CREATE TABLE dashboard_snapshot (
+    organization_id UUID PRIMARY KEY REFERENCES organizations(id) ON DELETE CASCADE,
+
+    -- Propiedades
+    properties_total INTEGER NOT NULL DEFAULT 0,
+    properties_available INTEGER NOT NULL DEFAULT 0,
+    properties_rented INTEGER NOT NULL DEFAULT 0,
+    properties_maintenance INTEGER NOT NULL DEFAULT 0,
+
+    -- Inquilinos
+    tenants_total INTEGER NOT NULL DEFAULT 0,
+    occupants_total INTEGER NOT NULL DEFAULT 0,
+
+    -- Contratos
+    contracts_total INTEGER NOT NULL DEFAULT 0,
+    contracts_active INTEGER NOT NULL DEFAULT 0,
+    contracts_expired INTEGER NOT NULL DEFAULT 0,
+    contracts_renewed INTEGER NOT NULL DEFAULT 0,
+    contracts_canceled INTEGER NOT NULL DEFAULT 0,
+    contracts_expiring_soon INTEGER NOT NULL DEFAULT 0,
+    pending_deposits_count INTEGER NOT NULL DEFAULT 0,
+    pending_deposits_amount NUMERIC(12, 2) NOT NULL DEFAULT 0,
+
+    -- Pagos
+    payments_total INTEGER NOT NULL DEFAULT 0,
+    payments_pending INTEGER NOT NULL DEFAULT 0,
+    payments_paid INTEGER NOT NULL DEFAULT 0,
+    payments_overdue INTEGER NOT NULL DEFAULT 0,
+    payments_total_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    payments_paid_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    payments_pending_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    payments_overdue_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    payments_due_today INTEGER NOT NULL DEFAULT 0,
+    payments_due_this_week INTEGER NOT NULL DEFAULT 0,
+    monthly_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    yearly_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+
+    -- Mantenimiento
+    maintenance_total INTEGER NOT NULL DEFAULT 0,
+    maintenance_pending INTEGER NOT NULL DEFAULT 0,
+    maintenance_in_progress INTEGER NOT NULL DEFAULT 0,
+    maintenance_completed INTEGER NOT NULL DEFAULT 0,
+    maintenance_preventive INTEGER NOT NULL DEFAULT 0,
+    maintenance_corrective INTEGER NOT NULL DEFAULT 0,
+    maintenance_emergency INTEGER NOT NULL DEFAULT 0,
+    maintenance_estimated_costs NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    maintenance_actual_costs NUMERIC(14, 2) NOT NULL DEFAULT 0,
+
+    -- Día con el que se calcularon los contadores relativos a la fecha
+    -- (vencen hoy / esta semana, contratos por vencer, ingresos del mes)
+    computed_on DATE NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
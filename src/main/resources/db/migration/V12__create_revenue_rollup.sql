@@ -0,0 +1,33 @@
+-- ============================================
+-- V12: Rollup mensual de pagos por organización
+-- Una fila por (organización, año, mes, tipo de pago, estado) con el monto y
+-- número de pagos. Se mantiene al escribir pagos y permite consultar ingresos
+-- de cualquier rango de años sin recorrer la tabla payments.
+-- ============================================
+
+CREATE TABLE revenue_rollup (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    organization_id UUID NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    period_year INTEGER NOT NULL,
+    period_month INTEGER NOT NULL CHECK (period_month BETWEEN 1 AND 12),
+    payment_type VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    amount_sum NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    payment_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_revenue_rollup_period
+        UNIQUE (organization_id, period_year, period_month, payment_type, status)
+);
+
+CREATE INDEX idx_revenue_rollup_org_status_period
+    ON revenue_rollup(organization_id, status, period_year, period_month);
+
+-- Backfill con el histórico existente
+INSERT INTO revenue_rollup (organization_id, period_year, period_month, payment_type, status,
+                            amount_sum, payment_count)
+SELECT c.organization_id, p.period_year, p.period_month, p.payment_type, p.status,
+       COALESCE(SUM(p.total_amount), 0), COUNT(*)
+FROM payments p
+JOIN contracts c ON c.id = p.contract_id
+GROUP BY c.organization_id, p.period_year, p.period_month, p.payment_type, p.status;
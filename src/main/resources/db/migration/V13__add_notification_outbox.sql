@@ -0,0 +1,19 @@
+-- ============================================
+-- V13: notifications como outbox con reintentos diferidos
+-- next_attempt_at indica cuándo puede reclamarse una notificación PENDING;
+-- los reintentos se reprograman con backoff exponencial en lugar de esperar
+-- dentro del proceso, y sobreviven a reinicios.
+-- ============================================
+
+ALTER TABLE notifications
+    ADD COLUMN next_attempt_at TIMESTAMP;
+
+UPDATE notifications
+SET next_attempt_at = COALESCE(created_at, CURRENT_TIMESTAMP)
+WHERE status = 'PENDING';
+
+-- Reclamo de notificaciones vencidas (FOR UPDATE SKIP LOCKED)
+CREATE INDEX idx_notifications_due ON notifications(next_attempt_at) WHERE status = 'PENDING';
+
+-- Recuperación de envíos interrumpidos
+CREATE INDEX idx_notifications_sending ON notifications(last_retry_at) WHERE status = 'SENDING';
@@ -0,0 +1,28 @@
+-- ============================================
+-- V14: Particiones (shards) del job diario de recordatorios
+-- Cada ejecución diaria divide las organizaciones en shard_count shards.
+-- Los nodos reclaman shards con un lease que renuevan mientras procesan;
+-- si un nodo cae, el lease vence y otro nodo retoma el shard.
+-- ============================================
+
+CREATE TABLE reminder_job_shards (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    run_date DATE NOT NULL,
+    shard_id INTEGER NOT NULL,
+    shard_count INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    owner VARCHAR(255),
+    lease_until TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    organizations_processed INTEGER NOT NULL DEFAULT 0,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_reminder_job_shards_run UNIQUE (run_date, shard_id),
+    CONSTRAINT chk_reminder_job_shards_status CHECK (status IN ('PENDING', 'RUNNING', 'DONE', 'FAILED'))
+);
+
+-- Reclamo de shards pendientes o con lease vencido
+CREATE INDEX idx_reminder_job_shards_claim ON reminder_job_shards(run_date, status, lease_until);
@@ -0,0 +1,15 @@
+-- ============================================
+-- V15: Ventana de envío de notificaciones por organización
+-- Los recordatorios del día se reparten dentro de la ventana (next_attempt_at)
+-- en lugar de enviarse todos al correr el job. NULL = ventana por defecto.
+-- ============================================
+
+ALTER TABLE organizations
+    ADD COLUMN IF NOT EXISTS notification_window_start TIME,
+    ADD COLUMN IF NOT EXISTS notification_window_end TIME;
+
+ALTER TABLE organizations
+    ADD CONSTRAINT chk_organizations_notification_window
+        CHECK (notification_window_start IS NULL
+            OR notification_window_end IS NULL
+            OR notification_window_start < notification_window_end);
@@ -0,0 +1,12 @@
+-- ============================================
+-- V16: Llave de idempotencia de notificaciones
+-- Un recordatorio de pago se identifica por pago, canal, tipo de recordatorio
+-- y fecha de envío; el índice único impide encolarlo dos veces aunque el job
+-- se repita o dos nodos procesen la misma organización.
+-- ============================================
+
+ALTER TABLE notifications
+    ADD COLUMN idempotency_key VARCHAR(200);
+
+-- Las notificaciones sin llave (NULL) no entran en conflicto entre sí
+CREATE UNIQUE INDEX uk_notifications_idempotency_key ON notifications(idempotency_key);
@@ -0,0 +1,17 @@
+-- ============================================
+-- V17: Plantillas de mensajes de notificación por organización
+-- Las organizaciones con WHITE_LABEL pueden redefinir el texto de cada
+-- tipo de mensaje por idioma. Sin fila se usa la plantilla por defecto.
+-- Variables con la sintaxis {{nombre}}.
+-- ============================================
+
+CREATE TABLE notification_templates (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    organization_id UUID NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    template_key VARCHAR(50) NOT NULL,
+    locale VARCHAR(10) NOT NULL DEFAULT 'es',
+    body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_notification_templates_org_key_locale UNIQUE (organization_id, template_key, locale)
+);
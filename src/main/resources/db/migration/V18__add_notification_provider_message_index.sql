@@ -0,0 +1,9 @@
+-- ============================================
+-- V18: Búsqueda de notificaciones por ID del proveedor
+-- Los webhooks de estado de entrega (Twilio, AWS SNS) identifican el
+-- mensaje por provider_message_id.
+-- ============================================
+
+CREATE INDEX idx_notifications_provider_message_id
+    ON notifications(provider_message_id)
+    WHERE provider_message_id IS NOT NULL;
@@ -0,0 +1,90 @@
+-- ============================================
+-- V19: Estadísticas diarias de notificaciones
+-- notifications.organization_id permite filtrar sin pasar por pagos y contratos.
+-- notification_daily_stats guarda el número de notificaciones por
+-- (organización, día, canal, estado); el día es el de envío o, si no se ha
+-- enviado, el de creación.
+-- Un trigger registra cada alta, cambio de estado o baja como deltas en
+-- notification_stats_deltas (solo inserciones, sin contención) y un job los
+-- acumula cada pocos segundos en notification_daily_stats.
+-- ============================================
+
+ALTER TABLE notifications
+    ADD COLUMN organization_id UUID REFERENCES organizations(id) ON DELETE CASCADE;
+
+UPDATE notifications n
+SET organization_id = c.organization_id
+FROM contracts c
+WHERE c.id = n.related_contract_id
+  AND n.organization_id IS NULL;
+
+UPDATE notifications n
+SET organization_id = u.organization_id
+FROM users u
+WHERE n.recipient_type = 'USER'
+  AND u.id = n.recipient_id
+  AND n.organization_id IS NULL;
+
+-- Últimas notificaciones de la organización
+CREATE INDEX idx_notifications_org_created ON notifications(organization_id, created_at DESC);
+
+CREATE TABLE notification_daily_stats (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    organization_id UUID NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    day DATE NOT NULL,
+    channel VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    notification_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_notification_daily_stats
+        UNIQUE (organization_id, day, channel, status)
+);
+
+CREATE TABLE notification_stats_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    organization_id UUID NOT NULL,
+    day DATE NOT NULL,
+    channel VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    delta INTEGER NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION record_notification_stats_delta()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.organization_id IS NOT DISTINCT FROM NEW.organization_id
+        AND OLD.channel IS NOT DISTINCT FROM NEW.channel
+        AND OLD.status IS NOT DISTINCT FROM NEW.status
+        AND COALESCE(OLD.sent_at, OLD.created_at)::date = COALESCE(NEW.sent_at, NEW.created_at)::date THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.organization_id IS NOT NULL THEN
+        INSERT INTO notification_stats_deltas (organization_id, day, channel, status, delta)
+        VALUES (OLD.organization_id, COALESCE(OLD.sent_at, OLD.created_at)::date, OLD.channel,
+                COALESCE(OLD.status, 'PENDING'), -1);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.organization_id IS NOT NULL THEN
+        INSERT INTO notification_stats_deltas (organization_id, day, channel, status, delta)
+        VALUES (NEW.organization_id, COALESCE(NEW.sent_at, NEW.created_at)::date, NEW.channel,
+                COALESCE(NEW.status, 'PENDING'), 1);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER notifications_daily_stats_delta
+    AFTER INSERT OR DELETE OR UPDATE OF organization_id, channel, status, sent_at ON notifications
+    FOR EACH ROW
+EXECUTE FUNCTION record_notification_stats_delta();
+
+-- Backfill con el histórico existente
+INSERT INTO notification_daily_stats (organization_id, day, channel, status, notification_count)
+SELECT organization_id, COALESCE(sent_at, created_at)::date, channel, COALESCE(status, 'PENDING'), COUNT(*)
+FROM notifications
+WHERE organization_id IS NOT NULL
+GROUP BY organization_id, COALESCE(sent_at, created_at)::date, channel, COALESCE(status, 'PENDING');
@@ -0,0 +1,27 @@
+-- ============================================
+-- V20: Reglas de recargo por mora por organización
+-- Recargo = mayor entre (cuota diaria x días de atraso) y
+-- (tasa mensual x monto x meses de atraso, mínimo 1), limitado a tasa máxima x monto.
+-- Se aplica una vez que pasan los días de gracia desde el vencimiento.
+-- ============================================
+
+ALTER TABLE organizations
+    ADD COLUMN IF NOT EXISTS late_fee_enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    ADD COLUMN IF NOT EXISTS late_fee_grace_days INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS late_fee_daily_amount DECIMAL(10, 2) NOT NULL DEFAULT 10.00,
+    ADD COLUMN IF NOT EXISTS late_fee_monthly_rate DECIMAL(5, 4) NOT NULL DEFAULT 0.0500,
+    ADD COLUMN IF NOT EXISTS late_fee_max_rate DECIMAL(5, 4) NOT NULL DEFAULT 0.5000;
+
+ALTER TABLE organizations
+    ADD CONSTRAINT chk_organizations_late_fee_rules
+        CHECK (late_fee_grace_days >= 0
+            AND late_fee_daily_amount >= 0
+            AND late_fee_monthly_rate >= 0
+            AND late_fee_max_rate >= 0);
+
+UPDATE payments SET late_fee = 0 WHERE late_fee IS NULL;
+
+-- Pagos vencidos sin recargo: el motor de recargos recorre solo esta parte de payments
+CREATE INDEX IF NOT EXISTS idx_payments_late_fee_candidates
+    ON payments(contract_id, due_date)
+    WHERE status IN ('PENDIENTE', 'ATRASADO') AND late_fee = 0;
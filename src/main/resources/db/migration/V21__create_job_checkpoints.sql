@@ -0,0 +1,31 @@
+-- ============================================
+-- V21: Transiciones de estado nocturnas con checkpoints
+-- PENDIENTE -> ATRASADO (pagos vencidos) y ACTIVO -> VENCIDO (contratos terminados)
+-- se aplican por bloques recorriendo el id en orden (keyset). job_checkpoints guarda
+-- el último id procesado de cada job y día para retomar tras una caída.
+-- ============================================
+
+CREATE TABLE job_checkpoints (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    job_name VARCHAR(100) NOT NULL,
+    run_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    last_id UUID,
+    processed_count INTEGER NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT uk_job_checkpoints_run UNIQUE (job_name, run_date),
+    CONSTRAINT chk_job_checkpoints_status CHECK (status IN ('RUNNING', 'DONE'))
+);
+
+-- Recorrido keyset de pagos pendientes; due_date incluido para filtrar sin ir a la tabla
+CREATE INDEX IF NOT EXISTS idx_payments_pending_keyset
+    ON payments(id) INCLUDE (due_date)
+    WHERE status = 'PENDIENTE';
+
+-- Recorrido keyset de contratos activos
+CREATE INDEX IF NOT EXISTS idx_contracts_active_keyset
+    ON contracts(id) INCLUDE (end_date)
+    WHERE status = 'ACTIVO';
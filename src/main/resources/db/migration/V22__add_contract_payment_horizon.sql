@@ -0,0 +1,24 @@
+-- ============================================
+-- V22: Horizonte de pagos generados por contrato
+-- payments_generated_through = última fecha hasta la que ya existen los pagos de RENTA.
+-- El job nocturno extiende los contratos activos cuyo horizonte quedó corto.
+-- ============================================
+
+ALTER TABLE contracts
+    ADD COLUMN IF NOT EXISTS payments_generated_through DATE;
+
+UPDATE contracts c
+SET payments_generated_through = (
+    SELECT MAX(p.due_date)
+    FROM payments p
+    WHERE p.contract_id = c.id AND p.payment_type = 'RENTA'
+);
+
+-- Contratos activos por horizonte (NULL primero: nunca generados)
+CREATE INDEX IF NOT EXISTS idx_contracts_payment_horizon
+    ON contracts(payments_generated_through NULLS FIRST)
+    WHERE status = 'ACTIVO';
+
+-- Verificación de periodos ya generados (INSERT ... WHERE NOT EXISTS)
+CREATE INDEX IF NOT EXISTS idx_payments_contract_period
+    ON payments(contract_id, payment_type, period_year, period_month);
@@ -0,0 +1,8 @@
+-- ============================================
+-- V23: Consulta de pagos por periodo acotada a la organización
+-- Se recorren los contratos de la organización (idx_contracts_organization) y, por cada uno,
+-- sus pagos del periodo ya ordenados por (due_date, id) para la paginación keyset.
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_payments_contract_period_keyset
+    ON payments(contract_id, period_year, period_month, due_date, id);
@@ -0,0 +1,36 @@
+-- ============================================
+-- V24: payments.organization_id
+-- Copia de contracts.organization_id en cada pago, para que las consultas por
+-- organización (dashboard, recordatorios, resúmenes, rollup de ingresos) lean
+-- solo payments en lugar de pasar por contracts.
+-- La aplicación la llena al insertar; un contrato no cambia de organización.
+-- ============================================
+
+ALTER TABLE payments
+    ADD COLUMN organization_id UUID REFERENCES organizations(id) ON DELETE CASCADE;
+
+UPDATE payments p
+SET organization_id = c.organization_id
+FROM contracts c
+WHERE c.id = p.contract_id
+  AND p.organization_id IS NULL;
+
+ALTER TABLE payments
+    ALTER COLUMN organization_id SET NOT NULL;
+
+-- Pagos de la organización por estado y vencimiento (pendientes, atrasados, que vencen hoy, recordatorios)
+CREATE INDEX IF NOT EXISTS idx_payments_org_status_due
+    ON payments(organization_id, status, due_date);
+
+-- Pagos del periodo en orden (due_date, id) para la paginación keyset; reemplaza al de V23
+CREATE INDEX IF NOT EXISTS idx_payments_org_period_keyset
+    ON payments(organization_id, period_year, period_month, due_date, id);
+
+DROP INDEX IF EXISTS idx_payments_contract_period_keyset;
+
+-- Candidatos a recargo por mora de la organización; reemplaza al de V20
+CREATE INDEX IF NOT EXISTS idx_payments_org_late_fee_candidates
+    ON payments(organization_id, due_date)
+    WHERE status IN ('PENDIENTE', 'ATRASADO') AND late_fee = 0;
+
+DROP INDEX IF EXISTS idx_payments_late_fee_candidates;
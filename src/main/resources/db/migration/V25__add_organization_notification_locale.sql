@@ -0,0 +1,8 @@
+-- ============================================
+-- V25: Idioma de los mensajes de notificación por organización
+-- Elige qué plantillas (notification_templates.locale) se usan al enviar.
+-- NULL = idioma por defecto (notification.templates.default-locale).
+-- ============================================
+
+ALTER TABLE organizations
+    ADD COLUMN notification_locale VARCHAR(10);
@@ -0,0 +1,10 @@
+-- ============================================
+-- V26: Recargos por mora opcionales
+-- El job diario aplica recargos (también a pagos ya vencidos), así que cada
+-- organización los activa explícitamente con late_fee_enabled al actualizarla.
+-- ============================================
+
+ALTER TABLE organizations
+    ALTER COLUMN late_fee_enabled SET DEFAULT FALSE;
+
+UPDATE organizations SET late_fee_enabled = FALSE WHERE late_fee_enabled = TRUE;
@@ -0,0 +1,49 @@
+package com.rentas.properties.business.services.impl;
+
+import com.rentas.properties.api.dto.response.DashboardResponse;
+import com.rentas.properties.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardCacheTest {
+
+    private static final UUID ORGANIZATION_ID = UUID.randomUUID();
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.DASHBOARD_CACHE);
+    private final DashboardCache dashboardCache = new DashboardCache(cacheManager);
+
+    @Test
+    void testCachesLoadedDashboard() {
+        DashboardResponse loaded = new DashboardResponse();
+
+        assertSame(loaded, dashboardCache.get(ORGANIZATION_ID, () -> loaded));
+        assertSame(loaded, dashboardCache.get(ORGANIZATION_ID, () -> fail("Debió leerse del cache")));
+    }
+
+    @Test
+    void testLoadOverlappingEvictionIsNotCached() {
+        DashboardResponse stale = new DashboardResponse();
+
+        // El snapshot cambia mientras se calcula: lo calculado se devuelve pero no se guarda
+        DashboardResponse result = dashboardCache.get(ORGANIZATION_ID, () -> {
+            dashboardCache.evict(ORGANIZATION_ID);
+            return stale;
+        });
+
+        assertSame(stale, result);
+        assertNull(cacheManager.getCache(CacheConfig.DASHBOARD_CACHE).get(ORGANIZATION_ID));
+    }
+
+    @Test
+    void testEvictRemovesEntry() {
+        dashboardCache.get(ORGANIZATION_ID, DashboardResponse::new);
+        dashboardCache.evict(ORGANIZATION_ID);
+
+        DashboardResponse fresh = new DashboardResponse();
+        assertSame(fresh, dashboardCache.get(ORGANIZATION_ID, () -> fresh));
+    }
+}
@@ -0,0 +1,74 @@
+package com.rentas.properties.business.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateTest {
+
+    private static final Set<String> VARIABLES = Set.of("tenantName", "amount", "dueDate");
+
+    @Test
+    void testRendersVariables() {
+        CompiledTemplate template = CompiledTemplate.compile(
+                "Hola {{tenantName}}, tu pago de ${{amount}} vence el {{dueDate}}.", VARIABLES);
+
+        String message = template.render(Map.of(
+                "tenantName", "Ana",
+                "amount", "1500.00",
+                "dueDate", "2026-03-05"));
+
+        assertEquals("Hola Ana, tu pago de $1500.00 vence el 2026-03-05.", message);
+    }
+
+    @Test
+    void testTrimsVariableNamesAndRendersAdjacentVariables() {
+        CompiledTemplate template = CompiledTemplate.compile("{{ tenantName }}{{amount}}", VARIABLES);
+
+        assertEquals("Ana10", template.render(Map.of("tenantName", "Ana", "amount", "10")));
+    }
+
+    @Test
+    void testMissingValueRendersEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile("Hola {{tenantName}}!", VARIABLES);
+
+        Map<String, String> values = new HashMap<>();
+        values.put("tenantName", null);
+
+        assertEquals("Hola !", template.render(values));
+        assertEquals("Hola !", template.render(Map.of()));
+    }
+
+    @Test
+    void testTemplateWithoutVariables() {
+        CompiledTemplate template = CompiledTemplate.compile("Recordatorio de pago", VARIABLES);
+
+        assertEquals("Recordatorio de pago", template.render(Map.of("tenantName", "Ana")));
+    }
+
+    @Test
+    void testRejectsUnclosedVariable() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledTemplate.compile("Hola {{tenantName", VARIABLES));
+    }
+
+    @Test
+    void testRejectsVariableNotAllowed() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CompiledTemplate.compile("Hola {{password}}", VARIABLES));
+
+        assertTrue(e.getMessage().contains("password"));
+    }
+
+    @Test
+    void testDefaultTemplatesCompile() {
+        for (NotificationTemplateType type : NotificationTemplateType.values()) {
+            assertDoesNotThrow(() -> CompiledTemplate.compile(type.getDefaultBody(), type.getVariables()),
+                    "La plantilla por defecto de " + type + " debe compilar");
+        }
+    }
+}
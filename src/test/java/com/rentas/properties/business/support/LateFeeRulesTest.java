@@ -0,0 +1,107 @@
+package com.rentas.properties.business.support;
+
+import com.rentas.properties.dao.entity.Organization;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fórmula de recargo por mora. PaymentRepositoryLateFeeTest verifica que
+ * PaymentRepository.applyLateFees calcula lo mismo en SQL.
+ */
+class LateFeeRulesTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+    private static final BigDecimal AMOUNT = new BigDecimal("1000.00");
+
+    private static LateFeeRules rules(int graceDays, String daily, String monthlyRate, String maxRate) {
+        return LateFeeRules.of(Organization.builder()
+                .lateFeeEnabled(true)
+                .lateFeeGraceDays(graceDays)
+                .lateFeeDailyAmount(new BigDecimal(daily))
+                .lateFeeMonthlyRate(new BigDecimal(monthlyRate))
+                .lateFeeMaxRate(new BigDecimal(maxRate))
+                .build());
+    }
+
+    @Test
+    void testNoFeeWhenNotOverdue() {
+        LateFeeRules rules = rules(0, "10.00", "0.0500", "0.5000");
+
+        assertEquals(BigDecimal.ZERO, rules.calculate(AMOUNT, TODAY, TODAY));
+        assertEquals(BigDecimal.ZERO, rules.calculate(AMOUNT, TODAY.plusDays(3), TODAY));
+    }
+
+    @Test
+    void testDailyFeeWinsOverPercentage() {
+        LateFeeRules rules = rules(0, "10.00", "0.0500", "0.5000");
+
+        // 10 días x 10 = 100 > 1000 x 5% x 1 mes = 50
+        assertEquals(new BigDecimal("100.00"), rules.calculate(AMOUNT, TODAY.minusDays(10), TODAY));
+    }
+
+    @Test
+    void testPercentageFeeWinsOverDaily() {
+        LateFeeRules rules = rules(0, "1.00", "0.0500", "0.5000");
+
+        // 3 días x 1 = 3 < mínimo de un mes: 1000 x 5% = 50
+        assertEquals(new BigDecimal("50.00"), rules.calculate(AMOUNT, TODAY.minusDays(3), TODAY));
+        // 65 días = 2 meses completos: 1000 x 5% x 2 = 100 > 65
+        assertEquals(new BigDecimal("100.00"), rules.calculate(AMOUNT, TODAY.minusDays(65), TODAY));
+    }
+
+    @Test
+    void testFeeIsCappedAtMaxRate() {
+        LateFeeRules rules = rules(0, "10.00", "0.0500", "0.5000");
+
+        // 90 días x 10 = 900, limitado a 1000 x 50%
+        assertEquals(new BigDecimal("500.00"), rules.calculate(AMOUNT, TODAY.minusDays(90), TODAY));
+    }
+
+    @Test
+    void testFeeIsRoundedHalfUpToCents() {
+        LateFeeRules rules = rules(0, "0.00", "0.0500", "0.5000");
+
+        // 333.33 x 5% = 16.6665
+        assertEquals(new BigDecimal("16.67"), rules.calculate(new BigDecimal("333.33"), TODAY.minusDays(5), TODAY));
+    }
+
+    @Test
+    void testAppliesOnlyAfterGraceDays() {
+        LateFeeRules rules = rules(3, "10.00", "0.0500", "0.5000");
+
+        assertFalse(rules.appliesTo(TODAY.minusDays(3), TODAY), "El último día de gracia no aplica recargo");
+        assertTrue(rules.appliesTo(TODAY.minusDays(4), TODAY));
+    }
+
+    @Test
+    void testDisabledRulesNeverApply() {
+        LateFeeRules rules = LateFeeRules.of(Organization.builder()
+                .lateFeeEnabled(false)
+                .build());
+
+        assertFalse(rules.appliesTo(TODAY.minusDays(100), TODAY));
+    }
+
+    @Test
+    void testRulesAreDisabledUntilEnabled() {
+        assertFalse(LateFeeRules.of(Organization.builder().build()).appliesTo(TODAY.minusDays(100), TODAY));
+    }
+
+    @Test
+    void testMissingAmountsCountAsZero() {
+        LateFeeRules rules = LateFeeRules.of(Organization.builder()
+                .lateFeeEnabled(true)
+                .lateFeeGraceDays(null)
+                .lateFeeDailyAmount(null)
+                .lateFeeMonthlyRate(null)
+                .lateFeeMaxRate(null)
+                .build());
+
+        assertTrue(rules.appliesTo(TODAY.minusDays(1), TODAY));
+        assertEquals(new BigDecimal("0.00"), rules.calculate(AMOUNT, TODAY.minusDays(30), TODAY));
+    }
+}
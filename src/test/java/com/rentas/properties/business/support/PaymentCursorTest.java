@@ -0,0 +1,44 @@
+package com.rentas.properties.business.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        PaymentCursor cursor = new PaymentCursor(LocalDate.of(2026, 3, 5), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertEquals(cursor, PaymentCursor.decode(encoded));
+    }
+
+    @Test
+    void testEncodedCursorIsUrlSafe() {
+        String encoded = new PaymentCursor(LocalDate.of(2026, 12, 31), UUID.randomUUID()).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), "Cursor no apto para query string: " + encoded);
+    }
+
+    @Test
+    void testRejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> PaymentCursor.decode("no es base64!"));
+        assertThrows(IllegalArgumentException.class, () -> PaymentCursor.decode(encode("2026-03-05")));
+        assertThrows(IllegalArgumentException.class, () -> PaymentCursor.decode(encode("2026-03-05|no-uuid")));
+        assertThrows(IllegalArgumentException.class,
+                () -> PaymentCursor.decode(encode("05/03/2026|" + UUID.randomUUID())));
+        assertThrows(IllegalArgumentException.class,
+                () -> PaymentCursor.decode(encode("2026-03-05|" + UUID.randomUUID() + "|extra")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
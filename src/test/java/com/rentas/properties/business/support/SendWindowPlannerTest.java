@@ -0,0 +1,113 @@
+package com.rentas.properties.business.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendWindowPlannerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 15);
+    private static final UUID ORGANIZATION_ID = UUID.fromString("7f1c2a34-5b6d-4e8f-9a0b-1c2d3e4f5a6b");
+
+    private SimpleMeterRegistry meterRegistry;
+    private SendWindowPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        planner = new SendWindowPlanner("08:00", "18:00", 15, meterRegistry);
+    }
+
+    @Test
+    void testSpreadsEvenlyAcrossDefaultWindow() {
+        List<LocalDateTime> slots = planner.plan(ORGANIZATION_ID, null, null, DAY, DAY.atTime(6, 0), 4);
+
+        assertEquals(4, slots.size());
+        for (LocalDateTime slot : slots) {
+            assertFalse(slot.isBefore(DAY.atTime(8, 0)), "Antes de la ventana: " + slot);
+            assertTrue(slot.isBefore(DAY.atTime(18, 0)), "Después de la ventana: " + slot);
+        }
+        // 10 h / 4 = 150 min entre envíos (±1 ms por redondeo)
+        for (int i = 1; i < slots.size(); i++) {
+            long gap = Duration.between(slots.get(i - 1), slots.get(i)).toMillis();
+            assertTrue(Math.abs(gap - Duration.ofMinutes(150).toMillis()) <= 1, "Separación inesperada: " + gap);
+        }
+    }
+
+    @Test
+    void testUsesRemainingWindowWhenAlreadyStarted() {
+        LocalDateTime now = DAY.atTime(16, 0);
+
+        List<LocalDateTime> slots = planner.plan(ORGANIZATION_ID, null, null, DAY, now, 3);
+
+        for (LocalDateTime slot : slots) {
+            assertFalse(slot.isBefore(now));
+            assertTrue(slot.isBefore(DAY.atTime(18, 0)));
+        }
+    }
+
+    @Test
+    void testSendsImmediatelyWhenWindowIsOver() {
+        LocalDateTime now = DAY.atTime(20, 0);
+
+        List<LocalDateTime> slots = planner.plan(ORGANIZATION_ID, null, null, DAY, now, 3);
+
+        assertEquals(List.of(now, now, now), slots);
+    }
+
+    @Test
+    void testOrganizationWindowRequiresBothEnds() {
+        LocalTime start = LocalTime.of(10, 0);
+        LocalTime end = LocalTime.of(12, 0);
+
+        assertEquals(start, planner.effectiveStart(start, end));
+        assertEquals(end, planner.effectiveEnd(start, end));
+        assertEquals(LocalTime.of(8, 0), planner.effectiveStart(start, null));
+        assertEquals(LocalTime.of(18, 0), planner.effectiveEnd(null, end));
+
+        List<LocalDateTime> slots = planner.plan(ORGANIZATION_ID, start, end, DAY, DAY.atTime(6, 0), 5);
+        for (LocalDateTime slot : slots) {
+            assertFalse(slot.isBefore(DAY.atTime(start)));
+            assertTrue(slot.isBefore(DAY.atTime(end)));
+        }
+    }
+
+    @Test
+    void testWindowStartIsNeverInThePast() {
+        assertEquals(DAY.atTime(8, 0), planner.windowStart(null, null, DAY, DAY.atTime(6, 0)));
+        assertEquals(DAY.atTime(9, 30), planner.windowStart(null, null, DAY, DAY.atTime(9, 30)));
+    }
+
+    @Test
+    void testEmptyPlanForNoNotifications() {
+        assertTrue(planner.plan(ORGANIZATION_ID, null, null, DAY, DAY.atTime(6, 0), 0).isEmpty());
+    }
+
+    @Test
+    void testCountsScheduledPerBucket() {
+        planner.plan(ORGANIZATION_ID, null, null, DAY, DAY.atTime(6, 0), 8);
+
+        double scheduled = meterRegistry.find("notification.window.scheduled").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+        assertEquals(8, scheduled);
+    }
+
+    @Test
+    void testRejectsInvalidDefaultWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SendWindowPlanner("18:00", "08:00", 15, meterRegistry));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SendWindowPlanner("08:00", "18:00", 0, meterRegistry));
+    }
+}
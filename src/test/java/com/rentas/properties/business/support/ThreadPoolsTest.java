@@ -0,0 +1,66 @@
+package com.rentas.properties.business.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadPoolsTest {
+
+    @Test
+    void testThreadsAreNamedDaemons() {
+        Thread first = ThreadPools.daemonThreads("pool-test").newThread(() -> { });
+        Thread second = ThreadPools.daemonThreads("pool-test").newThread(() -> { });
+
+        assertEquals("pool-test-1", first.getName());
+        assertEquals("pool-test-1", second.getName(), "Cada pool numera sus propios hilos");
+        assertTrue(first.isDaemon());
+    }
+
+    @Test
+    void testCallerRunsWhenQueueIsFull() throws InterruptedException {
+        ThreadPoolExecutor executor = ThreadPools.fixed("pool-test", 1, 1, new ThreadPoolExecutor.CallerRunsPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release)); // ocupa el único hilo
+            executor.execute(() -> { });                   // ocupa la cola
+
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+            assertSame(Thread.currentThread(), ranOn.get());
+        } finally {
+            release.countDown();
+            ThreadPools.shutdown(executor);
+        }
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    void testAbortRejectsWhenQueueIsFull() {
+        ThreadPoolExecutor executor = ThreadPools.fixed("pool-test", 1, 1, new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> { });
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        } finally {
+            release.countDown();
+            ThreadPools.shutdown(executor);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.rentas.properties.business.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstIsAvailableImmediately() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+    }
+
+    @Test
+    void testRejectsWhenWaitExceedsMax() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(0);
+
+        assertEquals(-1, bucket.reserve(0), "Sin tokens y sin espera aceptable no se reserva");
+        // El rechazo no consumió nada: la siguiente espera sigue siendo de ~1 token
+        long wait = bucket.reserve(10 * ONE_SECOND);
+        assertTrue(wait > 0 && wait <= ONE_SECOND, "Espera esperada de hasta 1 s, fue " + wait);
+    }
+
+    @Test
+    void testConcurrentReservationsAreStaggered() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(0);
+
+        long first = bucket.reserve(10 * ONE_SECOND);
+        long second = bucket.reserve(10 * ONE_SECOND);
+
+        assertTrue(first > 0 && first <= ONE_SECOND, "Primera espera fuera de rango: " + first);
+        assertTrue(second > ONE_SECOND && second <= 2 * ONE_SECOND, "Segunda espera fuera de rango: " + second);
+    }
+
+    @Test
+    void testRefillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 1);
+        bucket.reserve(0);
+
+        Thread.sleep(30);
+
+        assertEquals(0, bucket.reserve(0), "A 100/s, en 30 ms se recarga al menos un token");
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,37 @@
+package com.rentas.properties.dao.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardSnapshotRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private DashboardSnapshotRepository snapshotRepository;
+
+    @Test
+    void testInsertIfAbsentCreatesRowOnce() {
+        UUID organizationId = insertOrganization();
+
+        assertEquals(1, snapshotRepository.insertIfAbsent(organizationId));
+        assertEquals(0, snapshotRepository.insertIfAbsent(organizationId), "La fila ya existe: no se duplica");
+
+        assertTrue(snapshotRepository.findByIdForUpdate(organizationId).isPresent());
+    }
+
+    @Test
+    void testInsertIfAbsentKeepsExistingSnapshot() {
+        UUID organizationId = insertOrganization();
+        snapshotRepository.insertIfAbsent(organizationId);
+        jdbcTemplate.update("UPDATE dashboard_snapshot SET properties_total = 7, computed_on = CURRENT_DATE " +
+                "WHERE organization_id = ?", organizationId);
+
+        snapshotRepository.insertIfAbsent(organizationId);
+
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT properties_total FROM dashboard_snapshot WHERE organization_id = ?", Integer.class, organizationId));
+    }
+}
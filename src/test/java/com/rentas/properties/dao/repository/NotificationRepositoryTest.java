@@ -0,0 +1,140 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.dao.entity.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 15, 10, 0);
+    private static final UUID RECIPIENT_ID = UUID.randomUUID();
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testAdminDigestIsInsertedOncePerDay() {
+        UUID organizationId = insertOrganization();
+        String key = Notification.adminDigestKey(organizationId, NOW.toLocalDate());
+
+        int first = insertDigest(organizationId, key);
+        int second = insertDigest(organizationId, key);
+        int nextDay = insertDigest(organizationId, Notification.adminDigestKey(organizationId, NOW.toLocalDate().plusDays(1)));
+
+        assertEquals(1, first);
+        assertEquals(0, second, "La misma llave no debe encolar un segundo resumen");
+        assertEquals(1, nextDay);
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE organization_id = ?", Integer.class, organizationId));
+    }
+
+    @Test
+    void testPaymentReminderIsInsertedOncePerKey() {
+        UUID organizationId = insertOrganization();
+        UUID contractId = insertContract(organizationId);
+        UUID paymentId = insertPayment(organizationId, contractId, "RENTA", "PENDIENTE", NOW.toLocalDate(), "1000.00");
+        String key = Notification.paymentReminderKey(paymentId, "WHATSAPP", "PAYMENT_DUE_TODAY", NOW.toLocalDate());
+
+        int first = insertReminder(organizationId, contractId, paymentId, key);
+        int second = insertReminder(organizationId, contractId, paymentId, key);
+        int otherChannel = insertReminder(organizationId, contractId, paymentId,
+                Notification.paymentReminderKey(paymentId, "SMS", "PAYMENT_DUE_TODAY", NOW.toLocalDate()));
+
+        assertEquals(1, first);
+        assertEquals(0, second, "Repetir el job no debe duplicar el recordatorio");
+        assertEquals(1, otherChannel, "Cada canal tiene su propia llave");
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE related_payment_id = ?", Integer.class, paymentId));
+    }
+
+    @Test
+    void testLockDueIdsOnlyReturnsDuePending() {
+        UUID organizationId = insertOrganization();
+        UUID due = insertPending(organizationId, NOW.minusMinutes(1));
+        insertPending(organizationId, NOW.plusMinutes(1));
+        UUID sending = insertPending(organizationId, NOW.minusMinutes(5));
+        jdbcTemplate.update("UPDATE notifications SET status = 'SENDING' WHERE id = ?", sending);
+
+        assertEquals(List.of(due), notificationRepository.lockDueIds(NOW, 10));
+    }
+
+    /**
+     * Dos dispatchers reclamando a la vez se reparten las filas en lugar de bloquearse o duplicarlas
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testConcurrentClaimsSkipLockedRows() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        UUID organizationId = tx.execute(status -> {
+            UUID id = insertOrganization();
+            for (int i = 0; i < 4; i++) {
+                insertPending(id, NOW.minusMinutes(10 - i));
+            }
+            return id;
+        });
+
+        try {
+            Set<UUID> claimed = new HashSet<>();
+            tx.executeWithoutResult(status -> {
+                List<UUID> first = notificationRepository.lockDueIds(NOW, 2);
+                assertEquals(2, first.size());
+                claimed.addAll(first);
+
+                // Otro nodo, con la primera transacción aún abierta
+                List<UUID> second = CompletableFuture
+                        .supplyAsync(() -> tx.execute(s -> notificationRepository.lockDueIds(NOW, 10)))
+                        .orTimeout(10, TimeUnit.SECONDS)
+                        .join();
+
+                assertEquals(2, second.size(), "Las filas bloqueadas se saltan sin esperar");
+                for (UUID id : second) {
+                    assertTrue(claimed.add(id), "Fila reclamada dos veces: " + id);
+                }
+            });
+        } finally {
+            tx.executeWithoutResult(status -> deleteOrganization(organizationId));
+        }
+    }
+
+    private int insertDigest(UUID organizationId, String key) {
+        return notificationRepository.insertAdminDigestIfAbsent(RECIPIENT_ID, "+5215512345678", "Resumen diario",
+                "Resumen", "WHATSAPP", NOW, NOW, key, organizationId);
+    }
+
+    private int insertReminder(UUID organizationId, UUID contractId, UUID paymentId, String key) {
+        return notificationRepository.insertPaymentReminderIfAbsent(RECIPIENT_ID, "+5215512345678",
+                "Recordatorio de pago", "Mensaje", "WHATSAPP", contractId, paymentId, NOW, NOW, key, organizationId);
+    }
+
+    private UUID insertPending(UUID organizationId, LocalDateTime nextAttemptAt) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO notifications (recipient_type, recipient_phone, notification_type, title, message, " +
+                        "channel, status, retry_count, next_attempt_at, created_at, organization_id) " +
+                        "VALUES ('TENANT', '+5215512345678', 'PAYMENT_REMINDER', 'Recordatorio', 'Mensaje', " +
+                        "'WHATSAPP', 'PENDING', 0, ?, ?, ?) RETURNING id",
+                UUID.class, nextAttemptAt, NOW.minusHours(1), organizationId);
+    }
+
+    private void deleteOrganization(UUID organizationId) {
+        jdbcTemplate.update("DELETE FROM notifications WHERE organization_id = ?", organizationId);
+        jdbcTemplate.update("DELETE FROM notification_stats_deltas WHERE organization_id = ?", organizationId);
+        jdbcTemplate.update("DELETE FROM organizations WHERE id = ?", organizationId);
+    }
+}
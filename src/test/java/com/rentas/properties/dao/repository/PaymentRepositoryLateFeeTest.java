@@ -0,0 +1,134 @@
+package com.rentas.properties.dao.repository;
+
+import com.rentas.properties.business.support.LateFeeRules;
+import com.rentas.properties.dao.entity.Organization;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PaymentRepository.applyLateFees calcula el recargo en SQL; debe coincidir con LateFeeRules,
+ * que es lo que usa el cálculo en Java (recargo manual y vista previa).
+ */
+class PaymentRepositoryLateFeeTest extends PostgresRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void testSqlFeeMatchesLateFeeRules() {
+        UUID organizationId = insertOrganization();
+        setLateFeeRules(organizationId, true, 2, "10.00", "0.0500", "0.5000");
+        UUID contractId = insertContract(organizationId);
+
+        // Días de atraso que cubren: gracia, cuota diaria, mínimo de un mes, varios meses y tope
+        Map<UUID, String[]> payments = new LinkedHashMap<>();
+        int[] daysOverdue = {1, 2, 3, 4, 10, 29, 30, 45, 61, 65, 95, 400};
+        String[] amounts = {"1000.00", "333.33", "50.00", "12345.67"};
+        for (int days : daysOverdue) {
+            for (String amount : amounts) {
+                LocalDate dueDate = TODAY.minusDays(days);
+                payments.put(insertPayment(organizationId, contractId, "RENTA", "PENDIENTE", dueDate, amount),
+                        new String[]{amount, dueDate.toString()});
+            }
+        }
+
+        paymentRepository.applyLateFees(organizationId, TODAY, 1000);
+
+        LateFeeRules rules = LateFeeRules.of(Organization.builder()
+                .lateFeeEnabled(true)
+                .lateFeeGraceDays(2)
+                .lateFeeDailyAmount(new BigDecimal("10.00"))
+                .lateFeeMonthlyRate(new BigDecimal("0.0500"))
+                .lateFeeMaxRate(new BigDecimal("0.5000"))
+                .build());
+
+        for (Map.Entry<UUID, String[]> payment : payments.entrySet()) {
+            BigDecimal amount = new BigDecimal(payment.getValue()[0]);
+            LocalDate dueDate = LocalDate.parse(payment.getValue()[1]);
+            BigDecimal expected = rules.appliesTo(dueDate, TODAY)
+                    ? rules.calculate(amount, dueDate, TODAY)
+                    : BigDecimal.ZERO;
+
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT late_fee, total_amount, status FROM payments WHERE id = ?", payment.getKey());
+
+            assertEquals(0, expected.compareTo((BigDecimal) row.get("late_fee")),
+                    "Recargo distinto para " + amount + " vencido el " + dueDate
+                            + ": Java " + expected + ", SQL " + row.get("late_fee"));
+            assertEquals(0, amount.add(expected).compareTo((BigDecimal) row.get("total_amount")));
+            assertEquals(rules.appliesTo(dueDate, TODAY) ? "ATRASADO" : "PENDIENTE", row.get("status"));
+        }
+    }
+
+    @Test
+    void testAppliesFeeOnlyOnce() {
+        UUID organizationId = insertOrganization();
+        setLateFeeRules(organizationId, true, 0, "10.00", "0.0500", "0.5000");
+        UUID contractId = insertContract(organizationId);
+        insertPayment(organizationId, contractId, "RENTA", "PENDIENTE", TODAY.minusDays(10), "1000.00");
+
+        List<Object[]> first = paymentRepository.applyLateFees(organizationId, TODAY, 100);
+        List<Object[]> second = paymentRepository.applyLateFees(organizationId, TODAY.plusDays(5), 100);
+
+        assertEquals(1, first.size());
+        assertEquals(1L, ((Number) first.get(0)[2]).longValue());
+        assertTrue(second.isEmpty(), "Un pago con recargo no se vuelve a recargar");
+    }
+
+    /**
+     * Un recargo que redondea a 0 no debe ocupar lugar en el bloque: se volvería a seleccionar siempre
+     */
+    @Test
+    void testZeroFeePaymentsAreSkipped() {
+        UUID organizationId = insertOrganization();
+        setLateFeeRules(organizationId, true, 0, "0.00", "0.0500", "0.0001");
+        UUID contractId = insertContract(organizationId);
+        for (int i = 0; i < 3; i++) {
+            insertPayment(organizationId, contractId, "RENTA", "PENDIENTE", TODAY.minusDays(40 - i), "10.00");
+        }
+        UUID paymentId = insertPayment(organizationId, contractId, "RENTA", "PENDIENTE", TODAY.minusDays(10), "1000.00");
+
+        List<Object[]> applied = paymentRepository.applyLateFees(organizationId, TODAY, 2);
+
+        assertEquals(1, applied.size());
+        assertEquals(1L, ((Number) applied.get(0)[2]).longValue());
+        assertEquals(0, new BigDecimal("0.10").compareTo(jdbcTemplate.queryForObject(
+                "SELECT late_fee FROM payments WHERE id = ?", BigDecimal.class, paymentId)));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE contract_id = ? AND late_fee = 0 AND status = 'PENDIENTE'",
+                Integer.class, contractId));
+    }
+
+    @Test
+    void testNewOrganizationsAreNotCharged() {
+        UUID organizationId = insertOrganization();
+        UUID contractId = insertContract(organizationId);
+        insertPayment(organizationId, contractId, "RENTA", "PENDIENTE", TODAY.minusDays(10), "1000.00");
+
+        assertTrue(paymentRepository.applyLateFees(organizationId, TODAY, 100).isEmpty(),
+                "Los recargos se activan explícitamente por organización");
+    }
+
+    @Test
+    void testDisabledRulesApplyNothing() {
+        UUID organizationId = insertOrganization();
+        setLateFeeRules(organizationId, false, 0, "10.00", "0.0500", "0.5000");
+        UUID contractId = insertContract(organizationId);
+        UUID paymentId = insertPayment(organizationId, contractId, "RENTA", "PENDIENTE", TODAY.minusDays(10), "1000.00");
+
+        assertTrue(paymentRepository.applyLateFees(organizationId, TODAY, 100).isEmpty());
+        assertEquals("PENDIENTE", jdbcTemplate.queryForObject(
+                "SELECT status FROM payments WHERE id = ?", String.class, paymentId));
+    }
+}
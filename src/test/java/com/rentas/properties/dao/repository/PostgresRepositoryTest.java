@@ -0,0 +1,74 @@
+package com.rentas.properties.dao.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Base de los tests de consultas nativas de PostgreSQL (ON CONFLICT, FOR UPDATE SKIP LOCKED,
+ * advisory locks) que H2 no soporta.
+ *
+ * Levanta un PostgreSQL en contenedor, aplica las migraciones de Flyway y valida las entidades
+ * contra el esquema (ddl-auto=validate). Sin Docker disponible los tests se omiten.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class PostgresRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    protected UUID insertOrganization() {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO organizations (name, invitation_code) VALUES (?, ?) RETURNING id",
+                UUID.class, "Org Test", UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    protected void setLateFeeRules(UUID organizationId, boolean enabled, int graceDays, String dailyAmount,
+                                   String monthlyRate, String maxRate) {
+        jdbcTemplate.update("UPDATE organizations SET late_fee_enabled = ?, late_fee_grace_days = ?, " +
+                        "late_fee_daily_amount = ?, late_fee_monthly_rate = ?, late_fee_max_rate = ? WHERE id = ?",
+                enabled, graceDays, new BigDecimal(dailyAmount), new BigDecimal(monthlyRate),
+                new BigDecimal(maxRate), organizationId);
+    }
+
+    /**
+     * Propiedad y contrato mínimos para colgar pagos
+     */
+    protected UUID insertContract(UUID organizationId) {
+        String code = UUID.randomUUID().toString().substring(0, 12);
+        UUID propertyId = jdbcTemplate.queryForObject(
+                "INSERT INTO properties (property_code, property_type, address, monthly_rent, organization_id) " +
+                        "VALUES (?, 'DEPARTAMENTO', 'Calle Test 1', 1000, ?) RETURNING id",
+                UUID.class, code, organizationId);
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO contracts (property_id, contract_number, start_date, end_date, monthly_rent, " +
+                        "advance_payment, deposit_amount, organization_id) " +
+                        "VALUES (?, ?, DATE '2025-01-01', DATE '2027-12-31', 1000, 0, 0, ?) RETURNING id",
+                UUID.class, propertyId, code, organizationId);
+    }
+
+    protected UUID insertPayment(UUID organizationId, UUID contractId, String paymentType, String status,
+                                 LocalDate dueDate, String amount) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO payments (contract_id, organization_id, payment_type, payment_date, due_date, " +
+                        "period_month, period_year, amount, late_fee, total_amount, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?) RETURNING id",
+                UUID.class, contractId, organizationId, paymentType, dueDate, dueDate,
+                dueDate.getMonthValue(), dueDate.getYear(), new BigDecimal(amount), new BigDecimal(amount), status);
+    }
+}
@@ -0,0 +1,85 @@
+package com.rentas.properties.dao.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderJobShardRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private ReminderJobShardRepository shardRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testCreateShardsIsIdempotent() {
+        LocalDate runDate = LocalDate.of(2026, 3, 15);
+
+        assertEquals(4, shardRepository.createShards(runDate, 4));
+        assertEquals(0, shardRepository.createShards(runDate, 4), "Otro nodo ya creó los shards");
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reminder_job_shards WHERE run_date = ?", Integer.class, runDate));
+    }
+
+    @Test
+    void testExpiredLeaseIsClaimable() {
+        LocalDate runDate = LocalDate.of(2026, 3, 16);
+        LocalDateTime now = runDate.atTime(6, 0);
+        shardRepository.createShards(runDate, 2);
+        jdbcTemplate.update("UPDATE reminder_job_shards SET status = 'RUNNING', lease_until = ? " +
+                "WHERE run_date = ? AND shard_id = 0", now.plusMinutes(5), runDate);
+        jdbcTemplate.update("UPDATE reminder_job_shards SET status = 'RUNNING', lease_until = ? " +
+                "WHERE run_date = ? AND shard_id = 1", now.minusMinutes(5), runDate);
+
+        List<UUID> claimable = shardRepository.lockClaimable(runDate, now);
+
+        assertEquals(List.of(shardId(runDate, 1)), claimable, "Solo el shard con lease vencido");
+    }
+
+    /**
+     * Dos nodos reclamando a la vez obtienen shards distintos
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testConcurrentClaimsGetDifferentShards() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        LocalDate runDate = LocalDate.of(2026, 3, 17);
+        LocalDateTime now = runDate.atTime(6, 0);
+        tx.executeWithoutResult(status -> shardRepository.createShards(runDate, 2));
+
+        try {
+            tx.executeWithoutResult(status -> {
+                List<UUID> first = shardRepository.lockClaimable(runDate, now);
+
+                List<UUID> second = CompletableFuture
+                        .supplyAsync(() -> tx.execute(s -> shardRepository.lockClaimable(runDate, now)))
+                        .orTimeout(10, TimeUnit.SECONDS)
+                        .join();
+
+                assertEquals(List.of(shardId(runDate, 0)), first);
+                assertEquals(List.of(shardId(runDate, 1)), second, "El shard bloqueado se salta sin esperar");
+            });
+        } finally {
+            tx.executeWithoutResult(status ->
+                    jdbcTemplate.update("DELETE FROM reminder_job_shards WHERE run_date = ?", runDate));
+        }
+    }
+
+    private UUID shardId(LocalDate runDate, int shard) {
+        return jdbcTemplate.queryForObject(
+                "SELECT id FROM reminder_job_shards WHERE run_date = ? AND shard_id = ?", UUID.class, runDate, shard);
+    }
+}
@@ -0,0 +1,89 @@
+package com.rentas.properties.dao.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueRollupRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate DUE_DATE = LocalDate.of(2026, 3, 5);
+
+    @Autowired
+    private RevenueRollupRepository rollupRepository;
+
+    @Test
+    void testUpsertPeriodReflectsCurrentPayments() {
+        UUID organizationId = insertOrganization();
+        UUID contractId = insertContract(organizationId);
+        UUID paid = insertPayment(organizationId, contractId, "RENTA", "PAGADO", DUE_DATE, "1000.00");
+        insertPayment(organizationId, contractId, "RENTA", "PAGADO", DUE_DATE.plusDays(1), "500.00");
+        insertPayment(organizationId, contractId, "AGUA", "PENDIENTE", DUE_DATE, "105.00");
+
+        assertEquals(1, rollupRepository.lockOrganization(organizationId));
+        rollupRepository.upsertPeriod(organizationId, 2026, 3);
+
+        assertGroup(organizationId, "RENTA", "PAGADO", "1500.00", 2);
+        assertGroup(organizationId, "AGUA", "PENDIENTE", "105.00", 1);
+
+        // Un pago cambia de estado: el grupo se recalcula desde payments, no se acumula
+        jdbcTemplate.update("UPDATE payments SET status = 'PENDIENTE' WHERE id = ?", paid);
+        rollupRepository.upsertPeriod(organizationId, 2026, 3);
+        rollupRepository.deleteEmptyGroups(organizationId, 2026, 3);
+
+        assertGroup(organizationId, "RENTA", "PAGADO", "500.00", 1);
+        assertGroup(organizationId, "RENTA", "PENDIENTE", "1000.00", 1);
+
+        jdbcTemplate.update("UPDATE payments SET status = 'PAGADO' WHERE organization_id = ? AND payment_type = 'RENTA'",
+                organizationId);
+        rollupRepository.upsertPeriod(organizationId, 2026, 3);
+        rollupRepository.deleteEmptyGroups(organizationId, 2026, 3);
+
+        assertGroup(organizationId, "RENTA", "PAGADO", "1500.00", 2);
+        assertNoGroup(organizationId, "RENTA", "PENDIENTE");
+    }
+
+    @Test
+    void testUpsertOrganizationRebuildsAllPeriods() {
+        UUID organizationId = insertOrganization();
+        UUID contractId = insertContract(organizationId);
+        insertPayment(organizationId, contractId, "RENTA", "PAGADO", DUE_DATE, "1000.00");
+        insertPayment(organizationId, contractId, "RENTA", "PAGADO", DUE_DATE.plusMonths(1), "1000.00");
+
+        // Grupo huérfano, p.ej. de un pago eliminado
+        jdbcTemplate.update("INSERT INTO revenue_rollup (organization_id, period_year, period_month, payment_type, " +
+                "status, amount_sum, payment_count) VALUES (?, 2025, 12, 'RENTA', 'PAGADO', 999, 1)", organizationId);
+
+        rollupRepository.lockOrganization(organizationId);
+        rollupRepository.upsertOrganization(organizationId);
+        rollupRepository.deleteEmptyGroupsForOrganization(organizationId);
+
+        List<Object[]> paidByMonth = rollupRepository.sumPaidByMonth(organizationId, 2025, 2026);
+        assertEquals(2, paidByMonth.size());
+        assertEquals(3, ((Number) paidByMonth.get(0)[1]).intValue());
+        assertEquals(4, ((Number) paidByMonth.get(1)[1]).intValue());
+    }
+
+    private void assertGroup(UUID organizationId, String paymentType, String status, String amountSum, int count) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT amount_sum, payment_count FROM revenue_rollup " +
+                        "WHERE organization_id = ? AND period_year = 2026 AND period_month = 3 " +
+                        "AND payment_type = ? AND status = ?",
+                organizationId, paymentType, status);
+        assertEquals(0, new BigDecimal(amountSum).compareTo((BigDecimal) row.get("amount_sum")),
+                paymentType + "/" + status + ": " + row.get("amount_sum"));
+        assertEquals(count, ((Number) row.get("payment_count")).intValue());
+    }
+
+    private void assertNoGroup(UUID organizationId, String paymentType, String status) {
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revenue_rollup " +
+                        "WHERE organization_id = ? AND period_year = 2026 AND period_month = 3 " +
+                        "AND payment_type = ? AND status = ?",
+                Integer.class, organizationId, paymentType, status));
+    }
+}